@@ -2,9 +2,12 @@ package planmysem;
 
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 import planmysem.logic.LogicManager;
+import planmysem.storage.AsyncStorage;
 import planmysem.storage.Storage;
+import planmysem.storage.Storage.StorageOperationException;
 import planmysem.storage.StorageFile;
 import planmysem.ui.Stoppable;
 import planmysem.ui.UiManager;
@@ -19,21 +22,49 @@ public class Main extends Application implements Stoppable {
      */
     public static final String VERSION = "PlanMySem - Version 1.4";
 
+    private Storage storage;
+
     public static void main(String[] args) {
         launch(args);
     }
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        Storage storageFile = new StorageFile();
-        UiManager uiManager = new UiManager(new LogicManager(storageFile), VERSION);
+        storage = new AsyncStorage(new StorageFile());
+        UiManager uiManager = new UiManager(new LogicManager(storage), VERSION);
         uiManager.start(primaryStage, this);
     }
 
+    /**
+     * Writes the pending changes and closes the application, which closes even if the changes cannot be written.
+     */
     @Override
     public void stop() throws Exception {
-        super.stop();
-        Platform.exit();
+        try {
+            if (storage != null) {
+                storage.flush();
+            }
+        } catch (StorageOperationException soe) {
+            showSaveFailure(soe);
+        } finally {
+            super.stop();
+            Platform.exit();
+        }
+    }
+
+    /**
+     * Tells the user that their last changes could not be written before the application closes.
+     */
+    private void showSaveFailure(StorageOperationException soe) {
+        final String message = LogicManager.STORAGE_ERROR + soe.getMessage();
+        try {
+            final Alert alert = new Alert(Alert.AlertType.ERROR, message);
+            alert.setHeaderText("Your last changes were not saved.");
+            alert.showAndWait();
+        } catch (IllegalStateException ise) {
+            // the toolkit is shutting down already, so the message can only be printed
+            System.err.println(message);
+        }
     }
 }
 
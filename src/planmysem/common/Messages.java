@@ -41,6 +41,46 @@ public class Messages {
     public static final String MESSAGE_ILLEGAL_WEEK_VALUE = "No such week is found in the current semester!";
     public static final String MESSAGE_DATE_OUT_OF_BOUNDS = "No such date is found in the current semester!";
 
+    /**
+     * Craft message warning about the slots which clash with added or edited slots, or nothing if there are none.
+     */
+    public static String craftClashMessage(List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> clashes) {
+        if (clashes.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("\n\nWarning: clashes with ");
+        sb.append(clashes.size());
+        sb.append(" slot(s):");
+
+        int count = 1;
+        for (Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>> entry : clashes) {
+            sb.append("\n");
+            sb.append(count);
+            sb.append(".\t");
+            sb.append(craftSlotTime(entry.getKey(), entry.getValue().getValue()));
+            count++;
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Craft the name, date and time of a slot on one line.
+     */
+    public static String craftSlotTime(LocalDate date, ReadOnlySlot slot) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(slot.getName());
+        sb.append(", ");
+        sb.append(date);
+        sb.append(" ");
+        sb.append(slot.getStartTime());
+        sb.append(" to ");
+        sb.append(Utils.getEndTime(slot.getStartTime(), slot.getDuration()));
+
+        return sb.toString();
+    }
+
     /**
      * Craft selected message via tags.
      */
@@ -2,6 +2,7 @@ package planmysem.logic;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javafx.collections.ObservableList;
 import javafx.util.Pair;
@@ -21,6 +22,11 @@ public interface Logic {
      */
     CommandResult execute(String commandText) throws CommandException, ParseException;
 
+    /**
+     * Sets the handler to notify with an error message when changes could not be saved in the background.
+     */
+    void setStorageFailureHandler(Consumer<String> handler);
+
     /**
      * Gets the storage file's path.
      */
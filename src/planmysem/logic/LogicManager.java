@@ -2,17 +2,22 @@ package planmysem.logic;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javafx.collections.ObservableList;
 import javafx.util.Pair;
 import planmysem.logic.commands.Command;
 import planmysem.logic.commands.CommandResult;
+import planmysem.logic.commands.ExitCommand;
 import planmysem.logic.commands.exceptions.CommandException;
 import planmysem.logic.parser.ParserManager;
 import planmysem.logic.parser.exceptions.ParseException;
 import planmysem.model.Model;
 import planmysem.model.ModelManager;
+import planmysem.model.Planner;
+import planmysem.model.PlannerHistory;
 import planmysem.model.semester.ReadOnlyDay;
+import planmysem.model.semester.WeekLoader;
 import planmysem.model.slot.ReadOnlySlot;
 import planmysem.storage.Storage;
 import planmysem.storage.StorageFile;
@@ -22,6 +27,7 @@ import planmysem.storage.StorageFile;
  */
 public class LogicManager implements Logic {
     public static final String STORAGE_ERROR = "Could not save data to file: ";
+    public static final String STORAGE_READ_ERROR = "Could not read data from file: ";
 
     private final Storage storage;
     private final Model model;
@@ -30,7 +36,8 @@ public class LogicManager implements Logic {
 
     public LogicManager(Storage storage) throws Exception {
         this.storage = storage;
-        this.model = new ModelManager(storage.load());
+        final Planner planner = storage.load();
+        this.model = new ModelManager(planner, storage.loadHistory(planner), storage::getStatistics);
         this.history = new CommandHistory();
         this.parserManager = new ParserManager();
     }
@@ -38,14 +45,22 @@ public class LogicManager implements Logic {
     @Override
     public CommandResult execute(String userCommandText) throws CommandException, ParseException {
         CommandResult result;
+        Command command;
         try {
-            Command command = parserManager.parseCommand(userCommandText);
+            command = parserManager.parseCommand(userCommandText);
             result = command.execute(model, history);
+        } catch (WeekLoader.WeekLoadException wle) {
+            throw new CommandException(STORAGE_READ_ERROR + wle.getMessage(), wle);
+        } catch (PlannerHistory.HistoryReadException hre) {
+            throw new CommandException(STORAGE_READ_ERROR + hre.getMessage(), hre);
         } finally {
             history.add(userCommandText);
         }
         try {
             storage.save(model.getPlanner());
+            if (command instanceof ExitCommand) {
+                storage.flush();
+            }
         } catch (StorageFile.StorageOperationException soe) {
             throw new CommandException(STORAGE_ERROR + soe, soe);
         }
@@ -53,6 +68,11 @@ public class LogicManager implements Logic {
         return result;
     }
 
+    @Override
+    public void setStorageFailureHandler(Consumer<String> handler) {
+        storage.setSaveFailureHandler(soe -> handler.accept(STORAGE_ERROR + soe));
+    }
+
     @Override
     public String getStorageFilePath() {
         return storage.getPath();
@@ -4,16 +4,22 @@ import static java.util.Objects.requireNonNull;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
+import javafx.util.Pair;
+import planmysem.common.Messages;
 import planmysem.logic.CommandHistory;
 import planmysem.logic.commands.exceptions.CommandException;
 import planmysem.model.Model;
 import planmysem.model.recurrence.Recurrence;
 import planmysem.model.semester.Day;
+import planmysem.model.semester.ReadOnlyDay;
 import planmysem.model.semester.Semester;
+import planmysem.model.slot.ReadOnlySlot;
 import planmysem.model.slot.Slot;
 
 /**
@@ -70,16 +76,37 @@ public class AddCommand extends Command {
     public CommandResult execute(Model model, CommandHistory commandHistory) throws CommandException {
         Set<LocalDate> dates = recurrence.generateDates(model.getPlanner().getSemester());
         Map<LocalDate, Day> days = new TreeMap<>();
-        for (LocalDate date : dates) {
-            try {
-                days.put(date, model.addSlot(date, slot));
-            } catch (Semester.DateNotFoundException dnfe) {
-                throw new CommandException(MESSAGE_FAIL_OUT_OF_BOUNDS);
+        try {
+            if (dates.size() > 1) {
+                // recurring slots are added as a series sharing one definition
+                days.putAll(model.addSlotSeries(dates, slot));
+            } else {
+                for (LocalDate date : dates) {
+                    days.put(date, model.addSlot(date, slot));
+                }
             }
+        } catch (Semester.DateNotFoundException dnfe) {
+            throw new CommandException(MESSAGE_FAIL_OUT_OF_BOUNDS);
         }
         model.commit();
+
+        List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> clashes = getClashes(days, slot);
         return new CommandResult(String.format(MESSAGE_SUCCESS, dates.size(),
-                craftSuccessMessage(days, slot)));
+                craftSuccessMessage(days, slot)) + Messages.craftClashMessage(clashes), clashes);
+    }
+
+    /**
+     * Returns the slots which clash with {@code slot} on each of the days it was added to, in date order.
+     */
+    public static List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getClashes(Map<LocalDate, Day> days,
+                                                                                   ReadOnlySlot slot) {
+        List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> clashes = new ArrayList<>();
+        for (Map.Entry<LocalDate, Day> day : days.entrySet()) {
+            for (Slot clashing : day.getValue().slotsClashingWith(slot)) {
+                clashes.add(new Pair<>(day.getKey(), new Pair<>(day.getValue(), clashing)));
+            }
+        }
+        return clashes;
     }
 
     /**
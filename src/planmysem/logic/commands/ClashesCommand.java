@@ -0,0 +1,46 @@
+package planmysem.logic.commands;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import javafx.util.Pair;
+import planmysem.common.Messages;
+import planmysem.logic.CommandHistory;
+import planmysem.model.Model;
+import planmysem.model.semester.Day;
+import planmysem.model.slot.Slot;
+
+/**
+ * Lists every pair of slots in the semester which overlap.
+ */
+public class ClashesCommand extends Command {
+
+    public static final String COMMAND_WORD = "clashes";
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ": Lists all slots in the semester which clash."
+            + "\n\tExample: " + COMMAND_WORD;
+    public static final String MESSAGE_SUCCESS = "%1$s clash(es) found.\n%2$s";
+    public static final String MESSAGE_NO_CLASHES = "No slots clash.";
+
+    @Override
+    public CommandResult execute(Model model, CommandHistory commandHistory) {
+        StringBuilder sb = new StringBuilder();
+
+        int count = 1;
+        for (Map.Entry<LocalDate, Day> day : model.getDays().entrySet()) {
+            for (Pair<Slot, Slot> clash : day.getValue().getClashes()) {
+                sb.append("\n");
+                sb.append(count);
+                sb.append(".\t");
+                sb.append(Messages.craftSlotTime(day.getKey(), clash.getKey()));
+                sb.append("\n\tclashes with ");
+                sb.append(Messages.craftSlotTime(day.getKey(), clash.getValue()));
+                count++;
+            }
+        }
+
+        if (count == 1) {
+            return new CommandResult(MESSAGE_NO_CLASHES);
+        }
+        return new CommandResult(String.format(MESSAGE_SUCCESS, count - 1, sb.toString()));
+    }
+}
@@ -29,6 +29,11 @@ public class CommandResult {
         slots = null;
     }
 
+    public CommandResult(String feedbackToUser, List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> slots) {
+        this.feedbackToUser = feedbackToUser;
+        this.slots = slots;
+    }
+
     /**
      * Returns list of Slots relevant to the command command result, if any.
      */
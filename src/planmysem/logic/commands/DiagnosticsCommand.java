@@ -0,0 +1,33 @@
+package planmysem.logic.commands;
+
+import planmysem.logic.CommandHistory;
+import planmysem.model.Model;
+import planmysem.storage.StorageStatistics;
+
+/**
+ * Shows how the planner is stored, including how well the storage compresses it.
+ */
+public class DiagnosticsCommand extends Command {
+
+    public static final String COMMAND_WORD = "diagnostics";
+    public static final String MESSAGE_USAGE = COMMAND_WORD
+            + ": Shows how much space the planner takes up in storage."
+            + "\n\tExample: " + COMMAND_WORD;
+    public static final String MESSAGE_SUCCESS = "Storage diagnostics:"
+            + "\n\tWeek files: %1$d"
+            + "\n\tData: %2$d bytes, compressed to %3$d bytes"
+            + "\n\tCompression dictionaries: %4$d bytes"
+            + "\n\tCompression ratio: %5$.2f : 1";
+    public static final String MESSAGE_NO_STATISTICS = "Storage diagnostics are not available yet.";
+
+    @Override
+    public CommandResult execute(Model model, CommandHistory commandHistory) {
+        final StorageStatistics storageStatistics = model.getStorageStatistics();
+        if (storageStatistics.getFileCount() == 0) {
+            return new CommandResult(MESSAGE_NO_STATISTICS);
+        }
+        return new CommandResult(String.format(MESSAGE_SUCCESS, storageStatistics.getFileCount(),
+                storageStatistics.getDataLength(), storageStatistics.getStoredLength(),
+                storageStatistics.getDictionaryLength(), storageStatistics.getCompressionRatio()));
+    }
+}
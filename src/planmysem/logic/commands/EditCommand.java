@@ -14,8 +14,10 @@ import planmysem.common.Messages;
 import planmysem.logic.CommandHistory;
 import planmysem.logic.commands.exceptions.CommandException;
 import planmysem.model.Model;
+import planmysem.model.semester.Day;
 import planmysem.model.semester.ReadOnlyDay;
 import planmysem.model.slot.ReadOnlySlot;
+import planmysem.model.slot.Slot;
 
 /**
  * Adds a person to the address book.
@@ -88,6 +90,7 @@ public class EditCommand extends Command {
     @Override
     public CommandResult execute(Model model, CommandHistory commandHistory) throws CommandException {
         final List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> selectedSlots = new ArrayList<>();
+        final List<Pair<LocalDate, Slot>> editedSlots = new ArrayList<>();
         String messageSelected;
         String messageSlots;
 
@@ -103,8 +106,9 @@ public class EditCommand extends Command {
             messageSlots = craftSuccessMessage(selectedSlots);
 
             for (Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>> entry : selectedSlots) {
-                model.editSlot(entry.getKey(), entry.getValue().getValue(), date,
+                Slot edited = model.editSlot(entry.getKey(), entry.getValue().getValue(), date,
                         startTime, duration, name, location, description, newTags);
+                editedSlots.add(new Pair<>(date == null ? entry.getKey() : date, edited));
             }
 
             messageSelected = Messages.craftSelectedMessage(tags);
@@ -116,8 +120,9 @@ public class EditCommand extends Command {
                 // Need to craft success message earlier to get original instead of edited Slots
                 messageSlots = craftSuccessMessage(selectedSlots);
 
-                model.editSlot(target.getKey(), target.getValue().getValue(), date,
+                Slot edited = model.editSlot(target.getKey(), target.getValue().getValue(), date,
                         startTime, duration, name, location, description, newTags);
+                editedSlots.add(new Pair<>(date == null ? target.getKey() : date, edited));
 
                 messageSelected = Messages.craftSelectedMessage(targetIndex);
 
@@ -127,8 +132,16 @@ public class EditCommand extends Command {
         }
 
         model.commit();
+
+        final List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> clashes = new ArrayList<>();
+        for (Pair<LocalDate, Slot> edited : editedSlots) {
+            final Day day = model.getDay(edited.getKey());
+            for (Slot clashing : day.slotsClashingWith(edited.getValue())) {
+                clashes.add(new Pair<>(edited.getKey(), new Pair<>(day, clashing)));
+            }
+        }
         return new CommandResult(String.format(MESSAGE_SUCCESS, selectedSlots.size(),
-                messageSelected, messageSlots));
+                messageSelected, messageSlots) + Messages.craftClashMessage(clashes), clashes);
     }
 
     /**
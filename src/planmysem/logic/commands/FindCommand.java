@@ -1,10 +1,10 @@
 package planmysem.logic.commands;
 
 import java.time.LocalDate;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
@@ -70,18 +70,16 @@ public class FindCommand extends Command {
 
     @Override
     public CommandResult execute(Model model, CommandHistory commandHistory) {
-        for (Map.Entry<LocalDate, Day> entry : model.getDays().entrySet()) {
-            for (Slot slot : entry.getValue().getSlots()) {
-                if (isFindByName) {
-                    generateDiscoveredNames(keyword, slot.getName(), entry, slot);
-                } else {
-                    Set<String> tagSet = slot.getTags();
-                    for (String tag : tagSet) {
-                        generateDiscoveredNames(keyword, tag, entry, slot);
-                    }
+        model.forEachSlot((date, day, slot) -> {
+            if (isFindByName) {
+                generateDiscoveredNames(keyword, slot.getName(), date, day, slot);
+            } else {
+                Set<String> tagSet = slot.getTags();
+                for (String tag : tagSet) {
+                    generateDiscoveredNames(keyword, tag, date, day, slot);
                 }
             }
-        }
+        });
 
         if (weightedNames.isEmpty()) {
             return new CommandResult(MESSAGE_SUCCESS_NONE);
@@ -107,8 +105,7 @@ public class FindCommand extends Command {
     * If a slot entry is found, calculates the Levenshtein Distance between the name and the keyword.
     * Updates the weightedNames PQ with the new WeightedName pair containing the name and its weight.
     */
-    private void generateDiscoveredNames(String keyword, String compareString,
-                                         Map.Entry<LocalDate, Day> entry, Slot slot) {
+    private void generateDiscoveredNames(String keyword, String compareString, LocalDate date, Day day, Slot slot) {
 
         // Pattern Matching: Check for presence of keyword in name/tag
         if (!Pattern.matches(".*" + keyword + ".*", compareString)) {
@@ -117,7 +114,8 @@ public class FindCommand extends Command {
 
         //calculate Levenshtein Distance if a match is found
         int dist = Utils.getLevenshteinDistance(keyword, compareString);
-        WeightedName distNameTrie = new WeightedName(entry, slot, entry.getKey(), dist);
+        WeightedName distNameTrie = new WeightedName(new AbstractMap.SimpleImmutableEntry<>(date, day), slot, date,
+                dist);
 
         weightedNames.add(distNameTrie);
     }
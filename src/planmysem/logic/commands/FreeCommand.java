@@ -0,0 +1,121 @@
+package planmysem.logic.commands;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javafx.util.Pair;
+import planmysem.common.Utils;
+import planmysem.logic.CommandHistory;
+import planmysem.model.Model;
+import planmysem.model.semester.Day;
+
+/**
+ * Finds the free periods of at least a given duration in the planner.
+ */
+public class FreeCommand extends Command {
+
+    public static final String COMMAND_WORD = "free";
+    public static final String MESSAGE_USAGE = COMMAND_WORD + ": Find free periods of at least a given duration."
+            + "\n\tParameters: "
+            + "\n\t\tMandatory: DURATION_IN_MINUTES"
+            + "\n\t\tOptional: [d/DATE_OR_DAY_OF_WEEK]... [w/WEEK]... [st/FROM_TIME] [et/TO_TIME] "
+            + "[xt/IGNORED_TAG]..."
+            + "\n\tExample: " + COMMAND_WORD
+            + " 120 d/mon d/tue d/wed d/thu d/fri w/7 st/08:00 et/18:00 xt/Optional";
+
+    public static final String MESSAGE_SUCCESS = "Free periods of at least %1$d minutes:\n%2$s";
+    public static final String MESSAGE_NO_FREE_PERIODS = "No free periods of at least %1$d minutes were found.";
+
+    private final int duration;
+    private final Set<LocalDate> dates = new HashSet<>();
+    private final Set<Integer> daysOfWeek = new HashSet<>();
+    private final Set<String> weekTypes = new HashSet<>();
+    private final LocalTime from;
+    private final LocalTime to;
+    private final Set<String> ignoredTags = new HashSet<>();
+
+    /**
+     * Creates a FreeCommand looking for periods of at least {@code duration} minutes between {@code from} and
+     * {@code to} on each day. Days are only searched if they are one of {@code dates} or {@code daysOfWeek}, and
+     * their week type is one of {@code weekTypes}; empty sets search all days. A null {@code to} stands for the
+     * end of the day.
+     */
+    public FreeCommand(int duration, Set<LocalDate> dates, Set<Integer> daysOfWeek, Set<String> weekTypes,
+                       LocalTime from, LocalTime to, Set<String> ignoredTags) {
+        this.duration = duration;
+        this.dates.addAll(dates);
+        this.daysOfWeek.addAll(daysOfWeek);
+        this.weekTypes.addAll(weekTypes);
+        this.from = from;
+        this.to = to;
+        this.ignoredTags.addAll(ignoredTags);
+    }
+
+    @Override
+    public CommandResult execute(Model model, CommandHistory commandHistory) {
+        StringBuilder sb = new StringBuilder();
+
+        int count = 1;
+        for (Map.Entry<LocalDate, Day> entry : model.getDays().entrySet()) {
+            final Day day = entry.getValue();
+            if (!isSearched(entry.getKey(), day)) {
+                continue;
+            }
+            final List<Pair<LocalTime, Integer>> freePeriods = day.getFreePeriods(from, to, duration, ignoredTags);
+            if (freePeriods.isEmpty()) {
+                continue;
+            }
+
+            sb.append("\n");
+            sb.append(count);
+            sb.append(".\t");
+            sb.append(entry.getKey());
+            sb.append(", ");
+            sb.append(entry.getKey().getDayOfWeek());
+            sb.append(", ");
+            sb.append(day.getType());
+            for (Pair<LocalTime, Integer> period : freePeriods) {
+                sb.append("\n\t");
+                sb.append(period.getKey());
+                sb.append(" to ");
+                sb.append(Utils.getEndTime(period.getKey(), period.getValue()));
+                sb.append(" (");
+                sb.append(period.getValue());
+                sb.append(" minutes)");
+            }
+            count++;
+        }
+
+        if (count == 1) {
+            return new CommandResult(String.format(MESSAGE_NO_FREE_PERIODS, duration));
+        }
+        return new CommandResult(String.format(MESSAGE_SUCCESS, duration, sb.toString()));
+    }
+
+    /**
+     * Returns true if the free periods of {@code day} on {@code date} are to be searched.
+     */
+    private boolean isSearched(LocalDate date, Day day) {
+        boolean isDateSearched = (dates.isEmpty() && daysOfWeek.isEmpty()) || dates.contains(date)
+                || daysOfWeek.contains(date.getDayOfWeek().getValue());
+        return isDateSearched && (weekTypes.isEmpty() || weekTypes.contains(day.getType()));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this // short circuit if same object
+                || (other instanceof FreeCommand // instanceof handles nulls
+                && duration == ((FreeCommand) other).duration
+                && dates.equals(((FreeCommand) other).dates)
+                && daysOfWeek.equals(((FreeCommand) other).daysOfWeek)
+                && weekTypes.equals(((FreeCommand) other).weekTypes)
+                && Objects.equals(from, ((FreeCommand) other).from)
+                && Objects.equals(to, ((FreeCommand) other).to)
+                && ignoredTags.equals(((FreeCommand) other).ignoredTags));
+    }
+}
@@ -19,12 +19,15 @@ public class HelpCommand extends Command {
             + "\n\n" + ListCommand.MESSAGE_USAGE
             + "\n\n" + FindCommand.MESSAGE_USAGE
             + "\n\n" + ViewCommand.MESSAGE_USAGE
+            + "\n\n" + ClashesCommand.MESSAGE_USAGE
+            + "\n\n" + FreeCommand.MESSAGE_USAGE
             + "\n\n" + HistoryCommand.MESSAGE_USAGE
             + "\n\n" + UndoCommand.MESSAGE_USAGE
             + "\n\n" + RedoCommand.MESSAGE_USAGE
             + "\n\n" + ExportCommand.MESSAGE_USAGE
             + "\n\n" + ImportCommand.MESSAGE_USAGE
             + "\n\n" + ClearCommand.MESSAGE_USAGE
+            + "\n\n" + DiagnosticsCommand.MESSAGE_USAGE
             + "\n\n" + HelpCommand.MESSAGE_USAGE
             + "\n\n" + ExitCommand.MESSAGE_USAGE;
 
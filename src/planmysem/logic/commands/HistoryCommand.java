@@ -7,24 +7,54 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import planmysem.logic.CommandHistory;
+import planmysem.model.HistoryStatistics;
 import planmysem.model.Model;
 
 /**
- * Lists all the commands entered by user from the start of app launch.
+ * Lists all the commands entered by user from the start of app launch,
+ * or shows how much memory the undo history takes up.
  */
 public class HistoryCommand extends Command {
 
     public static final String COMMAND_WORD = "history";
     public static final String COMMAND_WORD_SHORT = "h";
+    public static final String STATISTICS_ARGUMENT = "stats";
     public static final String MESSAGE_USAGE = COMMAND_WORD
             + ": Lists all the commands that you have entered in reverse chronological order."
-            + "\n\tExample: " + COMMAND_WORD;
+            + "\n\tExample: " + COMMAND_WORD
+            + "\n\t" + COMMAND_WORD + " " + STATISTICS_ARGUMENT
+            + ": Shows how many changes can be undone and how much memory they take up."
+            + "\n\tExample: " + COMMAND_WORD + " " + STATISTICS_ARGUMENT;
     public static final String MESSAGE_SUCCESS = "Entered commands (from most recent to earliest):\n%1$s";
     public static final String MESSAGE_NO_HISTORY = "You have not yet entered any commands.";
+    public static final String MESSAGE_STATISTICS = "Undo history:"
+            + "\n\tStates kept: %1$d (at most %2$d)"
+            + "\n\tEstimated size: %3$d bytes (at most %4$d bytes)"
+            + "\n\tUndo depth: %5$d"
+            + "\n\tRedo depth: %6$d";
 
+    private final boolean isStatistics;
+
+    public HistoryCommand() {
+        this(false);
+    }
+
+    /**
+     * @param isStatistics whether the command shows the sizes of the undo history instead of the entered commands
+     */
+    public HistoryCommand(boolean isStatistics) {
+        this.isStatistics = isStatistics;
+    }
 
     @Override
     public CommandResult execute(Model model, CommandHistory commandHistory) {
+        if (isStatistics) {
+            final HistoryStatistics statistics = model.getHistoryStatistics();
+            return new CommandResult(String.format(MESSAGE_STATISTICS, statistics.getStateCount(),
+                    statistics.getBudget().getMaxStates(), statistics.getEstimatedBytes(),
+                    statistics.getBudget().getMaxBytes(), statistics.getUndoDepth(), statistics.getRedoDepth()));
+        }
+
         requireNonNull(commandHistory);
         ArrayList<String> previousCommands = new ArrayList<>(commandHistory.getHistory());
 
@@ -10,18 +10,24 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
+import javafx.util.Pair;
+import planmysem.common.Messages;
 import planmysem.logic.CommandHistory;
 import planmysem.logic.commands.exceptions.CommandException;
 import planmysem.model.Model;
 import planmysem.model.recurrence.Recurrence;
 import planmysem.model.semester.Day;
+import planmysem.model.semester.ReadOnlyDay;
 import planmysem.model.semester.Semester;
+import planmysem.model.slot.ReadOnlySlot;
 import planmysem.model.slot.Slot;
 
 /**
@@ -50,6 +56,7 @@ public class ImportCommand extends Command {
 
     @Override
     public CommandResult execute(Model model, CommandHistory commandHistory) throws CommandException {
+        final List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> clashes = new ArrayList<>();
         try {
             FileReader fileReader;
             fileReader = new FileReader(this.fileName);
@@ -117,15 +124,17 @@ public class ImportCommand extends Command {
                             this.failedImports++;
                         }
                     }
+                    clashes.addAll(AddCommand.getClashes(days, slot));
                 }
             }
         } catch (IOException | NullPointerException e) {
             throw new CommandException(MESSAGE_ERROR_IN_READING_FILE);
         }
         if (this.failedImports == 0) {
-            return new CommandResult(MESSAGE_SUCCESS);
+            return new CommandResult(MESSAGE_SUCCESS + Messages.craftClashMessage(clashes), clashes);
         } else {
-            return new CommandResult(MESSAGE_SUCCESS + this.failedImports + " event(s) failed to import.\n");
+            return new CommandResult(MESSAGE_SUCCESS + this.failedImports + " event(s) failed to import.\n"
+                    + Messages.craftClashMessage(clashes), clashes);
         }
     }
 
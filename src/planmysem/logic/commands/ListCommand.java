@@ -4,17 +4,13 @@ package planmysem.logic.commands;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import javafx.util.Pair;
 import planmysem.common.Messages;
 import planmysem.logic.CommandHistory;
 import planmysem.model.Model;
-import planmysem.model.semester.Day;
 import planmysem.model.semester.ReadOnlyDay;
 import planmysem.model.slot.ReadOnlySlot;
-import planmysem.model.slot.Slot;
 
 /**
  * Displays a list of all slots in the planner whose name matches the argument keyword.
@@ -53,29 +49,17 @@ public class ListCommand extends Command {
     public CommandResult execute(Model model, CommandHistory commandHistory) {
         final List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> selectedSlots = new ArrayList<>();
 
-        for (Map.Entry<LocalDate, Day> entry : model.getDays().entrySet()) {
-            for (Slot slot : entry.getValue().getSlots()) {
-                if (isListAll) {
-                    selectedSlots.add(new Pair<>(entry.getKey(), new Pair<>(entry.getValue(), slot)));
-                } else if (isListByName) {
-                    if (slot.getName().equalsIgnoreCase(keyword)) {
-                        selectedSlots.add(new Pair<>(entry.getKey(), new Pair<>(entry.getValue(), slot)));
-                    }
-                } else {
-                    Set<String> tagSet = slot.getTags();
-                    for (String tag : tagSet) {
-                        if (tag.equalsIgnoreCase(keyword)) {
-                            selectedSlots.add(new Pair<>(entry.getKey(), new Pair<>(entry.getValue(), slot)));
-                        }
-                    }
-                }
-            }
+        if (isListAll) {
+            model.forEachSlot((date, day, slot) -> selectedSlots.add(new Pair<>(date, new Pair<>(day, slot))));
+        } else if (isListByName) {
+            selectedSlots.addAll(model.getSlotsWithName(keyword));
+        } else {
+            selectedSlots.addAll(model.getSlotsWithTag(keyword));
         }
 
         if (selectedSlots.isEmpty()) {
             return new CommandResult(MESSAGE_SUCCESS_NONE);
         }
-        selectedSlots.sort((p1, p2) -> p1.getKey().compareTo(p2.getKey()));
         model.setLastShownList(selectedSlots);
 
         return new CommandResult(String.format(MESSAGE_SUCCESS, selectedSlots.size(),
@@ -6,10 +6,10 @@ import static planmysem.common.Utils.getNearestDayOfWeek;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.WeekFields;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +21,7 @@ import planmysem.logic.CommandHistory;
 import planmysem.model.Model;
 import planmysem.model.semester.Day;
 import planmysem.model.semester.Semester;
+import planmysem.model.semester.SlotRef;
 import planmysem.model.slot.Slot;
 
 /**
@@ -107,7 +108,7 @@ public class ViewCommand extends Command {
      * Solution below adapted from https://introcs.cs.princeton.edu/java/21function/Calendar.java.html
      */
     private String displayMonthView(Semester currentSemester) {
-        HashMap<LocalDate, Day> allDays = currentSemester.getDays();
+        Map<LocalDate, Day> allDays = currentSemester.getDays();
         LocalDate semesterStartDate = currentSemester.getStartDate();
         LocalDate semesterEndDate = currentSemester.getEndDate();
         int year = semesterStartDate.getYear();
@@ -180,7 +181,6 @@ public class ViewCommand extends Command {
      * Display all slots for a given week in a formatted view.
      */
     private String displayWeekView(Semester currentSemester, String givenWeek) {
-        HashMap<LocalDate, Day> allDays = currentSemester.getDays();
         List<LocalDate> datesList;
         LocalDate weekStart;
         LocalDate weekEnd;
@@ -189,7 +189,7 @@ public class ViewCommand extends Command {
         StringBuilder sb = new StringBuilder();
 
         if (givenWeek == null) {
-            week = allDays.get(LocalDate.now(Clock.get())).getType() + " of " + currentSemester.getName();
+            week = currentSemester.getDay(LocalDate.now(Clock.get())).getType() + " of " + currentSemester.getName();
 
             weekStart = LocalDate.now(Clock.get()).with(WeekFields.ISO.dayOfWeek(), 1);
             weekEnd = weekStart.plusDays(7);
@@ -229,12 +229,12 @@ public class ViewCommand extends Command {
         sb.append(centerAlignText(width, week) + "\n");
 
         // Print formatted week view.
-        sb.append(getFormattedWeek(allDays, datesList));
+        sb.append(getFormattedWeek(currentSemester, datesList));
         if (weekOfYear[1] != 0) {
             weekStart = weekEnd;
             weekEnd = weekStart.plusDays(7);
             datesList = weekStart.datesUntil(weekEnd).collect(Collectors.toList());
-            sb.append("\n" + getFormattedWeek(allDays, datesList));
+            sb.append("\n" + getFormattedWeek(currentSemester, datesList));
         }
 
         return sb.toString();
@@ -244,7 +244,6 @@ public class ViewCommand extends Command {
      * Display all slots for a given week in a detailed view.
      */
     private String displayDetailedWeekView(Semester currentSemester, String week) {
-        HashMap<LocalDate, Day> allDays = currentSemester.getDays();
         List<LocalDate> datesList;
         LocalDate weekStart;
         LocalDate weekEnd;
@@ -252,7 +251,8 @@ public class ViewCommand extends Command {
         StringBuilder sb = new StringBuilder();
 
         if ("Details".equals(week)) {
-            sb.append(allDays.get(LocalDate.now(Clock.get())).getType() + " of " + currentSemester.getName() + "\n");
+            sb.append(currentSemester.getDay(LocalDate.now(Clock.get())).getType() + " of " + currentSemester.getName()
+                    + "\n");
 
             weekStart = LocalDate.now(Clock.get()).with(WeekFields.ISO.dayOfWeek(), 1);
             weekEnd = weekStart.plusDays(7);
@@ -303,7 +303,6 @@ public class ViewCommand extends Command {
      * Display all slots for a given day/date.
      */
     private String displayDayView(Semester currentSemester, String dateOrDay) {
-        HashMap<LocalDate, Day> allDays = currentSemester.getDays();
         StringBuilder sb = new StringBuilder();
 
         // Parse different formats of given day/date.
@@ -331,15 +330,8 @@ public class ViewCommand extends Command {
             return MESSAGE_DATE_OUT_OF_BOUNDS;
         }
 
-        // Retrieve all slots for given day/date in sorted order.
-        ArrayList<Slot> allSlotsInDay = allDays.get(givenDate).getSlots();
-        Comparator<Slot> comparator = new Comparator<Slot>() {
-            @Override
-            public int compare(final Slot o1, final Slot o2) {
-                return o1.getStartTime().compareTo(o2.getStartTime());
-            }
-        };
-        allSlotsInDay.sort(comparator);
+        // Retrieve all slots for given day/date, which are kept in order of start time.
+        ArrayList<Slot> allSlotsInDay = currentSemester.getDay(givenDate).getSlots();
 
         // Print each slot.
         for (Slot slot : allSlotsInDay) {
@@ -392,7 +384,7 @@ public class ViewCommand extends Command {
     /**
      * Returns formatted week view.
      */
-    private String getFormattedWeek(HashMap<LocalDate, Day> allDays, List<LocalDate> datesList) {
+    private String getFormattedWeek(Semester currentSemester, List<LocalDate> datesList) {
         StringBuilder sb = new StringBuilder();
 
         // Print line divider.
@@ -424,18 +416,15 @@ public class ViewCommand extends Command {
         }
         sb.append("\n");
 
-        // Retrieve all slots for each day.
+        // Retrieve all slots of the week in order of start time, reading only the days of the week.
         ArrayList<ArrayList<Slot>> slotsInDayList = new ArrayList<>();
-        for (LocalDate date : datesList) {
-            ArrayList<Slot> allSlotsInDay = allDays.get(date).getSlots();
-            Comparator<Slot> comparator = new Comparator<Slot>() {
-                @Override
-                public int compare(final Slot o1, final Slot o2) {
-                    return o1.getStartTime().compareTo(o2.getStartTime());
-                }
-            };
-            allSlotsInDay.sort(comparator);
-            slotsInDayList.add(new ArrayList<>(allSlotsInDay));
+        for (int i = 0; i < datesList.size(); i++) {
+            slotsInDayList.add(new ArrayList<>());
+        }
+        LocalDate weekStart = datesList.get(0);
+        LocalDate weekEnd = datesList.get(datesList.size() - 1);
+        for (SlotRef entry : currentSemester.getSlots(weekStart, weekEnd, slot -> true)) {
+            slotsInDayList.get((int) ChronoUnit.DAYS.between(weekStart, entry.getDate())).add(entry.getSlot());
         }
 
         // Print all slots for each day.
@@ -0,0 +1,132 @@
+package planmysem.logic.parser;
+
+import static planmysem.common.Messages.MESSAGE_ILLEGAL_WEEK_VALUE;
+import static planmysem.common.Messages.MESSAGE_INVALID_COMMAND_FORMAT;
+import static planmysem.common.Messages.MESSAGE_INVALID_COMMAND_FORMAT_ADDITIONAL;
+import static planmysem.common.Messages.MESSAGE_INVALID_DATE_OR_DAY;
+import static planmysem.common.Messages.MESSAGE_INVALID_ENDTIME;
+import static planmysem.common.Messages.MESSAGE_INVALID_TAG;
+import static planmysem.common.Messages.MESSAGE_INVALID_TIME;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import planmysem.common.Utils;
+import planmysem.logic.commands.FreeCommand;
+import planmysem.logic.parser.exceptions.ParseException;
+
+/**
+ * Parses input arguments and creates a new FreeCommand object
+ */
+public class FreeCommandParser implements Parser<FreeCommand> {
+
+    /**
+     * Parses the given {@code String} of arguments in the context of the FreeCommand
+     * and returns an FreeCommand object for execution.
+     *
+     * @param args full command args string
+     * @return the prepared command
+     */
+    public FreeCommand parse(String args) throws ParseException {
+        HashMap<String, Set<String>> arguments = getParametersWithArguments(args);
+
+        // Duration is mandatory
+        int duration = Utils.parseInteger(getStartingArgument(args));
+        if (duration <= 0) {
+            throw new ParseException(String.format(MESSAGE_INVALID_COMMAND_FORMAT, FreeCommand.MESSAGE_USAGE));
+        }
+
+        // Dates and days of week are not mandatory
+        Set<LocalDate> dates = new HashSet<>();
+        Set<Integer> daysOfWeek = new HashSet<>();
+        for (String dateOrDay : getSet(arguments, PREFIX_DATE_OR_DAY)) {
+            LocalDate date = Utils.parseDate(dateOrDay);
+            int day = date == null ? Utils.parseDay(dateOrDay) : -1;
+            if (date != null) {
+                dates.add(date);
+            } else if (day != -1) {
+                daysOfWeek.add(day);
+            } else {
+                throw new ParseException(String.format(MESSAGE_INVALID_COMMAND_FORMAT_ADDITIONAL,
+                        FreeCommand.MESSAGE_USAGE, MESSAGE_INVALID_DATE_OR_DAY));
+            }
+        }
+
+        // Weeks are not mandatory
+        Set<String> weekTypes = new HashSet<>();
+        for (String week : getSet(arguments, PREFIX_WEEK)) {
+            String weekType = parseWeekType(week);
+            if (weekType == null) {
+                throw new ParseException(MESSAGE_ILLEGAL_WEEK_VALUE);
+            }
+            weekTypes.add(weekType);
+        }
+
+        // Start and end of the time of day searched are not mandatory
+        LocalTime from = LocalTime.MIDNIGHT;
+        LocalTime to = null;
+        String stringFrom = getFirstInSet(arguments.get(PREFIX_START_TIME));
+        String stringTo = getFirstInSet(arguments.get(PREFIX_END_TIME));
+        if (stringFrom != null) {
+            from = Utils.parseTime(stringFrom);
+        }
+        if (stringTo != null) {
+            to = Utils.parseTime(stringTo);
+        }
+        if (from == null || (stringTo != null && to == null)) {
+            throw new ParseException(String.format(MESSAGE_INVALID_COMMAND_FORMAT_ADDITIONAL,
+                    FreeCommand.MESSAGE_USAGE, MESSAGE_INVALID_TIME));
+        }
+        if (to != null && !to.isAfter(from)) {
+            throw new ParseException(String.format(MESSAGE_INVALID_COMMAND_FORMAT_ADDITIONAL,
+                    FreeCommand.MESSAGE_USAGE, MESSAGE_INVALID_ENDTIME));
+        }
+
+        // Ignored tags are not mandatory
+        Set<String> ignoredTags = getSet(arguments, PREFIX_IGNORED_TAG);
+        for (String tag : ignoredTags) {
+            if (tag.length() == 0) {
+                throw new ParseException(String.format(MESSAGE_INVALID_COMMAND_FORMAT_ADDITIONAL,
+                        FreeCommand.MESSAGE_USAGE, MESSAGE_INVALID_TAG));
+            }
+        }
+
+        return new FreeCommand(duration, dates, daysOfWeek, weekTypes, from, to, ignoredTags);
+    }
+
+    /**
+     * Get the arguments of a parameter, or an empty set if the parameter is not present.
+     */
+    private Set<String> getSet(HashMap<String, Set<String>> arguments, String prefix) {
+        Set<String> set = arguments.get(prefix);
+        return set == null ? new HashSet<>() : set;
+    }
+
+    /**
+     * Returns the type of the days in the given week, such as "Week 7" or "Recess Week", or null if there is no
+     * such week.
+     */
+    private String parseWeekType(String week) {
+        int weekNo = Utils.parseInteger(week);
+        if (weekNo != -1) {
+            return weekNo > 0 && weekNo < 14 ? "Week " + weekNo : null;
+        }
+
+        switch (week.toLowerCase()) {
+        case "orientation":
+            return "Orientation Week";
+        case "recess":
+            return "Recess Week";
+        case "reading":
+            return "Reading Week";
+        case "exam": // Fallthrough
+        case "examination":
+            return "Examination Week";
+        default:
+            return null;
+        }
+    }
+}
@@ -29,6 +29,8 @@ public interface Parser<T extends Command> {
     String PREFIX_NEW_DESCRIPTION = "ndes";
     String PREFIX_NEW_TAG = "nt";
     String PREFIX_FILE_NAME = "fn";
+    String PREFIX_WEEK = "w";
+    String PREFIX_IGNORED_TAG = "xt";
 
     /**
      * Parses {@code userInput} into a command and returns it.
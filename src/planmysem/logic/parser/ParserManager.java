@@ -6,13 +6,16 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import planmysem.logic.commands.AddCommand;
+import planmysem.logic.commands.ClashesCommand;
 import planmysem.logic.commands.ClearCommand;
 import planmysem.logic.commands.Command;
 import planmysem.logic.commands.DeleteCommand;
+import planmysem.logic.commands.DiagnosticsCommand;
 import planmysem.logic.commands.EditCommand;
 import planmysem.logic.commands.ExitCommand;
 import planmysem.logic.commands.ExportCommand;
 import planmysem.logic.commands.FindCommand;
+import planmysem.logic.commands.FreeCommand;
 import planmysem.logic.commands.HelpCommand;
 import planmysem.logic.commands.HistoryCommand;
 import planmysem.logic.commands.ImportCommand;
@@ -68,13 +71,16 @@ public class ParserManager {
         case ListCommand.COMMAND_WORD_SHORT:
             return new ListCommandParser().parse(arguments);
 
+        case FreeCommand.COMMAND_WORD:
+            return new FreeCommandParser().parse(arguments);
+
         case ViewCommand.COMMAND_WORD:
         case ViewCommand.COMMAND_WORD_SHORT:
             return new ViewCommandParser().parse(arguments);
 
         case HistoryCommand.COMMAND_WORD:
         case HistoryCommand.COMMAND_WORD_SHORT:
-            return new HistoryCommand();
+            return new HistoryCommand(HistoryCommand.STATISTICS_ARGUMENT.equalsIgnoreCase(arguments.trim()));
 
         case UndoCommand.COMMAND_WORD:
         case UndoCommand.COMMAND_WORD_SHORT:
@@ -84,12 +90,18 @@ public class ParserManager {
         case RedoCommand.COMMAND_WORD_SHORT:
             return new RedoCommand();
 
+        case ClashesCommand.COMMAND_WORD:
+            return new ClashesCommand();
+
         case ClearCommand.COMMAND_WORD:
             return new ClearCommand();
 
         case ExitCommand.COMMAND_WORD:
             return new ExitCommand();
 
+        case DiagnosticsCommand.COMMAND_WORD:
+            return new DiagnosticsCommand();
+
         case ExportCommand.COMMAND_WORD:
             return new ExportCommandParser().parse(arguments);
 
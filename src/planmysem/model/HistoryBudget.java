@@ -0,0 +1,69 @@
+package planmysem.model;
+
+/**
+ * Limits how much of the undo history of a planner is kept. When a commit takes the history over either limit, the
+ * oldest states are dropped until it is within both again, so they can no longer be undone.
+ * The newest state is always kept, even if its delta alone is larger than the limit on its size.
+ */
+public class HistoryBudget {
+    /**
+     * Name of the system property which sets the number of states kept.
+     */
+    public static final String MAX_STATES_PROPERTY = "planmysem.history.maxStates";
+
+    /**
+     * Name of the system property which sets the estimated number of bytes the kept states may take up in memory.
+     */
+    public static final String MAX_BYTES_PROPERTY = "planmysem.history.maxBytes";
+
+    public static final int DEFAULT_MAX_STATES = 1000;
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    private final int maxStates;
+    private final long maxBytes;
+
+    /**
+     * @param maxStates the number of deltas kept, which is the number of commits which can be undone
+     * @param maxBytes the estimated number of bytes the kept deltas may take up in memory
+     */
+    public HistoryBudget(int maxStates, long maxBytes) {
+        if (maxStates < 1 || maxBytes < 0) {
+            throw new IllegalArgumentException("Invalid undo history budget: " + maxStates + " states, "
+                    + maxBytes + " bytes");
+        }
+        this.maxStates = maxStates;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the budget set by {@link #MAX_STATES_PROPERTY} and {@link #MAX_BYTES_PROPERTY}, which default to
+     * {@link #DEFAULT_MAX_STATES} and {@link #DEFAULT_MAX_BYTES}.
+     *
+     * @throws IllegalArgumentException if either property is not a valid limit.
+     */
+    public static HistoryBudget getConfigured() {
+        try {
+            return new HistoryBudget(
+                    Integer.parseInt(System.getProperty(MAX_STATES_PROPERTY, String.valueOf(DEFAULT_MAX_STATES))),
+                    Long.parseLong(System.getProperty(MAX_BYTES_PROPERTY, String.valueOf(DEFAULT_MAX_BYTES))));
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Invalid undo history budget", nfe);
+        }
+    }
+
+    public int getMaxStates() {
+        return maxStates;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns true if {@code states} deltas of {@code bytes} estimated bytes in total are more than this budget
+     * allows.
+     */
+    public boolean isExceededBy(int states, long bytes) {
+        return states > maxStates || bytes > maxBytes;
+    }
+}
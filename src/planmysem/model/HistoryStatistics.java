@@ -0,0 +1,48 @@
+package planmysem.model;
+
+/**
+ * Sizes of the undo history of a planner, used to report how much memory it takes up.
+ */
+public class HistoryStatistics {
+    private final int stateCount;
+    private final long estimatedBytes;
+    private final int undoDepth;
+    private final int redoDepth;
+    private final HistoryBudget budget;
+
+    /**
+     * @param stateCount the number of deltas kept
+     * @param estimatedBytes the estimated number of bytes the deltas kept in memory take up
+     * @param undoDepth the number of states which can still be undone
+     * @param redoDepth the number of undone states which can be redone
+     * @param budget the limits the history is kept within
+     */
+    public HistoryStatistics(int stateCount, long estimatedBytes, int undoDepth, int redoDepth,
+                             HistoryBudget budget) {
+        this.stateCount = stateCount;
+        this.estimatedBytes = estimatedBytes;
+        this.undoDepth = undoDepth;
+        this.redoDepth = redoDepth;
+        this.budget = budget;
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public int getUndoDepth() {
+        return undoDepth;
+    }
+
+    public int getRedoDepth() {
+        return redoDepth;
+    }
+
+    public HistoryBudget getBudget() {
+        return budget;
+    }
+}
@@ -0,0 +1,82 @@
+package planmysem.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * History of a planner which is kept in memory and lost when the application exits.
+ * The oldest states are dropped whenever a new delta takes the history over its {@link HistoryBudget}.
+ */
+class InMemoryPlannerHistory implements PlannerHistory {
+    private final HistoryBudget budget;
+    private final List<PlannerDelta> deltas = new ArrayList<>();
+    private final List<Long> deltaSizes = new ArrayList<>(); // estimated size of each delta, in the same order
+    private long estimatedBytes;
+    private int currentState;
+
+    InMemoryPlannerHistory(HistoryBudget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public int size() {
+        return deltas.size();
+    }
+
+    @Override
+    public PlannerDelta get(int index) {
+        return deltas.get(index - 1);
+    }
+
+    @Override
+    public void add(int index, PlannerDelta delta) {
+        for (long size : deltaSizes.subList(index - 1, deltaSizes.size())) {
+            estimatedBytes -= size;
+        }
+        deltas.subList(index - 1, deltas.size()).clear();
+        deltaSizes.subList(index - 1, deltaSizes.size()).clear();
+
+        final long size = delta.estimateSize();
+        deltas.add(delta);
+        deltaSizes.add(size);
+        estimatedBytes += size;
+        currentState = index;
+
+        // the new delta is the current state, so only states which can be undone are dropped
+        while (deltas.size() > 1 && budget.isExceededBy(deltas.size(), estimatedBytes)) {
+            deltas.remove(0);
+            estimatedBytes -= deltaSizes.remove(0);
+            currentState--;
+        }
+    }
+
+    @Override
+    public int getCurrentState() {
+        return currentState;
+    }
+
+    @Override
+    public void setCurrentState(int index) {
+        currentState = index;
+    }
+
+    @Override
+    public HistoryStatistics getStatistics() {
+        return new HistoryStatistics(deltas.size(), estimatedBytes, currentState, deltas.size() - currentState,
+                budget);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this // short circuit if same object
+                || (other instanceof InMemoryPlannerHistory // instanceof handles nulls
+                && deltas.equals(((InMemoryPlannerHistory) other).deltas)
+                && currentState == ((InMemoryPlannerHistory) other).currentState);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(deltas, currentState);
+    }
+}
@@ -2,17 +2,20 @@ package planmysem.model;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import javafx.util.Pair;
 import planmysem.model.semester.Day;
 import planmysem.model.semester.ReadOnlyDay;
 import planmysem.model.semester.Semester;
+import planmysem.model.semester.SlotRef;
+import planmysem.model.semester.SlotVisitor;
 import planmysem.model.slot.ReadOnlySlot;
 import planmysem.model.slot.Slot;
+import planmysem.storage.StorageStatistics;
 
 /**
  * The API of the Model component.
@@ -48,6 +51,11 @@ public interface Model {
      */
     Day addSlot(LocalDate date, Slot slot) throws Semester.DateNotFoundException;
 
+    /**
+     * Adds a series of slots to the Planner, which share a single definition, and returns the days it was added to.
+     */
+    Map<LocalDate, Day> addSlotSeries(Set<LocalDate> dates, Slot slot) throws Semester.DateNotFoundException;
+
     /**
      * Removes a Slot in the Planner.
      */
@@ -59,9 +67,9 @@ public interface Model {
     void removeSlot(Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>> slot);
 
     /**
-     * Edit specific slot within the planner.
+     * Edit specific slot within the planner and returns the edited slot.
      */
-    void editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
+    Slot editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
                          LocalTime startTime, int duration, String name, String location,
                          String description, Set<String> tags);
 
@@ -73,7 +81,7 @@ public interface Model {
     /**
      * gets all days in the Planner.
      */
-    HashMap<LocalDate, Day> getDays();
+    Map<LocalDate, Day> getDays();
     /**
      * Defensively copy the Semester in the Planner at the time of the call.
      */
@@ -86,14 +94,42 @@ public interface Model {
 
     /**
      * check if Slot exists in some day.
+     * Slots of the planner are found through their ids, other slots by comparing their details.
      */
     boolean slotExists(LocalDate date, ReadOnlySlot slot);
 
+    /**
+     * Passes every slot in the Planner to {@code visitor} with its date and day, in date order.
+     */
+    void forEachSlot(SlotVisitor visitor);
+
+    /**
+     * Passes the slots in the Planner from {@code from} to {@code to}, both inclusive, to {@code visitor} with their
+     * dates and days, in date order.
+     */
+    void forEachSlot(LocalDate from, LocalDate to, SlotVisitor visitor);
+
+    /**
+     * Returns the slots in the Planner from {@code from} to {@code to}, both inclusive, which satisfy
+     * {@code predicate}, in date order and then in order of start time.
+     */
+    List<SlotRef> getSlots(LocalDate from, LocalDate to, Predicate<ReadOnlySlot> predicate);
+
     /**
      * gets all slots in the Planner containing all specified tags.
      */
     List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlots(Set<String> tags);
 
+    /**
+     * gets all slots in the Planner with a tag equal to the specified tag, ignoring case.
+     */
+    List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlotsWithTag(String tag);
+
+    /**
+     * gets all slots in the Planner with the specified name, ignoring case.
+     */
+    List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlotsWithName(String name);
+
     /**
      * Returns true if the model has previous Planner states to restore.
      */
@@ -114,5 +150,15 @@ public interface Model {
      */
     void redo();
 
+    /**
+     * Returns the sizes of the undo history and the budget it is kept within.
+     */
+    HistoryStatistics getHistoryStatistics();
+
+    /**
+     * Returns the sizes of the data kept by the storage the Planner is saved to.
+     */
+    StorageStatistics getStorageStatistics();
+
 }
 
@@ -3,31 +3,39 @@ package planmysem.model;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import javafx.util.Pair;
 import planmysem.model.semester.Day;
 import planmysem.model.semester.ReadOnlyDay;
 import planmysem.model.semester.Semester;
+import planmysem.model.semester.SlotRef;
+import planmysem.model.semester.SlotVisitor;
 import planmysem.model.slot.ReadOnlySlot;
 import planmysem.model.slot.Slot;
+import planmysem.storage.StorageStatistics;
 
 /**
  * Represents the entire Planner. Contains the model of the Planner.
  */
 public class ModelManager implements Model {
+    // Statistics of a planner which is not kept in any storage.
+    private static final StorageStatistics NO_STORAGE_STATISTICS = new StorageStatistics(0, 0, 0, 0);
+
     protected List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> lastShownList = new ArrayList<>();
     private final VersionedPlanner versionedPlanner;
+    private final Supplier<StorageStatistics> storageStatistics;
 
     /**
      * Creates an empty planner.
      */
     public ModelManager() {
-        versionedPlanner = new VersionedPlanner(new Planner());
+        this(new Planner());
     }
 
     /**
@@ -37,6 +45,28 @@ public class ModelManager implements Model {
      */
     public ModelManager(ReadOnlyPlanner planner) {
         versionedPlanner = new VersionedPlanner(planner);
+        storageStatistics = () -> NO_STORAGE_STATISTICS;
+    }
+
+    /**
+     * Constructs a Planner with the given model, which can be undone to the earlier states kept by {@code history}.
+     *
+     * @param planner external changes to this will not affect this Planner
+     */
+    public ModelManager(ReadOnlyPlanner planner, PlannerHistory history) {
+        this(planner, history, () -> NO_STORAGE_STATISTICS);
+    }
+
+    /**
+     * Constructs a Planner with the given model, which can be undone to the earlier states kept by {@code history}
+     * and which is kept in the storage whose current statistics {@code storageStatistics} returns.
+     *
+     * @param planner external changes to this will not affect this Planner
+     */
+    public ModelManager(ReadOnlyPlanner planner, PlannerHistory history,
+                        Supplier<StorageStatistics> storageStatistics) {
+        versionedPlanner = new VersionedPlanner(planner, history);
+        this.storageStatistics = storageStatistics;
     }
 
     @Override
@@ -88,6 +118,11 @@ public class ModelManager implements Model {
         return versionedPlanner.addSlot(date, slot);
     }
 
+    @Override
+    public Map<LocalDate, Day> addSlotSeries(Set<LocalDate> dates, Slot slot) throws Semester.DateNotFoundException {
+        return versionedPlanner.addSlotSeries(dates, slot);
+    }
+
     @Override
     public void removeSlot(LocalDate date, ReadOnlySlot slot) {
         versionedPlanner.removeSlot(date, slot);
@@ -99,10 +134,11 @@ public class ModelManager implements Model {
     }
 
     @Override
-    public void editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
+    public Slot editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
                          LocalTime startTime, int duration, String name, String location,
                          String description, Set<String> tags) {
-        versionedPlanner.editSlot(targetDate, targetSlot, date, startTime, duration, name, location, description, tags);
+        return versionedPlanner.editSlot(targetDate, targetSlot, date, startTime, duration, name, location,
+                description, tags);
     }
 
     @Override
@@ -116,13 +152,28 @@ public class ModelManager implements Model {
     }
 
     @Override
-    public HashMap<LocalDate, Day> getDays() {
+    public Map<LocalDate, Day> getDays() {
         return versionedPlanner.getDays();
     }
 
     @Override
     public Day getDay(LocalDate date) {
-        return getDays().get(date);
+        return versionedPlanner.getSemester().getDay(date);
+    }
+
+    @Override
+    public void forEachSlot(SlotVisitor visitor) {
+        versionedPlanner.getSemester().forEachSlot(visitor);
+    }
+
+    @Override
+    public void forEachSlot(LocalDate from, LocalDate to, SlotVisitor visitor) {
+        versionedPlanner.getSemester().forEachSlot(from, to, visitor);
+    }
+
+    @Override
+    public List<SlotRef> getSlots(LocalDate from, LocalDate to, Predicate<ReadOnlySlot> predicate) {
+        return versionedPlanner.getSemester().getSlots(from, to, predicate);
     }
 
     @Override
@@ -130,9 +181,19 @@ public class ModelManager implements Model {
         return versionedPlanner.getSlots(tags);
     }
 
+    @Override
+    public List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlotsWithTag(String tag) {
+        return versionedPlanner.getSlotsWithTag(tag);
+    }
+
+    @Override
+    public List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlotsWithName(String name) {
+        return versionedPlanner.getSlotsWithName(name);
+    }
+
     @Override
     public boolean slotExists(LocalDate date, ReadOnlySlot slot) {
-        return getDay(date).contains(slot);
+        return versionedPlanner.getSemester().contains(date, slot);
     }
 
     @Override
@@ -155,6 +216,16 @@ public class ModelManager implements Model {
         versionedPlanner.redo();
     }
 
+    @Override
+    public HistoryStatistics getHistoryStatistics() {
+        return versionedPlanner.getHistory().getStatistics();
+    }
+
+    @Override
+    public StorageStatistics getStorageStatistics() {
+        return storageStatistics.get();
+    }
+
     @Override
     public boolean equals(Object obj) {
         // short circuit if same object
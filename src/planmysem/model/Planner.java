@@ -5,10 +5,11 @@ import static java.util.Objects.requireNonNull;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javafx.util.Pair;
 import planmysem.common.Clock;
@@ -24,6 +25,11 @@ import planmysem.model.slot.Slot;
 public class Planner implements ReadOnlyPlanner {
     private final Semester semester;
 
+    // These variables track the changes made since the planner was last saved.
+    private final List<PlannerOperation> unsavedOperations = new ArrayList<>();
+    private boolean isSnapshotRequired = true;
+    private int savedModificationCount = -1;
+
     /**
      * Creates an empty planner.
      */
@@ -33,10 +39,17 @@ public class Planner implements ReadOnlyPlanner {
 
     /**
      * Creates a Planner using the days in the {@code toBeCopied}
+     * If {@code toBeCopied} is a Planner, its days are shared until either planner changes them, and its unsaved
+     * changes are carried over as well.
      */
     public Planner(ReadOnlyPlanner toBeCopied) {
-        this();
-        resetData(toBeCopied);
+        if (toBeCopied instanceof Planner) {
+            semester = new Semester(((Planner) toBeCopied).semester);
+            copyUnsavedChanges((Planner) toBeCopied);
+        } else {
+            semester = Semester.generateSemester(LocalDate.now(Clock.get()));
+            resetData(toBeCopied);
+        }
     }
 
     /**
@@ -54,25 +67,69 @@ public class Planner implements ReadOnlyPlanner {
     public void resetData(ReadOnlyPlanner newData) {
         requireNonNull(newData);
 
-        setDays(newData.getDays());
+        if (newData instanceof Planner) {
+            // weeks which have not been read yet are shared instead of read
+            semester.setDays(((Planner) newData).semester);
+            requireSnapshot();
+        } else {
+            setDays(newData.getDays());
+        }
     }
 
+    /**
+     * Adds a slot to the given date.
+     *
+     * @throws Semester.DateNotFoundException if the date is not found in the semester.
+     */
     public Day addSlot(LocalDate date, Slot slot) throws Semester.DateNotFoundException {
-        return semester.addSlot(date, slot);
+        Day day = semester.addSlot(date, slot);
+        unsavedOperations.add(PlannerOperation.add(date, slot));
+        return day;
+    }
+
+    /**
+     * Adds a series of slots like {@code slot} on each of {@code dates} and returns the days the series was added to.
+     *
+     * @throws Semester.DateNotFoundException if any of the dates is not found in the semester.
+     */
+    public Map<LocalDate, Day> addSlotSeries(Set<LocalDate> dates, Slot slot) throws Semester.DateNotFoundException {
+        Slot definition = semester.addSlotSeries(dates, slot);
+        Map<LocalDate, Day> days = new TreeMap<>();
+        for (LocalDate date : dates) {
+            unsavedOperations.add(PlannerOperation.add(date, definition));
+            days.put(date, semester.getDay(date));
+        }
+        return days;
     }
 
+    /**
+     * Removes the equivalent slot from the given date.
+     */
     public void removeSlot(LocalDate date, ReadOnlySlot slot) {
         semester.removeSlot(date, slot);
+        unsavedOperations.add(PlannerOperation.remove(date, slot));
     }
 
-    public void editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
+    /**
+     * Edits the equivalent slot on the target date and returns the edited slot.
+     */
+    public Slot editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
                          LocalTime startTime, int duration, String name, String location,
                          String description, Set<String> tags) {
-        semester.editSlot(targetDate, targetSlot, date, startTime, duration, name, location, description, tags);
+        PlannerOperation operation = PlannerOperation.edit(targetDate, targetSlot, date, startTime, duration,
+                name, location, description, tags);
+        Slot edited = semester.editSlot(targetDate, targetSlot, date, startTime, duration, name, location,
+                description, tags);
+        unsavedOperations.add(operation);
+        return edited;
     }
 
+    /**
+     * Removes all slots from the planner.
+     */
     public void clearSlots() {
         semester.clearSlots();
+        unsavedOperations.add(PlannerOperation.clear());
     }
 
     public Semester getSemester() {
@@ -82,26 +139,132 @@ public class Planner implements ReadOnlyPlanner {
     /**
      * Replaces the days of the planner with {@code days}.
      */
-    public void setDays(HashMap<LocalDate, Day> days) {
+    public void setDays(Map<LocalDate, Day> days) {
         this.semester.setDays(days);
+        requireSnapshot();
+    }
+
+    /**
+     * Replaces the days on the dates of {@code days} with copies of the given days.
+     */
+    public void restoreDays(Map<LocalDate, Day> days) {
+        if (days.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<LocalDate, Day> entry : days.entrySet()) {
+            semester.setDay(entry.getKey(), new Day(entry.getValue()));
+        }
+        requireSnapshot();
+    }
+
+    /**
+     * Marks the planner as changed in a way which cannot be described by operations.
+     */
+    private void requireSnapshot() {
+        unsavedOperations.clear();
+        isSnapshotRequired = true;
+    }
+
+    /**
+     * Returns the changes made to this planner since it was last saved, in the order they were made.
+     */
+    public List<PlannerOperation> getUnsavedOperations() {
+        return Collections.unmodifiableList(unsavedOperations);
+    }
+
+    /**
+     * Returns true if the changes made since the planner was last saved cannot be described by
+     * {@link #getUnsavedOperations()}, so the whole planner has to be saved.
+     */
+    public boolean isSnapshotRequired() {
+        return isSnapshotRequired;
+    }
+
+    /**
+     * Returns true if the planner changed since it was last saved.
+     */
+    public boolean hasUnsavedChanges() {
+        return isSnapshotRequired || semester.getModificationCount() != savedModificationCount;
+    }
+
+    /**
+     * Replaces the unsaved changes of this planner with those of {@code source}, which holds the same days.
+     */
+    private void copyUnsavedChanges(Planner source) {
+        semester.clearDirtyDates();
+        semester.markDirty(source.semester.getDirtyDates());
+        unsavedOperations.addAll(source.unsavedOperations);
+        isSnapshotRequired = source.isSnapshotRequired;
+        savedModificationCount = source.hasUnsavedChanges() ? -1 : semester.getModificationCount();
     }
 
+    /**
+     * Returns a copy of this planner which takes over its unsaved changes, leaving this planner marked as saved.
+     * This allows the copy to be saved while this planner continues to change.
+     */
+    public Planner takeSnapshotForSaving() {
+        final Planner snapshot = new Planner(this);
+        markSaved();
+        return snapshot;
+    }
+
+    /**
+     * Adds the unsaved changes of {@code earlier}, a snapshot taken before this planner's changes were made,
+     * in front of this planner's unsaved changes.
+     */
+    public void mergeUnsavedChanges(Planner earlier) {
+        unsavedOperations.addAll(0, earlier.unsavedOperations);
+        isSnapshotRequired = isSnapshotRequired || earlier.isSnapshotRequired;
+        semester.markDirty(earlier.semester.getDirtyDates());
+    }
+
+    /**
+     * Marks the current state of the planner as saved.
+     */
+    public void markSaved() {
+        unsavedOperations.clear();
+        isSnapshotRequired = false;
+        semester.clearDirtyDates();
+        savedModificationCount = semester.getModificationCount();
+    }
+
+    /**
+     * Returns the slots which contain all specified tags, in date order.
+     */
     public List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlots(Set<String> tags) {
+        return withDays(semester.getTaggedSlots(tags));
+    }
+
+    /**
+     * Returns the slots with a tag equal to {@code tag}, ignoring case, in date order.
+     */
+    public List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlotsWithTag(String tag) {
+        return withDays(semester.getSlotsWithTagIgnoreCase(tag));
+    }
+
+    /**
+     * Returns the slots named {@code name}, ignoring case, in date order.
+     */
+    public List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlotsWithName(String name) {
+        return withDays(semester.getSlotsWithNameIgnoreCase(name));
+    }
+
+    /**
+     * Pairs each of {@code slots} with the day it is on.
+     */
+    private List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> withDays(List<Pair<LocalDate, Slot>> slots) {
         final List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> selectedSlots = new ArrayList<>();
 
-        for (Map.Entry<LocalDate, Day> entry : getDays().entrySet()) {
-            for (Slot slot : entry.getValue().getSlots()) {
-                if (slot.getTags().containsAll(tags)) {
-                    selectedSlots.add(new Pair<>(entry.getKey(), new Pair<>(entry.getValue(), slot)));
-                }
-            }
+        for (Pair<LocalDate, Slot> entry : slots) {
+            selectedSlots.add(new Pair<>(entry.getKey(),
+                    new Pair<>(semester.getDay(entry.getKey()), entry.getValue())));
         }
 
         return selectedSlots;
     }
 
     @Override
-    public HashMap<LocalDate, Day> getDays() {
+    public Map<LocalDate, Day> getDays() {
         return semester.getDays();
     }
 
@@ -0,0 +1,210 @@
+package planmysem.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import planmysem.model.semester.Day;
+import planmysem.model.slot.ReadOnlySlot;
+import planmysem.model.slot.Slot;
+
+/**
+ * Represents a single change made to a Planner as part of a {@link PlannerDelta}.
+ * Most changes hold the operations which made them and the inverse operations which take them back, so recording,
+ * undoing and redoing them costs as much as the change itself. Changes which no operation takes back exactly, such
+ * as clearing the planner, are checkpoints instead, which hold a copy of every changed day as it was before and after
+ * the change.
+ */
+public class PlannerChange {
+    // Rough sizes in bytes of the objects a change is made of, as laid out by a 64-bit JVM.
+    private static final int CHANGE_SIZE = 160;
+    private static final int OPERATION_SIZE = 64;
+    private static final int SLOT_SIZE = 64;
+    private static final int DAY_SIZE = 280;
+    private static final int STRING_SIZE = 40;
+    private static final int SET_SIZE = 64;
+    private static final int ENTRY_SIZE = 40;
+
+    private final List<PlannerOperation> operations;
+    private final List<PlannerOperation> inverseOperations;
+    private final Map<LocalDate, Day> daysBefore;
+    private final Map<LocalDate, Day> daysAfter;
+    private final boolean isCheckpoint;
+
+    private PlannerChange(List<PlannerOperation> operations, List<PlannerOperation> inverseOperations,
+                          Map<LocalDate, Day> daysBefore, Map<LocalDate, Day> daysAfter, boolean isCheckpoint) {
+        this.operations = Collections.unmodifiableList(new ArrayList<>(operations));
+        this.inverseOperations = Collections.unmodifiableList(new ArrayList<>(inverseOperations));
+        this.daysBefore = Collections.unmodifiableMap(new HashMap<>(daysBefore));
+        this.daysAfter = Collections.unmodifiableMap(new HashMap<>(daysAfter));
+        this.isCheckpoint = isCheckpoint;
+    }
+
+    /**
+     * Returns a change made by {@code operations}, which {@code inverseOperations} take back when applied in order.
+     */
+    public static PlannerChange ofOperations(List<PlannerOperation> operations,
+                                             List<PlannerOperation> inverseOperations) {
+        requireNonNull(operations);
+        requireNonNull(inverseOperations);
+        return new PlannerChange(operations, inverseOperations, Collections.emptyMap(), Collections.emptyMap(),
+                false);
+    }
+
+    /**
+     * Returns a checkpoint which changes the days of {@code daysBefore} into those of {@code daysAfter}.
+     * Both maps have to hold the same dates. The days are not copied.
+     */
+    public static PlannerChange ofDays(Map<LocalDate, Day> daysBefore, Map<LocalDate, Day> daysAfter) {
+        assert daysBefore.keySet().equals(daysAfter.keySet());
+        return new PlannerChange(Collections.emptyList(), Collections.emptyList(), daysBefore, daysAfter, true);
+    }
+
+    /**
+     * Makes this change to {@code planner}, which has to be in the state the change was made in.
+     */
+    public void applyTo(Planner planner) {
+        if (isCheckpoint) {
+            planner.restoreDays(daysAfter);
+            return;
+        }
+        for (PlannerOperation operation : operations) {
+            operation.applyTo(planner);
+        }
+    }
+
+    /**
+     * Takes this change back from {@code planner}, which has to be in the state the change left it in.
+     */
+    public void revert(Planner planner) {
+        if (isCheckpoint) {
+            planner.restoreDays(daysBefore);
+            return;
+        }
+        for (PlannerOperation operation : inverseOperations) {
+            operation.applyTo(planner);
+        }
+    }
+
+    /**
+     * Returns an estimate of the number of bytes this change takes up in memory.
+     * Slots shared between days are counted once for every day they are on.
+     */
+    public long estimateSize() {
+        long size = CHANGE_SIZE;
+        for (PlannerOperation operation : operations) {
+            size += estimateSize(operation);
+        }
+        for (PlannerOperation operation : inverseOperations) {
+            size += estimateSize(operation);
+        }
+        for (Day day : daysBefore.values()) {
+            size += ENTRY_SIZE + estimateSize(day);
+        }
+        for (Day day : daysAfter.values()) {
+            size += ENTRY_SIZE + estimateSize(day);
+        }
+        return size;
+    }
+
+    /**
+     * Returns an estimate of the number of bytes {@code operation} takes up in memory.
+     */
+    private static long estimateSize(PlannerOperation operation) {
+        return OPERATION_SIZE + (operation.getSlot() == null ? 0 : estimateSize(operation.getSlot()))
+                + estimateSize(operation.getNewName()) + estimateSize(operation.getNewLocation())
+                + estimateSize(operation.getNewDescription()) + estimateSize(operation.getNewTags());
+    }
+
+    /**
+     * Returns an estimate of the number of bytes {@code day} and its slots take up in memory.
+     */
+    private static long estimateSize(Day day) {
+        long size = DAY_SIZE;
+        for (Slot slot : day.getSlots()) {
+            size += Integer.BYTES + estimateSize(slot);
+        }
+        return size;
+    }
+
+    /**
+     * Returns an estimate of the number of bytes {@code slot} takes up in memory.
+     */
+    private static long estimateSize(ReadOnlySlot slot) {
+        return SLOT_SIZE + estimateSize(slot.getName()) + estimateSize(slot.getLocation())
+                + estimateSize(slot.getDescription()) + estimateSize(slot.getTags());
+    }
+
+    /**
+     * Returns an estimate of the number of bytes {@code tags} take up in memory.
+     */
+    private static long estimateSize(Set<String> tags) {
+        long size = SET_SIZE;
+        for (String tag : tags) {
+            size += ENTRY_SIZE + estimateSize(tag);
+        }
+        return size;
+    }
+
+    /**
+     * Returns an estimate of the number of bytes {@code value}, which may be null, takes up in memory.
+     */
+    private static long estimateSize(String value) {
+        return value == null ? 0 : STRING_SIZE + value.length();
+    }
+
+    /**
+     * Returns true if this change holds copies of the changed days instead of operations.
+     */
+    public boolean isCheckpoint() {
+        return isCheckpoint;
+    }
+
+    public List<PlannerOperation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Returns the operations which take this change back, in the order they are applied.
+     */
+    public List<PlannerOperation> getInverseOperations() {
+        return inverseOperations;
+    }
+
+    /**
+     * Returns the days changed by a checkpoint as they were before the change, keyed by date.
+     */
+    public Map<LocalDate, Day> getDaysBefore() {
+        return daysBefore;
+    }
+
+    /**
+     * Returns the days changed by a checkpoint as they were after the change, keyed by date.
+     */
+    public Map<LocalDate, Day> getDaysAfter() {
+        return daysAfter;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this // short circuit if same object
+                || (other instanceof PlannerChange // instanceof handles nulls
+                && isCheckpoint == ((PlannerChange) other).isCheckpoint
+                && operations.equals(((PlannerChange) other).operations)
+                && inverseOperations.equals(((PlannerChange) other).inverseOperations)
+                && daysBefore.equals(((PlannerChange) other).daysBefore)
+                && daysAfter.equals(((PlannerChange) other).daysAfter));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(operations, inverseOperations, daysBefore, daysAfter, isCheckpoint);
+    }
+}
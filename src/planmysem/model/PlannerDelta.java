@@ -0,0 +1,78 @@
+package planmysem.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import planmysem.model.semester.Day;
+
+/**
+ * Represents the difference between two consecutive states of a Planner.
+ * Holds the changes made between the two states in the order they were made, so the difference can be undone by
+ * taking the changes back in reverse order and redone by making them again.
+ */
+public class PlannerDelta {
+    private final List<PlannerChange> changes;
+
+    /**
+     * Creates a delta holding the {@code changes} in the order they were made.
+     */
+    public PlannerDelta(List<PlannerChange> changes) {
+        this.changes = Collections.unmodifiableList(new ArrayList<>(changes));
+    }
+
+    /**
+     * Creates a delta holding a single checkpoint of the days which changed, as they were before and after the
+     * change. Both maps have to hold the same dates. The days are not copied.
+     */
+    public PlannerDelta(Map<LocalDate, Day> daysBefore, Map<LocalDate, Day> daysAfter) {
+        this(Collections.singletonList(PlannerChange.ofDays(daysBefore, daysAfter)));
+    }
+
+    public List<PlannerChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Returns an estimate of the number of bytes this delta takes up in memory.
+     */
+    public long estimateSize() {
+        long size = 0;
+        for (PlannerChange change : changes) {
+            size += change.estimateSize();
+        }
+        return size;
+    }
+
+    /**
+     * Makes the changes of this delta to {@code planner}, which has to be in the earlier of the two states.
+     */
+    public void applyTo(Planner planner) {
+        for (PlannerChange change : changes) {
+            change.applyTo(planner);
+        }
+    }
+
+    /**
+     * Takes the changes of this delta back from {@code planner}, which has to be in the later of the two states.
+     */
+    public void revert(Planner planner) {
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            changes.get(i).revert(planner);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this // short circuit if same object
+                || (other instanceof PlannerDelta // instanceof handles nulls
+                && changes.equals(((PlannerDelta) other).changes));
+    }
+
+    @Override
+    public int hashCode() {
+        return changes.hashCode();
+    }
+}
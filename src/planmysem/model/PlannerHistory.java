@@ -0,0 +1,66 @@
+package planmysem.model;
+
+/**
+ * Keeps the changes committed to a {@link VersionedPlanner}, so they can be undone and redone.
+ * State 0 is the oldest state which can be restored, and the delta with index {@code i} leads from state
+ * {@code i - 1} to state {@code i}. When the oldest states are dropped to keep the history within its
+ * {@link HistoryBudget}, the remaining states are renumbered.
+ */
+public interface PlannerHistory {
+
+    /**
+     * Returns the number of deltas kept, which is also the index of the newest state.
+     */
+    int size();
+
+    /**
+     * Returns the delta leading to the state with the given index, from 1 to {@link #size()}.
+     *
+     * @throws HistoryReadException if the delta cannot be read.
+     */
+    PlannerDelta get(int index);
+
+    /**
+     * Adds {@code delta} with the given index, discarding the deltas with that index and above,
+     * and makes its state the current one.
+     */
+    void add(int index, PlannerDelta delta);
+
+    /**
+     * Returns the index of the state the planner is in.
+     */
+    int getCurrentState();
+
+    /**
+     * Records that the planner was moved to the state with the given index by an undo or redo.
+     */
+    void setCurrentState(int index);
+
+    /**
+     * Returns the sizes of the history and the budget it is kept within.
+     */
+    HistoryStatistics getStatistics();
+
+    /**
+     * Returns a new history kept in memory only, within the configured {@link HistoryBudget}.
+     */
+    static PlannerHistory inMemory() {
+        return inMemory(HistoryBudget.getConfigured());
+    }
+
+    /**
+     * Returns a new history kept in memory only, which drops its oldest states to stay within {@code budget}.
+     */
+    static PlannerHistory inMemory(HistoryBudget budget) {
+        return new InMemoryPlannerHistory(budget);
+    }
+
+    /**
+     * Signals that a delta of the history could not be read from storage.
+     */
+    class HistoryReadException extends RuntimeException {
+        public HistoryReadException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package planmysem.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import planmysem.model.semester.Semester;
+import planmysem.model.slot.ReadOnlySlot;
+import planmysem.model.slot.Slot;
+
+/**
+ * Represents a single change made to a Planner.
+ * Lets storage record what changed instead of rewriting the whole Planner.
+ */
+public class PlannerOperation {
+    /**
+     * Kinds of changes that can be made to a Planner.
+     */
+    public enum Type {
+        ADD, REMOVE, EDIT, CLEAR
+    }
+
+    private final Type type;
+    private final LocalDate date;
+    private final ReadOnlySlot slot;
+
+    // The following fields are only used by EDIT and follow the parameters of Planner#editSlot.
+    private final LocalDate newDate;
+    private final LocalTime newStartTime;
+    private final int newDuration;
+    private final String newName;
+    private final String newLocation;
+    private final String newDescription;
+    private final Set<String> newTags;
+
+    private PlannerOperation(Type type, LocalDate date, ReadOnlySlot slot, LocalDate newDate,
+                             LocalTime newStartTime, int newDuration, String newName, String newLocation,
+                             String newDescription, Set<String> newTags) {
+        this.type = type;
+        this.date = date;
+        this.slot = slot;
+        this.newDate = newDate;
+        this.newStartTime = newStartTime;
+        this.newDuration = newDuration;
+        this.newName = newName;
+        this.newLocation = newLocation;
+        this.newDescription = newDescription;
+        this.newTags = newTags;
+    }
+
+    /**
+     * Returns an operation which adds {@code slot} to {@code date}.
+     */
+    public static PlannerOperation add(LocalDate date, ReadOnlySlot slot) {
+        requireNonNull(date);
+        return new PlannerOperation(Type.ADD, date, new Slot(slot), null, null, -1,
+                null, null, null, Collections.emptySet());
+    }
+
+    /**
+     * Returns an operation which removes {@code slot} from {@code date}.
+     */
+    public static PlannerOperation remove(LocalDate date, ReadOnlySlot slot) {
+        requireNonNull(date);
+        return new PlannerOperation(Type.REMOVE, date, new Slot(slot), null, null, -1,
+                null, null, null, Collections.emptySet());
+    }
+
+    /**
+     * Returns an operation which edits {@code targetSlot} on {@code targetDate}.
+     * The remaining parameters have the same meaning as in {@link Planner#editSlot}.
+     */
+    public static PlannerOperation edit(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
+                                        LocalTime startTime, int duration, String name, String location,
+                                        String description, Set<String> tags) {
+        requireNonNull(targetDate);
+        requireNonNull(tags);
+        return new PlannerOperation(Type.EDIT, targetDate, new Slot(targetSlot), date, startTime, duration,
+                name, location, description, Collections.unmodifiableSet(new HashSet<>(tags)));
+    }
+
+    /**
+     * Returns an operation which removes all slots from the planner.
+     */
+    public static PlannerOperation clear() {
+        return new PlannerOperation(Type.CLEAR, null, null, null, null, -1,
+                null, null, null, Collections.emptySet());
+    }
+
+    /**
+     * Applies this operation to {@code planner}.
+     * Operations which target a date or slot that no longer exists in {@code planner} are ignored.
+     */
+    public void applyTo(Planner planner) {
+        switch (type) {
+        case ADD:
+            try {
+                planner.addSlot(date, new Slot(slot));
+            } catch (Semester.DateNotFoundException dnfe) {
+                // the date is no longer part of the planner's semester
+            }
+            break;
+        case REMOVE:
+            if (planner.getSemester().contains(date)) {
+                planner.removeSlot(date, slot);
+            }
+            break;
+        case EDIT:
+            if (planner.getSemester().contains(date) && planner.getSemester().contains(date, slot)
+                    && (newDate == null || planner.getSemester().contains(newDate))) {
+                planner.editSlot(date, slot, newDate, newStartTime, newDuration, newName, newLocation,
+                        newDescription, newTags);
+            }
+            break;
+        case CLEAR:
+            planner.clearSlots();
+            break;
+        default:
+            throw new AssertionError("Unknown operation type: " + type);
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public ReadOnlySlot getSlot() {
+        return slot;
+    }
+
+    public LocalDate getNewDate() {
+        return newDate;
+    }
+
+    public LocalTime getNewStartTime() {
+        return newStartTime;
+    }
+
+    public int getNewDuration() {
+        return newDuration;
+    }
+
+    public String getNewName() {
+        return newName;
+    }
+
+    public String getNewLocation() {
+        return newLocation;
+    }
+
+    public String getNewDescription() {
+        return newDescription;
+    }
+
+    public Set<String> getNewTags() {
+        return newTags;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+        if (!(other instanceof PlannerOperation)) {
+            return false;
+        }
+        PlannerOperation o = (PlannerOperation) other;
+        return type == o.type
+                && Objects.equals(date, o.date)
+                && Objects.equals(slot, o.slot)
+                && Objects.equals(newDate, o.newDate)
+                && Objects.equals(newStartTime, o.newStartTime)
+                && newDuration == o.newDuration
+                && Objects.equals(newName, o.newName)
+                && Objects.equals(newLocation, o.newLocation)
+                && Objects.equals(newDescription, o.newDescription)
+                && newTags.equals(o.newTags);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, date, slot, newDate, newStartTime, newDuration, newName, newLocation,
+                newDescription, newTags);
+    }
+}
@@ -1,7 +1,7 @@
 package planmysem.model;
 
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.Map;
 
 import planmysem.model.semester.Day;
 
@@ -13,6 +13,6 @@ public interface ReadOnlyPlanner {
     /**
      * Returns an unmodifiable view of all days.
      */
-    HashMap<LocalDate, Day> getDays();
+    Map<LocalDate, Day> getDays();
 
 }
@@ -1,37 +1,230 @@
 package planmysem.model;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+
+import planmysem.model.semester.Day;
+import planmysem.model.semester.Semester;
+import planmysem.model.slot.ReadOnlySlot;
+import planmysem.model.slot.Slot;
 
 /**
  * {@code Planner} that keeps track of its own history.
+ * Every commit adds a {@link PlannerDelta} holding the changes made since the previous commit to a
+ * {@link PlannerHistory}, instead of a copy of the whole planner. Changes are kept as the operations which made them
+ * and the inverse operations which take them back, so undoing and redoing them costs as much as the changes
+ * themselves. A commit holding a change without an exact inverse, such as clearing the planner, is kept as a
+ * checkpoint of the changed days instead.
  */
 public class VersionedPlanner extends Planner {
 
-    private final List<ReadOnlyPlanner> plannerListState;
-    private int currentStatePointer;
+    private final PlannerHistory history;
+
+    // The days changed since the last commit, undo or redo, as they were before they were first changed.
+    private final Map<LocalDate, Day> uncommittedDays = new HashMap<>();
+    // The changes made since the last commit, undo or redo, in the order they were made.
+    private final List<PlannerChange> uncommittedChanges = new ArrayList<>();
+    private boolean isCheckpointRequired;
+    private boolean isRestoring;
 
     public VersionedPlanner(ReadOnlyPlanner initialState) {
+        this(initialState, PlannerHistory.inMemory());
+    }
+
+    /**
+     * Constructs a planner in the current state of {@code history}, which holds the changes leading to
+     * {@code initialState}.
+     */
+    public VersionedPlanner(ReadOnlyPlanner initialState, PlannerHistory history) {
         super(initialState);
+        this.history = history;
+    }
+
+    @Override
+    public Day addSlot(LocalDate date, Slot slot) throws Semester.DateNotFoundException {
+        recordUncommittedDay(date);
+        final int operationCount = getUnsavedOperations().size();
+        final Day day = super.addSlot(date, slot);
+        recordAdded(operationCount);
+        return day;
+    }
 
-        plannerListState = new ArrayList<>();
-        plannerListState.add(initialState);
-        currentStatePointer = 0;
+    @Override
+    public Map<LocalDate, Day> addSlotSeries(Set<LocalDate> dates, Slot slot) throws Semester.DateNotFoundException {
+        for (LocalDate date : dates) {
+            recordUncommittedDay(date);
+        }
+        final int operationCount = getUnsavedOperations().size();
+        final Map<LocalDate, Day> days = super.addSlotSeries(dates, slot);
+        recordAdded(operationCount);
+        return days;
+    }
+
+    @Override
+    public void removeSlot(LocalDate date, ReadOnlySlot slot) {
+        if (isRestoring) {
+            super.removeSlot(date, slot);
+            return;
+        }
+        recordUncommittedDay(date);
+        final Slot removing = findEquivalent(date, slot);
+        isCheckpointRequired |= removing != null && !isRestorableByAdding(date, removing);
+
+        final int operationCount = getUnsavedOperations().size();
+        super.removeSlot(date, slot);
+        uncommittedChanges.add(PlannerChange.ofOperations(getOperationsSince(operationCount), removing == null
+                ? Collections.emptyList()
+                : Collections.singletonList(PlannerOperation.add(date, removing))));
+    }
+
+    @Override
+    public Slot editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
+                         LocalTime startTime, int duration, String name, String location,
+                         String description, Set<String> tags) {
+        if (isRestoring) {
+            return super.editSlot(targetDate, targetSlot, date, startTime, duration, name, location, description,
+                    tags);
+        }
+        recordUncommittedDay(targetDate);
+        recordUncommittedDay(date);
+        final Slot editing = findEquivalent(targetDate, targetSlot);
+        isCheckpointRequired |= editing == null || !isRestorableByAdding(targetDate, editing);
+
+        // the slot may be edited in place, so it is copied before it is edited
+        final Slot original = editing == null ? null : new Slot(editing);
+        final int operationCount = getUnsavedOperations().size();
+        final Slot edited = super.editSlot(targetDate, targetSlot, date, startTime, duration, name, location,
+                description, tags);
+        if (original != null) {
+            uncommittedChanges.add(PlannerChange.ofOperations(getOperationsSince(operationCount), Arrays.asList(
+                    PlannerOperation.remove(date == null ? targetDate : date, edited),
+                    PlannerOperation.add(targetDate, original))));
+        }
+        return edited;
+    }
+
+    @Override
+    public void clearSlots() {
+        if (!isRestoring) {
+            for (Map.Entry<LocalDate, Day> entry : getDays().entrySet()) {
+                if (!entry.getValue().getSlots().isEmpty()) {
+                    recordUncommittedDay(entry.getKey());
+                }
+            }
+            isCheckpointRequired = true;
+        }
+        super.clearSlots();
     }
 
     /**
-     * Saves a copy of the current {@code Planner} state at the end of the state list.
-     * Undone states are removed from the state list.
+     * Keeps the day on {@code date} as it is before its first change since the last commit.
+     * The day is shared with the semester, which copies it before changing it.
      */
-    public void commit() {
-        removeStatesAfterCurrentPointer();
-        plannerListState.add(new Planner(this));
-        currentStatePointer++;
+    private void recordUncommittedDay(LocalDate date) {
+        if (isRestoring || date == null || uncommittedDays.containsKey(date) || !getSemester().contains(date)) {
+            return;
+        }
+        uncommittedDays.put(date, getSemester().getDaySnapshot(date));
     }
 
-    private void removeStatesAfterCurrentPointer() {
-        plannerListState.subList(currentStatePointer + 1, plannerListState.size()).clear();
+    /**
+     * Records the slots added since {@code operationCount} operations were unsaved, which are taken back by
+     * removing them again in reverse order.
+     */
+    private void recordAdded(int operationCount) {
+        if (isRestoring) {
+            return;
+        }
+        final List<PlannerOperation> operations = getOperationsSince(operationCount);
+        final List<PlannerOperation> inverseOperations = new ArrayList<>();
+        for (int i = operations.size() - 1; i >= 0; i--) {
+            inverseOperations.add(PlannerOperation.remove(operations.get(i).getDate(), operations.get(i).getSlot()));
+        }
+        uncommittedChanges.add(PlannerChange.ofOperations(operations, inverseOperations));
+    }
+
+    /**
+     * Returns the operations which were made since {@code operationCount} operations were unsaved.
+     */
+    private List<PlannerOperation> getOperationsSince(int operationCount) {
+        final List<PlannerOperation> operations = getUnsavedOperations();
+        return new ArrayList<>(operations.subList(Math.min(operationCount, operations.size()), operations.size()));
+    }
+
+    /**
+     * Returns the slot on {@code date} which removing or editing {@code slot} changes, or null if there is none.
+     * A slot with the same id is preferred, as the semester looks slots up by their id first.
+     */
+    private Slot findEquivalent(LocalDate date, ReadOnlySlot slot) {
+        if (!getSemester().contains(date)) {
+            return null;
+        }
+        final long id = slot instanceof Slot ? ((Slot) slot).getId() : Slot.NO_ID;
+        Slot equivalent = null;
+        for (Slot candidate : getSemester().getDay(date).getSlots()) {
+            if (candidate.equals(slot)) {
+                if (id != Slot.NO_ID && candidate.getId() == id) {
+                    return candidate;
+                }
+                if (equivalent == null) {
+                    equivalent = candidate;
+                }
+            }
+        }
+        return equivalent;
+    }
+
+    /**
+     * Returns true if {@code slot}, a slot on {@code date}, is equivalent to the last slot of its day which starts
+     * at the same minute. Slots are added after the slots which start at the same minute, so adding a copy of such a
+     * slot back restores its day exactly.
+     */
+    private boolean isRestorableByAdding(LocalDate date, Slot slot) {
+        final int minute = slot.getStartTime().toSecondOfDay() / 60;
+        Slot last = null;
+        for (Slot candidate : getSemester().getDay(date).getSlots()) {
+            if (candidate.getStartTime().toSecondOfDay() / 60 == minute) {
+                last = candidate;
+            }
+        }
+        return slot.equals(last);
+    }
+
+    /**
+     * Saves the changes made since the last commit as the next state of the planner.
+     * Undone states are removed from the history. A commit which leaves every day as it was holds no changes.
+     */
+    public void commit() {
+        final Map<LocalDate, Day> daysBefore = new HashMap<>();
+        final Map<LocalDate, Day> daysAfter = new HashMap<>();
+        for (Map.Entry<LocalDate, Day> entry : uncommittedDays.entrySet()) {
+            final Day day = getSemester().getDay(entry.getKey());
+            if (!day.equals(entry.getValue())) {
+                daysBefore.put(entry.getKey(), entry.getValue());
+                if (isCheckpointRequired) {
+                    daysAfter.put(entry.getKey(), getSemester().getDaySnapshot(entry.getKey()));
+                }
+            }
+        }
+
+        final PlannerDelta delta;
+        if (daysBefore.isEmpty()) {
+            delta = new PlannerDelta(Collections.emptyList());
+        } else if (isCheckpointRequired) {
+            delta = new PlannerDelta(daysBefore, daysAfter);
+        } else {
+            delta = new PlannerDelta(uncommittedChanges);
+        }
+        history.add(history.getCurrentState() + 1, delta);
+        clearUncommittedChanges();
     }
 
     /**
@@ -41,8 +234,10 @@ public class VersionedPlanner extends Planner {
         if (!canUndo()) {
             throw new NoUndoableStateException();
         }
-        currentStatePointer--;
-        resetData(plannerListState.get(currentStatePointer));
+        final PlannerDelta delta = history.get(history.getCurrentState());
+        discardUncommittedChanges();
+        restore(() -> delta.revert(this));
+        history.setCurrentState(history.getCurrentState() - 1);
     }
 
     /**
@@ -52,22 +247,55 @@ public class VersionedPlanner extends Planner {
         if (!canRedo()) {
             throw new NoRedoableStateException();
         }
-        currentStatePointer++;
-        resetData(plannerListState.get(currentStatePointer));
+        final PlannerDelta delta = history.get(history.getCurrentState() + 1);
+        discardUncommittedChanges();
+        restore(() -> delta.applyTo(this));
+        history.setCurrentState(history.getCurrentState() + 1);
+    }
+
+    /**
+     * Reverts the changes made since the last commit, undo or redo.
+     */
+    private void discardUncommittedChanges() {
+        restoreDays(uncommittedDays);
+        clearUncommittedChanges();
+    }
+
+    private void clearUncommittedChanges() {
+        uncommittedDays.clear();
+        uncommittedChanges.clear();
+        isCheckpointRequired = false;
+    }
+
+    /**
+     * Runs {@code restoring}, which moves the planner to another state of its history, without recording the
+     * changes it makes.
+     */
+    private void restore(Runnable restoring) {
+        isRestoring = true;
+        try {
+            restoring.run();
+        } finally {
+            isRestoring = false;
+        }
     }
 
     /**
      * Returns true if {@code undo()} has planner states to undo.
      */
     public boolean canUndo() {
-        return currentStatePointer > 0;
+        return history.getCurrentState() > 0;
     }
 
     /**
      * Returns true if {@code redo()} has planner states to redo.
      */
     public boolean canRedo() {
-        return currentStatePointer < plannerListState.size() - 1;
+        return history.getCurrentState() < history.size();
+    }
+
+    public PlannerHistory getHistory() {
+        return history;
     }
 
     @Override
@@ -86,13 +314,13 @@ public class VersionedPlanner extends Planner {
 
         // state check
         return super.equals(otherVersionedPlanner)
-                && plannerListState.equals(otherVersionedPlanner.plannerListState)
-                && currentStatePointer == otherVersionedPlanner.currentStatePointer;
+                && history.equals(otherVersionedPlanner.history)
+                && uncommittedDays.equals(otherVersionedPlanner.uncommittedDays);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(plannerListState, currentStatePointer);
+        return Objects.hash(history, uncommittedDays);
     }
 
     /**
@@ -0,0 +1,77 @@
+package planmysem.model.recurrence;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import planmysem.model.slot.Slot;
+
+/**
+ * Represents a series of slots added by a single recurring add, e.g. a weekly lecture.
+ * The days of a series share a single definition. Occurrences which were edited on their own are exceptions,
+ * which hold a copy of the definition with the changes made to them.
+ */
+public class SlotSeries {
+    private final long id;
+    private final Slot definition;
+    private final NavigableMap<LocalDate, Slot> occurrences;
+
+    /**
+     * Creates a series from its occurrences on each date. The definition of the series is the occurrence shared
+     * by the most dates.
+     */
+    public SlotSeries(long id, NavigableMap<LocalDate, Slot> occurrences) {
+        this.id = id;
+        this.occurrences = Collections.unmodifiableNavigableMap(new TreeMap<>(occurrences));
+
+        final Map<Slot, Integer> counts = new IdentityHashMap<>();
+        Slot mostShared = null;
+        for (Slot occurrence : occurrences.values()) {
+            final int count = counts.merge(occurrence, 1, Integer::sum);
+            if (mostShared == null || count > counts.get(mostShared)) {
+                mostShared = occurrence;
+            }
+        }
+        this.definition = mostShared;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Slot getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Returns the dates of the occurrences of the series in date order.
+     */
+    public NavigableSet<LocalDate> getDates() {
+        return occurrences.navigableKeySet();
+    }
+
+    /**
+     * Returns the occurrence of the series on {@code date}, or null if there is none.
+     */
+    public Slot getOccurrence(LocalDate date) {
+        return occurrences.get(date);
+    }
+
+    /**
+     * Returns the dates of the occurrences which differ from the definition of the series, in date order.
+     */
+    public NavigableSet<LocalDate> getExceptions() {
+        final NavigableSet<LocalDate> exceptions = new TreeSet<>();
+        for (Map.Entry<LocalDate, Slot> entry : occurrences.entrySet()) {
+            if (entry.getValue() != definition) {
+                exceptions.add(entry.getKey());
+            }
+        }
+        return exceptions;
+    }
+}
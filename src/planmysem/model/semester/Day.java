@@ -1,21 +1,35 @@
 package planmysem.model.semester;
 
 import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
+import javafx.util.Pair;
 import planmysem.model.slot.ReadOnlySlot;
 import planmysem.model.slot.Slot;
 
 /**
  * Represents a Day in the planner.
  * Guarantees: details are present and not null, field values are validated.
+ * Slots are kept ordered by start time; slots starting at the same time are kept in the order they were added.
+ * Occurrences of a series are never changed, so they are shared with copies of the day instead of copied.
  */
 public class Day implements ReadOnlyDay {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final Comparator<Slot> START_TIME_ORDER =
+            Comparator.comparingInt(slot -> toMinuteOfDay(slot.getStartTime()));
+
     private final DayOfWeek dayOfWeek;
     private final String type;
     private final ArrayList<Slot> slots = new ArrayList<>();
+    private int maxDuration; // longest duration of the slots, which bounds how far back an overlapping slot starts
+    private final BitSet occupied = new BitSet(MINUTES_PER_DAY); // minutes of the day taken up by some slot
 
     /**
      * Assumption: Every field must be present and not null.
@@ -24,8 +38,12 @@ public class Day implements ReadOnlyDay {
         this.dayOfWeek = day.getDayOfWeek();
         this.type = day.getType();
         for (Slot slot : day.getSlots()) {
-            this.slots.add(new Slot(slot));
+            this.slots.add(copyOf(slot));
+        }
+        if (!(day instanceof Day)) {
+            this.slots.sort(START_TIME_ORDER);
         }
+        recompute();
     }
 
     public Day(DayOfWeek dayOfWeek, String weekType) {
@@ -38,22 +56,109 @@ public class Day implements ReadOnlyDay {
         this.type = weekType;
 
         for (Slot slot : slots) {
-            this.slots.add(new Slot(slot));
+            this.slots.add(copyOf(slot));
         }
+        this.slots.sort(START_TIME_ORDER);
+        recompute();
+    }
+
+    /**
+     * Returns a copy of {@code slot} to be held by a day, or {@code slot} itself if it is an occurrence of a series.
+     */
+    private static Slot copyOf(Slot slot) {
+        return slot.isOccurrence() ? slot : new Slot(slot);
     }
 
     /**
-     * Add a slot to the day.
+     * Add a slot to the day, after the slots which start at the same time or earlier.
      */
     public void addSlot(Slot slot) {
-        slots.add(new Slot(slot));
+        insert(new Slot(slot));
+    }
+
+    /**
+     * Adds {@code slot} itself to the day, without copying it.
+     */
+    void addInstance(Slot slot) {
+        insert(slot);
+    }
+
+    /**
+     * Replaces the slot at {@code index} with {@code equivalent}, which has to be equivalent to it.
+     * Lets days which were read separately share the occurrences of a series.
+     */
+    void share(int index, Slot equivalent) {
+        assert slots.get(index).equals(equivalent);
+        slots.set(index, equivalent);
     }
 
     /**
      * Removes the equivalent slot from the day.
      */
     public void removeSlot(ReadOnlySlot slot) {
-        slots.remove(slot);
+        final Slot equivalent = find(slot);
+        if (equivalent != null) {
+            removeInstance(equivalent);
+        }
+    }
+
+    /**
+     * Removes {@code slot}, a slot of this day, from the day.
+     */
+    void removeInstance(Slot slot) {
+        final int index = indexOf(slot);
+        if (index != -1) {
+            slots.remove(index);
+            recompute();
+        }
+    }
+
+    /**
+     * Returns the slot of this day equivalent to {@code slot}, or null if there is none.
+     * Only the slots starting at the same time as {@code slot} are compared, as no other slot can be equivalent.
+     */
+    Slot find(ReadOnlySlot slot) {
+        final int minute = toMinuteOfDay(slot.getStartTime());
+        for (int i = indexAfter(minute - 1); i < slots.size(); i++) {
+            final Slot candidate = slots.get(i);
+            if (toMinuteOfDay(candidate.getStartTime()) != minute) {
+                break;
+            }
+            if (candidate.equals(slot)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of {@code slot}, a slot of this day, or -1 if it is not part of the day.
+     */
+    private int indexOf(Slot slot) {
+        final int minute = toMinuteOfDay(slot.getStartTime());
+        for (int i = indexAfter(minute - 1); i < slots.size(); i++) {
+            if (slots.get(i) == slot) {
+                return i;
+            }
+            if (toMinuteOfDay(slots.get(i).getStartTime()) != minute) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves {@code slot}, a slot of this day whose start time or duration was changed, to its place in the order.
+     */
+    void reposition(Slot slot) {
+        for (int i = 0; i < slots.size(); i++) {
+            if (slots.get(i) == slot) {
+                slots.remove(i);
+                insert(slot);
+                recompute();
+                return;
+            }
+        }
     }
 
     /**
@@ -61,10 +166,177 @@ public class Day implements ReadOnlyDay {
      */
     public void clear() {
         slots.clear();
+        maxDuration = 0;
+        occupied.clear();
+    }
+
+    /**
+     * Returns the slots which take up some time between {@code from} and {@code to}, in order of start time.
+     * Slots ending at {@code from} or starting at {@code to} are not included.
+     */
+    public List<Slot> slotsOverlapping(LocalTime from, LocalTime to) {
+        return slotsOverlapping(toMinuteOfDay(from), toMinuteOfDay(to));
+    }
+
+    /**
+     * Returns the other slots of this day which take up some of the time of {@code slot}, in order of start time.
+     * One slot equal to {@code slot} is left out, as it is taken to be {@code slot} itself.
+     */
+    public List<Slot> slotsClashingWith(ReadOnlySlot slot) {
+        final int start = toMinuteOfDay(slot.getStartTime());
+        final List<Slot> clashing = slotsOverlapping(start, start + slot.getDuration());
+        clashing.remove(slot);
+        return clashing;
+    }
+
+    /**
+     * Returns every pair of slots of this day which overlap, the earlier starting slot first.
+     * The slots are swept in order of start time, keeping only the slots which have not ended yet.
+     */
+    public List<Pair<Slot, Slot>> getClashes() {
+        final List<Pair<Slot, Slot>> clashes = new ArrayList<>();
+        final List<Slot> ongoing = new ArrayList<>();
+        for (Slot slot : slots) {
+            final int start = toMinuteOfDay(slot.getStartTime());
+            ongoing.removeIf(earlier -> toMinuteOfDay(earlier.getStartTime()) + earlier.getDuration() <= start);
+            if (slot.getDuration() <= 0) {
+                continue;
+            }
+            for (Slot earlier : ongoing) {
+                clashes.add(new Pair<>(earlier, slot));
+            }
+            ongoing.add(slot);
+        }
+        return clashes;
+    }
+
+    /**
+     * Returns the slots which take up some time between the given minutes of the day.
+     */
+    private List<Slot> slotsOverlapping(int fromMinute, int toMinute) {
+        final List<Slot> overlapping = new ArrayList<>();
+        // a slot starting earlier than this cannot reach from, as no slot is longer than maxDuration
+        for (int i = indexAfter(fromMinute - maxDuration); i < slots.size(); i++) {
+            final Slot slot = slots.get(i);
+            final int start = toMinuteOfDay(slot.getStartTime());
+            if (start >= toMinute) {
+                break;
+            }
+            if (slot.getDuration() > 0 && start + slot.getDuration() > fromMinute) {
+                overlapping.add(slot);
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Returns the free periods of at least {@code duration} minutes between {@code from} and {@code to}, as their
+     * start time and length in minutes. A null {@code to} stands for the end of the day.
+     * Slots with any of {@code ignoredTags} are treated as free time.
+     */
+    public List<Pair<LocalTime, Integer>> getFreePeriods(LocalTime from, LocalTime to, int duration,
+                                                         Set<String> ignoredTags) {
+        final int toMinute = to == null ? MINUTES_PER_DAY : toMinuteOfDay(to);
+        final BitSet minutes = occupiedIgnoring(ignoredTags);
+        final List<Pair<LocalTime, Integer>> free = new ArrayList<>();
+        int start = minutes.nextClearBit(toMinuteOfDay(from));
+        while (start < toMinute) {
+            int end = minutes.nextSetBit(start);
+            if (end == -1 || end > toMinute) {
+                end = toMinute;
+            }
+            if (end - start >= duration) {
+                free.add(new Pair<>(LocalTime.of(start / 60, start % 60), end - start));
+            }
+            start = minutes.nextClearBit(end);
+        }
+        return free;
+    }
+
+    /**
+     * Returns the minutes of the day taken up by the slots without any of {@code ignoredTags}.
+     * The occupied minutes kept for all slots are returned as they are if no slot is left out.
+     */
+    private BitSet occupiedIgnoring(Set<String> ignoredTags) {
+        if (ignoredTags.isEmpty()) {
+            return occupied;
+        }
+        final BitSet minutes = new BitSet(MINUTES_PER_DAY);
+        boolean isAnyIgnored = false;
+        for (Slot slot : slots) {
+            if (Collections.disjoint(slot.getTags(), ignoredTags)) {
+                occupy(minutes, slot);
+            } else {
+                isAnyIgnored = true;
+            }
+        }
+        return isAnyIgnored ? minutes : occupied;
+    }
+
+    /**
+     * Returns the first slot which starts after {@code time}, or null if there is none.
+     */
+    public Slot nextSlotAfter(LocalTime time) {
+        final int index = indexAfter(toMinuteOfDay(time));
+        return index < slots.size() ? slots.get(index) : null;
+    }
+
+    /**
+     * Inserts {@code slot} after the slots which start at the same time or earlier.
+     */
+    private void insert(Slot slot) {
+        slots.add(indexAfter(toMinuteOfDay(slot.getStartTime())), slot);
+        maxDuration = Math.max(maxDuration, slot.getDuration());
+        occupy(occupied, slot);
+    }
+
+    /**
+     * Returns the index of the first slot which starts after {@code minute}, found by binary search.
+     */
+    private int indexAfter(int minute) {
+        int low = 0;
+        int high = slots.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (toMinuteOfDay(slots.get(middle).getStartTime()) <= minute) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Recomputes the longest duration and the occupied minutes from the slots, after a slot was removed or changed.
+     */
+    private void recompute() {
+        maxDuration = 0;
+        occupied.clear();
+        for (Slot slot : slots) {
+            maxDuration = Math.max(maxDuration, slot.getDuration());
+            occupy(occupied, slot);
+        }
+    }
+
+    /**
+     * Marks the minutes of the day taken up by {@code slot} in {@code minutes}.
+     * Time after midnight is left out, as it belongs to the next day.
+     */
+    private static void occupy(BitSet minutes, ReadOnlySlot slot) {
+        final int start = toMinuteOfDay(slot.getStartTime());
+        final int end = Math.min(start + slot.getDuration(), MINUTES_PER_DAY);
+        if (start < end) {
+            minutes.set(start, end);
+        }
+    }
+
+    private static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
     }
 
     public boolean contains(ReadOnlySlot slot) {
-        return slots.contains(slot);
+        return find(slot) != null;
     }
 
     @Override
@@ -82,6 +354,9 @@ public class Day implements ReadOnlyDay {
         return type;
     }
 
+    /**
+     * Returns the slots of this day in order of start time. The list must not be modified.
+     */
     @Override
     public ArrayList<Slot> getSlots() {
         return slots;
@@ -2,6 +2,7 @@ package planmysem.model.semester;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -11,8 +12,8 @@ import java.util.Set;
 public interface ReadOnlySemester {
     String getName();
     String getAcademicYear();
-    HashMap<LocalDate, Day> getDays();
-    void setDays(HashMap<LocalDate, Day> days);
+    Map<LocalDate, Day> getDays();
+    void setDays(Map<LocalDate, Day> days);
     LocalDate getStartDate();
     LocalDate getEndDate();
     int getNoOfWeeks();
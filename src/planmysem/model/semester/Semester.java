@@ -5,23 +5,42 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.Month;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.WeekFields;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import javafx.util.Pair;
 import planmysem.common.Clock;
+import planmysem.model.recurrence.SlotSeries;
 import planmysem.model.slot.ReadOnlySlot;
 import planmysem.model.slot.Slot;
+import planmysem.model.slot.SlotPool;
 
 /**
  * Wraps all data of an academic semester.
+ * The days of a semester are a contiguous range of dates, so they are kept in an array indexed by the number of days
+ * since the start date. {@link #getDays()} is a view of this array which iterates in date order.
+ * Copies of a semester share its days until either of them changes a day, which is then copied first. Copying a
+ * semester therefore only copies the array, and the indexes of slots of the copy are built when first needed.
  */
 public class Semester implements ReadOnlySemester {
     private static HashMap<Integer, String> acadCal = new HashMap<>();
@@ -29,7 +48,9 @@ public class Semester implements ReadOnlySemester {
     // These variables hold the necessary details of a semester.
     private final String name;
     private final String academicYear;
-    private final HashMap<LocalDate, Day> days = new HashMap<>();
+    private final Day[] days; // the day on startDate + i is at index i, or null if it is not read or not held
+    private final Map<LocalDate, Day> dayView = new DayView();
+    private int dayCount;
     private final LocalDate startDate;
     private final LocalDate endDate;
     private final int noOfWeeks;
@@ -40,28 +61,58 @@ public class Semester implements ReadOnlySemester {
     private final Set<LocalDate> normalDays = new HashSet<>();
     private final Set<LocalDate> examDays = new HashSet<>();
 
+    // These variables track the days which changed since the semester was last saved.
+    private final Set<LocalDate> dirtyDates = new HashSet<>();
+    private int modificationCount;
+
+    // These variables track the weeks whose days have not been read from storage yet, by their first date.
+    private final Set<LocalDate> unloadedWeeks = new HashSet<>();
+    private WeekLoader weekLoader;
+
+    // Shares equal details of slots between all copies of this semester.
+    private final SlotPool slotPool;
+
+    // These variables find the slots with certain tags or names among the days read so far.
+    private final SlotIndex tagIndex = SlotIndex.byTags();
+    private final SlotIndex nameIndex = SlotIndex.byName();
+    private final SlotIdIndex idIndex = new SlotIdIndex();
+    private final SeriesIndex seriesIndex = new SeriesIndex();
+    private boolean isIndexed = true; // false while the indexes have not been built from the days of a copy
+
+    // These variables track the days which may be held by other copies of this semester, so are copied when changed.
+    private final BitSet sharedDays = new BitSet();
+
     /**
      * Constructs a Semester from given details of a semester.
+     * All days of a newly constructed Semester are considered changed.
      */
-    public Semester(String name, String academicYear, HashMap<LocalDate, Day> days, LocalDate startDate,
+    public Semester(String name, String academicYear, Map<LocalDate, Day> days, LocalDate startDate,
                     LocalDate endDate, int noOfWeeks, Set<LocalDate> recessDays, Set<LocalDate> readingDays,
                     Set<LocalDate> normalDays, Set<LocalDate> examDays) {
 
         this.name = name;
         this.academicYear = academicYear;
-        this.days.putAll(days);
         this.startDate = startDate;
         this.endDate = endDate;
         this.noOfWeeks = noOfWeeks;
+        this.days = new Day[(int) (endDate.toEpochDay() - startDate.toEpochDay() + 1)];
+        for (Map.Entry<LocalDate, Day> entry : days.entrySet()) {
+            putDay(entry.getKey(), entry.getValue());
+        }
 
         this.recessDays.addAll(recessDays);
         this.readingDays.addAll(readingDays);
         this.normalDays.addAll(normalDays);
         this.examDays.addAll(examDays);
+
+        this.slotPool = new SlotPool();
+        internSlots(dayView.values());
+        markDirty(dayView.keySet());
     }
 
     /**
-     * Constructs a shallow copy of a given Semester or generate a new Semester.
+     * Constructs a copy of a given Semester or generate a new Semester.
+     * The copy shares the days of {@code source} until either semester changes them.
      */
     public Semester(Semester source) {
 
@@ -78,7 +129,8 @@ public class Semester implements ReadOnlySemester {
 
         this.name = semester.getName();
         this.academicYear = semester.getAcademicYear();
-        this.days.putAll(semester.days);
+        this.days = semester.days.clone();
+        this.dayCount = semester.dayCount;
         this.startDate = semester.startDate;
         this.endDate = semester.endDate;
         this.noOfWeeks = semester.noOfWeeks;
@@ -87,6 +139,18 @@ public class Semester implements ReadOnlySemester {
         this.readingDays.addAll(semester.readingDays);
         this.normalDays.addAll(semester.normalDays);
         this.examDays.addAll(semester.examDays);
+        this.unloadedWeeks.addAll(semester.unloadedWeeks);
+        this.weekLoader = semester.weekLoader;
+        this.slotPool = semester.slotPool;
+
+        for (int i = 0; i < days.length; i++) {
+            if (days[i] != null) {
+                sharedDays.set(i);
+                semester.sharedDays.set(i);
+            }
+        }
+        isIndexed = false;
+        markDirty(dayView.keySet());
     }
 
     /**
@@ -331,30 +395,103 @@ public class Semester implements ReadOnlySemester {
 
     /**
      * Adds a Slot to the Semester.
+     * If {@code slot} has no id, or the id of a slot already in the semester, it is given a new id first.
+     * An occurrence of a series joins its series, sharing an equivalent occurrence if there is one.
      *
      * @throws DateNotFoundException if a date is not found in the semester.
      */
     public Day addSlot(LocalDate date, Slot slot) throws DateNotFoundException {
+        checkDate(date);
+        ensureIndexed();
+        final Day day = getMutableDay(date);
+        if (slot.isOccurrence()) {
+            day.addInstance(seriesIndex.intern(slotPool.intern(new Slot(slot))));
+        } else {
+            if (slot.getId() == Slot.NO_ID || idIndex.contains(slot.getId()) || seriesIndex.contains(slot.getId())) {
+                slot.setId(newId());
+            }
+            day.addSlot(slotPool.intern(slot));
+        }
+        markDirty(date);
+        indexDay(date, day);
+        return day;
+    }
+
+    /**
+     * Adds a new series of slots like {@code slot} on each of {@code dates} and returns the definition of the
+     * series. The definition is shared by all days of the series instead of being copied into each day.
+     *
+     * @throws DateNotFoundException if any of the dates is not found in the semester, in which case nothing is added.
+     */
+    public Slot addSlotSeries(Collection<LocalDate> dates, Slot slot) throws DateNotFoundException {
+        for (LocalDate date : dates) {
+            checkDate(date);
+        }
+        final Slot definition = slotPool.intern(new Slot(slot));
+        definition.setSeriesId(newId());
+        for (LocalDate date : dates) {
+            final Day day = getMutableDay(date);
+            day.addInstance(definition);
+            markDirty(date);
+            indexDay(date, day);
+        }
+        return definition;
+    }
+
+    /**
+     * Returns the series with the given id, or null if the semester has no occurrence of it.
+     */
+    public SlotSeries getSeries(long seriesId) {
+        loadAllWeeks();
+        ensureIndexed();
+        final NavigableMap<LocalDate, Slot> occurrences = seriesIndex.getOccurrences(seriesId);
+        return occurrences == null ? null : new SlotSeries(seriesId, occurrences);
+    }
+
+    /**
+     * Throws a DateNotFoundException if {@code date} is not part of the semester.
+     */
+    private void checkDate(LocalDate date) throws DateNotFoundException {
         if (date == null || (date.isBefore(startDate) || date.isAfter(endDate))) {
             throw new DateNotFoundException();
         }
-        days.get(date).addSlot(slot);
-        return days.get(date);
     }
 
     /**
-     * Edits a Slot in the Semester.
+     * Returns a new id, which is not the id of any slot or series of the semester read so far.
      */
-    public void editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date, LocalTime startTime,
-                         int duration, String name, String location, String description, Set<String> tags) {
-        Slot editingSlot = days.get(targetDate).getSlots().stream()
-            .filter(s -> s.equals(targetSlot)).findAny().orElse(null);
+    private long newId() {
+        ensureIndexed();
+        long id;
+        do {
+            id = idIndex.newId();
+        } while (seriesIndex.contains(id));
+        return id;
+    }
 
+    /**
+     * Edits a Slot in the Semester and returns the edited Slot.
+     * Occurrences of a series are shared between days, so an occurrence is replaced by an edited copy instead.
+     * The copy stays part of the series, unless it is moved to another date.
+     */
+    public Slot editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date, LocalTime startTime,
+                         int duration, String name, String location, String description, Set<String> tags) {
+        // a shared day is copied first, as the slot may be edited in place
+        final Day targetDay = getMutableDay(targetDate);
+        Slot editingSlot = findSlot(targetDate, targetSlot);
+        final boolean isReplaced = date != null || editingSlot.isOccurrence();
+
+        markDirty(targetDate);
+        if (isReplaced) {
+            targetDay.removeInstance(editingSlot);
+            editingSlot = new Slot(editingSlot);
+        }
         if (date != null) {
-            Slot savedSlot = new Slot(editingSlot);
-            days.get(date).addSlot(savedSlot);
-            days.get(targetDate).removeSlot(editingSlot);
-            editingSlot = savedSlot;
+            markDirty(date);
+            if (editingSlot.isOccurrence()) {
+                editingSlot.setSeriesId(Slot.NO_ID);
+                editingSlot.setId(newId());
+            }
         }
         if (startTime != null) {
             editingSlot.setStartTime(startTime);
@@ -369,6 +506,81 @@ public class Semester implements ReadOnlySemester {
         if (tags.size() > 0) {
             editingSlot.setTags(tags);
         }
+        slotPool.intern(editingSlot);
+        if (editingSlot.isOccurrence()) {
+            // occurrences edited alike, e.g. all lectures of a series, keep sharing a single copy
+            editingSlot = seriesIndex.intern(editingSlot);
+        }
+
+        // keep the slots of the day ordered by start time
+        if (date != null) {
+            final Day day = getMutableDay(date);
+            day.addInstance(editingSlot);
+            indexDay(date, day);
+        } else if (isReplaced) {
+            targetDay.addInstance(editingSlot);
+        } else {
+            targetDay.reposition(editingSlot);
+        }
+        indexDay(targetDate, targetDay);
+        return editingSlot;
+    }
+
+    /**
+     * Passes every slot of the semester to {@code visitor} with its date and day, in date order and then in order of
+     * start time, reading the weeks which have not been read yet. Nothing is allocated for each slot.
+     */
+    public void forEachSlot(SlotVisitor visitor) {
+        loadAllWeeks();
+        visitSlots(0, days.length - 1, visitor);
+    }
+
+    /**
+     * Passes the slots from {@code from} to {@code to}, both inclusive, to {@code visitor} like
+     * {@link #forEachSlot(SlotVisitor)}. Only the weeks of the range are read, and dates outside of the semester are
+     * left out.
+     */
+    public void forEachSlot(LocalDate from, LocalDate to, SlotVisitor visitor) {
+        final int first = (int) Math.max(0, from.toEpochDay() - startDate.toEpochDay());
+        final int last = (int) Math.min(days.length - 1, to.toEpochDay() - startDate.toEpochDay());
+        for (int i = first; i <= last; i++) {
+            if (i == first || i % 7 == 0) {
+                loadWeek(startDate.plusDays(i));
+            }
+        }
+        visitSlots(first, last, visitor);
+    }
+
+    /**
+     * Returns the slots from {@code from} to {@code to}, both inclusive, which satisfy {@code predicate}, in date
+     * order and then in order of start time. Only the days of the range are scanned and only their weeks are read.
+     */
+    public List<SlotRef> getSlots(LocalDate from, LocalDate to, Predicate<? super ReadOnlySlot> predicate) {
+        final List<SlotRef> selectedSlots = new ArrayList<>();
+        forEachSlot(from, to, (date, day, slot) -> {
+            if (predicate.test(slot)) {
+                selectedSlots.add(new SlotRef(date, day, slot));
+            }
+        });
+        return selectedSlots;
+    }
+
+    /**
+     * Passes the slots of the days from index {@code first} to index {@code last} of {@link #days} to
+     * {@code visitor}. The days are expected to be read already.
+     */
+    private void visitSlots(int first, int last, SlotVisitor visitor) {
+        for (int i = first; i <= last; i++) {
+            final Day day = days[i];
+            if (day == null || day.getSlots().isEmpty()) {
+                continue;
+            }
+            final LocalDate date = startDate.plusDays(i);
+            final List<Slot> slots = day.getSlots();
+            for (int j = 0; j < slots.size(); j++) {
+                visitor.visit(date, day, slots.get(j));
+            }
+        }
     }
 
     /**
@@ -377,52 +589,275 @@ public class Semester implements ReadOnlySemester {
     public Map<LocalDateTime, ReadOnlySlot> getSlots(Set<String> tags) {
         Map<LocalDateTime, ReadOnlySlot> selectedSlots = new TreeMap<>();
 
-        for (Map.Entry<LocalDate, Day> day : days.entrySet()) {
-            for (Slot slot : day.getValue().getSlots()) {
-                if (slot.getTags().containsAll(tags)) {
-                    selectedSlots.put(LocalDateTime.of(day.getKey(), slot.getStartTime()), slot);
+        for (Pair<LocalDate, Slot> entry : getTaggedSlots(tags)) {
+            selectedSlots.put(LocalDateTime.of(entry.getKey(), entry.getValue().getStartTime()), entry.getValue());
+        }
+
+        return selectedSlots;
+    }
+
+    /**
+     * Returns the slots which contain all specified tags with their dates, in date order and then in order of
+     * start time. Slots are looked up in the tag index instead of scanning every day.
+     */
+    public List<Pair<LocalDate, Slot>> getTaggedSlots(Set<String> tags) {
+        loadAllWeeks();
+        if (tags.isEmpty()) {
+            List<Pair<LocalDate, Slot>> selectedSlots = new ArrayList<>();
+            for (Map.Entry<LocalDate, Day> day : dayView.entrySet()) {
+                for (Slot slot : day.getValue().getSlots()) {
+                    selectedSlots.add(new Pair<>(day.getKey(), slot));
                 }
             }
+            return selectedSlots;
         }
+        ensureIndexed();
+        return tagIndex.getSlots(tags, slot -> slot.getTags().containsAll(tags));
+    }
 
-        return selectedSlots;
+    /**
+     * Returns the slots with a tag equal to {@code tag}, ignoring case, with their dates, in date order and then
+     * in order of start time.
+     */
+    public List<Pair<LocalDate, Slot>> getSlotsWithTagIgnoreCase(String tag) {
+        loadAllWeeks();
+        ensureIndexed();
+        return tagIndex.getSlots(Collections.singleton(tag),
+                slot -> slot.getTags().stream().anyMatch(tag::equalsIgnoreCase));
+    }
+
+    /**
+     * Returns the slots named {@code name}, ignoring case, with their dates, in date order and then in order of
+     * start time. Slots are looked up in the name index instead of scanning every day.
+     */
+    public List<Pair<LocalDate, Slot>> getSlotsWithNameIgnoreCase(String name) {
+        loadAllWeeks();
+        ensureIndexed();
+        return nameIndex.getSlots(Collections.singleton(name), slot -> name.equalsIgnoreCase(slot.getName()));
+    }
+
+    /**
+     * Returns the slot with the given id together with its date, or null if the semester has no such slot.
+     * The first occurrence is returned for the id of a series.
+     */
+    public Pair<LocalDate, Slot> getSlot(long id) {
+        Pair<LocalDate, Slot> slot = findSlot(id);
+        if (slot == null && !unloadedWeeks.isEmpty()) {
+            loadAllWeeks();
+            slot = findSlot(id);
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot with the given id among the days read so far, or null if there is none.
+     */
+    private Pair<LocalDate, Slot> findSlot(long id) {
+        ensureIndexed();
+        final Pair<LocalDate, Slot> slot = idIndex.get(id);
+        if (slot != null) {
+            return slot;
+        }
+        final NavigableMap<LocalDate, Slot> occurrences = seriesIndex.getOccurrences(id);
+        if (occurrences == null) {
+            return null;
+        }
+        final Map.Entry<LocalDate, Slot> first = occurrences.firstEntry();
+        return new Pair<>(first.getKey(), first.getValue());
+    }
+
+    /**
+     * Returns the slot on {@code date} equivalent to {@code slot}, or null if there is none.
+     * A slot of the planner, or a copy of one, is found in O(1) through its id or series. Other slots, and slots
+     * which were changed since they were copied, are compared with the slots of the day starting at the same time.
+     */
+    private Slot findSlot(LocalDate date, ReadOnlySlot slot) {
+        final Day day = getDay(date);
+        if (day == null) {
+            return null;
+        }
+        ensureIndexed();
+        if (slot instanceof Slot && ((Slot) slot).getId() != Slot.NO_ID) {
+            final Slot indexed;
+            if (((Slot) slot).isOccurrence()) {
+                indexed = seriesIndex.get(((Slot) slot).getSeriesId(), date);
+            } else {
+                final Pair<LocalDate, Slot> entry = idIndex.get(((Slot) slot).getId());
+                indexed = entry != null && entry.getKey().equals(date) ? entry.getValue() : null;
+            }
+            if (indexed != null && indexed.equals(slot)) {
+                return indexed;
+            }
+        }
+        return day.find(slot);
     }
 
     /**
      * Removes a Slot to the Semester.
      */
     public void removeSlot(LocalDate date, ReadOnlySlot slot) {
-        days.get(date).removeSlot(slot);
+        final Day day = getMutableDay(date);
+        final Slot removing = findSlot(date, slot);
+        if (removing != null) {
+            day.removeInstance(removing);
+        }
+        markDirty(date);
+        indexDay(date, day);
     }
 
     /**
      * Clears all Days from the address book.
      */
     public void clearSlots() {
-        for (Map.Entry<LocalDate, Day> day : days.entrySet()) {
-            day.getValue().clear();
+        for (Map.Entry<LocalDate, Day> day : getDays().entrySet()) {
+            if (!day.getValue().getSlots().isEmpty()) {
+                // a shared day is replaced by an empty day instead of being copied to be cleared
+                final Day cleared = new Day(day.getValue().getDayOfWeek(), day.getValue().getType());
+                putDay(day.getKey(), cleared);
+                markDirty(day.getKey());
+            }
         }
+        modificationCount++;
+    }
+
+    /**
+     * Marks the day on {@code date} as changed.
+     */
+    private void markDirty(LocalDate date) {
+        dirtyDates.add(date);
+        modificationCount++;
+    }
+
+    /**
+     * Marks the days on the given dates as changed.
+     */
+    public void markDirty(Collection<LocalDate> dates) {
+        dirtyDates.addAll(dates);
+        modificationCount++;
+    }
+
+    /**
+     * Returns the dates of the days which changed since {@link #clearDirtyDates()} was last called.
+     */
+    public Set<LocalDate> getDirtyDates() {
+        return Collections.unmodifiableSet(dirtyDates);
+    }
+
+    /**
+     * Marks every day as unchanged, e.g. after the semester has been saved.
+     */
+    public void clearDirtyDates() {
+        dirtyDates.clear();
+    }
+
+    /**
+     * Returns the number of changes made to the semester so far.
+     * Two calls returning the same value mean that the semester did not change in between.
+     */
+    public int getModificationCount() {
+        return modificationCount;
     }
 
     /**
      * Checks if the list contains an equivalent slot as the given argument.
      */
     public boolean contains(LocalDate date, ReadOnlySlot slot) {
-        return days.get(date).contains(slot);
+        return findSlot(date, slot) != null;
     }
 
     /**
      * Checks if the list contains an equivalent Day as the given argument.
      */
     public boolean contains(ReadOnlyDay day) {
-        return days.containsValue(day);
+        return getDays().containsValue(day);
     }
 
     /**
      * Checks if the list contains an equivalent date as the given argument.
      */
     public boolean contains(LocalDate date) {
-        return days.containsKey(date);
+        loadWeek(date);
+        return dayView.containsKey(date);
+    }
+
+    /**
+     * Leaves out the days of the weeks starting on {@code weekStarts} until they are first accessed,
+     * when {@code loader} reads them.
+     */
+    public void setUnloadedWeeks(Collection<LocalDate> weekStarts, WeekLoader loader) {
+        unloadedWeeks.clear();
+        unloadedWeeks.addAll(weekStarts);
+        weekLoader = loader;
+    }
+
+    /**
+     * Returns the first dates of the weeks whose days have not been read yet.
+     */
+    public Set<LocalDate> getUnloadedWeeks() {
+        return Collections.unmodifiableSet(unloadedWeeks);
+    }
+
+    /**
+     * Returns the loader which reads the weeks left out of this semester, or null if there is none.
+     */
+    public WeekLoader getWeekLoader() {
+        return weekLoader;
+    }
+
+    /**
+     * Returns the first date of the academic week containing {@code date}.
+     * Academic weeks start on the start date of the semester.
+     */
+    public LocalDate getWeekStart(LocalDate date) {
+        return startDate.plusWeeks(Math.floorDiv(ChronoUnit.DAYS.between(startDate, date), 7));
+    }
+
+    /**
+     * Reads the days of the week containing {@code date}, if they have not been read yet.
+     */
+    private void loadWeek(LocalDate date) {
+        if (unloadedWeeks.isEmpty()) {
+            return;
+        }
+        final LocalDate weekStart = getWeekStart(date);
+        if (unloadedWeeks.contains(weekStart)) {
+            final Map<LocalDate, Day> week = weekLoader.loadWeek(weekStart);
+            internSlots(week.values());
+            for (Map.Entry<LocalDate, Day> entry : week.entrySet()) {
+                if (putDay(entry.getKey(), entry.getValue())) {
+                    // slots read from older files are given ids, which have to be saved
+                    markDirty(entry.getKey());
+                }
+            }
+            unloadedWeeks.remove(weekStart);
+        }
+    }
+
+    /**
+     * Replaces the details of the slots of {@code days} with their canonical instances.
+     */
+    private void internSlots(Collection<Day> days) {
+        for (Day day : days) {
+            for (Slot slot : day.getSlots()) {
+                slotPool.intern(slot);
+            }
+        }
+    }
+
+    /**
+     * Returns the pool which holds the canonical details of the slots of this semester.
+     */
+    public SlotPool getSlotPool() {
+        return slotPool;
+    }
+
+    /**
+     * Reads the days of all weeks which have not been read yet.
+     */
+    private void loadAllWeeks() {
+        for (LocalDate weekStart : new ArrayList<>(unloadedWeeks)) {
+            loadWeek(weekStart);
+        }
     }
 
     @Override
@@ -441,17 +876,187 @@ public class Semester implements ReadOnlySemester {
     }
 
     @Override
-    public void setDays(HashMap<LocalDate, Day> days) {
-        this.days.clear();
+    public void setDays(Map<LocalDate, Day> days) {
+        clearDays();
+        unloadedWeeks.clear();
+        weekLoader = null;
 
         for (Map.Entry<LocalDate, Day> entry : days.entrySet()) {
-            this.days.put(entry.getKey(), new Day(entry.getValue()));
+            putDay(entry.getKey(), new Day(entry.getValue()));
+        }
+        internSlots(dayView.values());
+        markDirty(dayView.keySet());
+    }
+
+    /**
+     * Replaces the day on {@code date}, which has to be part of the semester, with {@code day}.
+     */
+    public void setDay(LocalDate date, Day day) {
+        loadWeek(date);
+        internSlots(Collections.singletonList(day));
+        putDay(date, day);
+        markDirty(date);
+    }
+
+    /**
+     * Replaces the days of this semester with the days of {@code source}, which are shared until either semester
+     * changes them. Weeks which {@code source} has not read yet are not read, but left out of this semester as well.
+     */
+    public void setDays(Semester source) {
+        if (source == this) {
+            return;
+        }
+        clearDays();
+
+        // the days hold the canonical details of the pool of the source already, so they are not interned again
+        for (Map.Entry<LocalDate, Day> entry : source.dayView.entrySet()) {
+            final int index = indexOf(entry.getKey());
+            if (index >= 0) {
+                days[index] = entry.getValue();
+                dayCount++;
+                sharedDays.set(index);
+                source.sharedDays.set(source.indexOf(entry.getKey()));
+            }
         }
+        isIndexed = false;
+        setUnloadedWeeks(source.unloadedWeeks, source.weekLoader);
+        markDirty(dayView.keySet());
     }
 
+    /**
+     * Returns all days of the semester in date order, reading the weeks which have not been read yet.
+     * The returned map is a view which cannot be modified directly, but reflects later changes to the semester.
+     */
     @Override
-    public HashMap<LocalDate, Day> getDays() {
-        return days;
+    public Map<LocalDate, Day> getDays() {
+        loadAllWeeks();
+        return dayView;
+    }
+
+    /**
+     * Returns the days which have been read so far in date order, without reading the other weeks.
+     */
+    public Map<LocalDate, Day> getLoadedDays() {
+        return dayView;
+    }
+
+    /**
+     * Returns the day on {@code date}, reading its week if it has not been read yet.
+     * The day is not to be changed but through the semester.
+     */
+    public Day getDay(LocalDate date) {
+        loadWeek(date);
+        return getLoadedDay(date);
+    }
+
+    /**
+     * Returns the day on {@code date} as it is now, or null if the date is not part of the semester.
+     * The day is shared instead of copied: the semester copies it before changing it, so the returned day stays as
+     * it is as long as it is not changed directly.
+     */
+    public Day getDaySnapshot(LocalDate date) {
+        final Day day = getDay(date);
+        if (day != null) {
+            sharedDays.set(indexOf(date));
+        }
+        return day;
+    }
+
+    /**
+     * Returns the day on {@code date} to be changed, reading its week if it has not been read yet.
+     * A day shared with another copy of the semester is replaced by a copy of its own first.
+     */
+    private Day getMutableDay(LocalDate date) {
+        final Day day = getDay(date);
+        if (day == null || !sharedDays.get(indexOf(date))) {
+            return day;
+        }
+        final Day copy = new Day(day);
+        putDay(date, copy);
+        return copy;
+    }
+
+    /**
+     * Returns the index of {@code date} in {@link #days}, or -1 if the date is not part of the semester.
+     */
+    private int indexOf(LocalDate date) {
+        final long index = date.toEpochDay() - startDate.toEpochDay();
+        return index >= 0 && index < days.length ? (int) index : -1;
+    }
+
+    /**
+     * Returns the day on {@code date} if it has been read, without reading its week.
+     */
+    private Day getLoadedDay(LocalDate date) {
+        final int index = date == null ? -1 : indexOf(date);
+        return index < 0 ? null : days[index];
+    }
+
+    /**
+     * Puts {@code day} on {@code date}. Days outside of the semester are left out.
+     *
+     * @return true if any slot of the day was given a new id
+     */
+    private boolean putDay(LocalDate date, Day day) {
+        final int index = indexOf(date);
+        if (index < 0) {
+            return false;
+        }
+        if (days[index] == null) {
+            dayCount++;
+        }
+        days[index] = day;
+        sharedDays.clear(index);
+        return indexDay(date, day);
+    }
+
+    /**
+     * Updates the indexes of slots with the slots of {@code day} on {@code date}, after the day was changed.
+     * Slots of the day without an id are given one.
+     *
+     * @return true if any slot of the day was given a new id
+     */
+    private boolean indexDay(LocalDate date, Day day) {
+        if (!isIndexed) {
+            // the day is indexed with all other days when the indexes are built
+            return false;
+        }
+        // shares the occurrences of series first, so that the other indexes hold the shared occurrences
+        seriesIndex.indexDay(date, day);
+        tagIndex.indexDay(date, day);
+        nameIndex.indexDay(date, day);
+        return idIndex.indexDay(date, day);
+    }
+
+    /**
+     * Builds the indexes of slots from the days read so far, if they have not been built since the days of another
+     * semester were shared. Slots of the days without an id are given one, which has to be saved.
+     * The days of the other semester were indexed by it already, so indexing them does not change them otherwise.
+     */
+    private void ensureIndexed() {
+        if (isIndexed) {
+            return;
+        }
+        isIndexed = true;
+        for (Map.Entry<LocalDate, Day> entry : dayView.entrySet()) {
+            if (indexDay(entry.getKey(), entry.getValue())) {
+                markDirty(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Removes all days from the semester.
+     */
+    private void clearDays() {
+        Arrays.fill(days, null);
+        sharedDays.clear();
+        isIndexed = true;
+        dayCount = 0;
+        tagIndex.clear();
+        nameIndex.clear();
+        idIndex.clear();
+        seriesIndex.clear();
     }
 
     @Override
@@ -495,7 +1100,7 @@ public class Semester implements ReadOnlySemester {
                 || (other instanceof Semester // instanceof handles nulls
                 && this.name.equals(((Semester) other).name)
                 && this.academicYear.equals(((Semester) other).academicYear)
-                && this.days.equals(((Semester) other).days)
+                && this.getDays().equals(((Semester) other).getDays())
                 && this.startDate.equals(((Semester) other).startDate)
                 && this.endDate.equals(((Semester) other).endDate)
                 && this.noOfWeeks == (((Semester) other).noOfWeeks)
@@ -507,10 +1112,73 @@ public class Semester implements ReadOnlySemester {
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, academicYear, days, startDate, endDate, noOfWeeks,
+        return Objects.hash(name, academicYear, getDays(), startDate, endDate, noOfWeeks,
                 recessDays, readingDays, normalDays, examDays);
     }
 
+    /**
+     * Read-only view of {@link #days} as a map from dates to days, iterating in date order.
+     */
+    private class DayView extends AbstractMap<LocalDate, Day> {
+        @Override
+        public int size() {
+            return dayCount;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof LocalDate && getLoadedDay((LocalDate) key) != null;
+        }
+
+        @Override
+        public Day get(Object key) {
+            return key instanceof LocalDate ? getLoadedDay((LocalDate) key) : null;
+        }
+
+        @Override
+        public Set<Map.Entry<LocalDate, Day>> entrySet() {
+            return new AbstractSet<Map.Entry<LocalDate, Day>>() {
+                @Override
+                public int size() {
+                    return dayCount;
+                }
+
+                @Override
+                public Iterator<Map.Entry<LocalDate, Day>> iterator() {
+                    return new Iterator<Map.Entry<LocalDate, Day>>() {
+                        private int next = findNext(0);
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < days.length;
+                        }
+
+                        @Override
+                        public Map.Entry<LocalDate, Day> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final Map.Entry<LocalDate, Day> entry =
+                                    new AbstractMap.SimpleImmutableEntry<>(startDate.plusDays(next), days[next]);
+                            next = findNext(next + 1);
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+
+        /**
+         * Returns the first index from {@code index} onwards which holds a day.
+         */
+        private int findNext(int index) {
+            while (index < days.length && days[index] == null) {
+                index++;
+            }
+            return index;
+        }
+    }
+
     /**
      * Signals that an operation targeting a specified Day in the list would fail because
      * there is no such matching Day in the list.
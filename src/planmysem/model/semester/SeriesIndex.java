@@ -0,0 +1,119 @@
+package planmysem.model.semester;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import planmysem.model.slot.Slot;
+
+/**
+ * Index from the ids of series to their occurrences on each date. Like the other indexes of slots, it is updated
+ * a whole day at a time. Equivalent occurrences of a series are shared: days read separately, or restored from the
+ * history, are made to hold the same instance as the days already indexed.
+ */
+class SeriesIndex {
+    private final Map<Long, NavigableMap<LocalDate, Slot>> occurrences = new HashMap<>();
+    private final Map<LocalDate, long[]> indexedSeries = new HashMap<>();
+
+    /**
+     * Replaces the occurrences indexed on {@code date} with the occurrences in {@code day}, which may be null.
+     */
+    void indexDay(LocalDate date, Day day) {
+        removeDay(date);
+        if (day == null) {
+            return;
+        }
+
+        final List<Slot> slots = day.getSlots();
+        final List<Long> series = new ArrayList<>();
+        for (int i = 0; i < slots.size(); i++) {
+            final Slot slot = slots.get(i);
+            if (!slot.isOccurrence()) {
+                continue;
+            }
+            final Slot shared = intern(slot);
+            if (shared != slot) {
+                day.share(i, shared);
+            }
+            occurrences.computeIfAbsent(shared.getSeriesId(), id -> new TreeMap<>()).put(date, shared);
+            series.add(shared.getSeriesId());
+        }
+        if (!series.isEmpty()) {
+            indexedSeries.put(date, series.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+
+    /**
+     * Removes the occurrences indexed on {@code date}.
+     */
+    private void removeDay(LocalDate date) {
+        final long[] series = indexedSeries.remove(date);
+        if (series == null) {
+            return;
+        }
+        for (long id : series) {
+            final NavigableMap<LocalDate, Slot> dates = occurrences.get(id);
+            if (dates != null) {
+                dates.remove(date);
+                if (dates.isEmpty()) {
+                    occurrences.remove(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all occurrences from the index.
+     */
+    void clear() {
+        occurrences.clear();
+        indexedSeries.clear();
+    }
+
+    /**
+     * Returns the indexed occurrence of the same series equivalent to {@code occurrence}, or {@code occurrence}
+     * itself if there is none. A series rarely holds more than a few distinct occurrences, so they are compared
+     * one by one.
+     */
+    Slot intern(Slot occurrence) {
+        final NavigableMap<LocalDate, Slot> dates = occurrences.get(occurrence.getSeriesId());
+        if (dates == null) {
+            return occurrence;
+        }
+        Slot previous = null;
+        for (Slot indexed : dates.values()) {
+            if (indexed != previous && indexed.equals(occurrence)) {
+                return indexed;
+            }
+            previous = indexed;
+        }
+        return occurrence;
+    }
+
+    /**
+     * Returns the occurrence of the given series on {@code date}, or null if there is none.
+     */
+    Slot get(long seriesId, LocalDate date) {
+        final NavigableMap<LocalDate, Slot> dates = occurrences.get(seriesId);
+        return dates == null ? null : dates.get(date);
+    }
+
+    /**
+     * Returns the occurrences of the given series by date, or null if no occurrence of the series is indexed.
+     * The returned map must not be modified.
+     */
+    NavigableMap<LocalDate, Slot> getOccurrences(long seriesId) {
+        return occurrences.get(seriesId);
+    }
+
+    /**
+     * Returns true if an occurrence of the series with the given id is indexed.
+     */
+    boolean contains(long seriesId) {
+        return occurrences.containsKey(seriesId);
+    }
+}
@@ -0,0 +1,101 @@
+package planmysem.model.semester;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javafx.util.Pair;
+import planmysem.model.slot.Slot;
+
+/**
+ * Index from the ids of slots to the slots and their dates, so that a slot of the planner is found without
+ * scanning its day. Like the other indexes of slots, it is updated a whole day at a time. Occurrences of series
+ * are left out, as they are shared between days and found through the {@link SeriesIndex} instead.
+ * Ids are drawn at random, so that they do not clash with the ids of slots in weeks which have not been read yet.
+ */
+class SlotIdIndex {
+    private final Map<Long, Pair<LocalDate, Slot>> slots = new HashMap<>();
+    private final Map<LocalDate, long[]> indexedIds = new HashMap<>();
+
+    /**
+     * Replaces the slots indexed on {@code date} with the slots of {@code day}, which may be null.
+     * Slots without an id are given a new one.
+     *
+     * @return true if any slot was given a new id
+     */
+    boolean indexDay(LocalDate date, Day day) {
+        removeDay(date);
+        if (day == null || day.getSlots().isEmpty()) {
+            return false;
+        }
+
+        boolean isAnyIdAssigned = false;
+        final long[] ids = new long[day.getSlots().size()];
+        int count = 0;
+        for (Slot slot : day.getSlots()) {
+            if (slot.isOccurrence()) {
+                continue;
+            }
+            if (slot.getId() == Slot.NO_ID) {
+                slot.setId(newId());
+                isAnyIdAssigned = true;
+            }
+            ids[count++] = slot.getId();
+            slots.put(slot.getId(), new Pair<>(date, slot));
+        }
+        indexedIds.put(date, Arrays.copyOf(ids, count));
+        return isAnyIdAssigned;
+    }
+
+    /**
+     * Removes the slots indexed on {@code date}.
+     * Ids which have been indexed on another date since, e.g. as their slot moved there, are kept.
+     */
+    private void removeDay(LocalDate date) {
+        final long[] ids = indexedIds.remove(date);
+        if (ids == null) {
+            return;
+        }
+        for (long id : ids) {
+            final Pair<LocalDate, Slot> entry = slots.get(id);
+            if (entry != null && entry.getKey().equals(date)) {
+                slots.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Removes all slots from the index.
+     */
+    void clear() {
+        slots.clear();
+        indexedIds.clear();
+    }
+
+    /**
+     * Returns the slot with the given id with its date, or null if no such slot is indexed.
+     */
+    Pair<LocalDate, Slot> get(long id) {
+        return slots.get(id);
+    }
+
+    /**
+     * Returns true if a slot with the given id is indexed.
+     */
+    boolean contains(long id) {
+        return slots.containsKey(id);
+    }
+
+    /**
+     * Returns an id which is not {@link Slot#NO_ID} and which no indexed slot has.
+     */
+    long newId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == Slot.NO_ID || slots.containsKey(id));
+        return id;
+    }
+}
@@ -0,0 +1,137 @@
+package planmysem.model.semester;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javafx.util.Pair;
+import planmysem.model.slot.Slot;
+
+/**
+ * Index from keys, such as tags or names, to the slots which have them, so that slots with certain keys are found
+ * without scanning every day. Keys are indexed in lower case, so the posting list of a key holds the slots with the
+ * key in any case. The index is updated a whole day at a time, whenever a day of the semester is changed.
+ */
+class SlotIndex {
+    // posting lists of each key in lower case, as the slots with the key on each date in order of start time
+    private final Map<String, NavigableMap<LocalDate, List<Slot>>> postings = new HashMap<>();
+    private final Map<String, Integer> postingSizes = new HashMap<>();
+    private final Map<LocalDate, Set<String>> indexedKeys = new HashMap<>();
+    private final Function<Slot, Collection<String>> keysOf;
+
+    /**
+     * Creates an index of slots by the keys returned by {@code keysOf}.
+     */
+    SlotIndex(Function<Slot, Collection<String>> keysOf) {
+        this.keysOf = keysOf;
+    }
+
+    /**
+     * Returns an index of slots by their tags.
+     */
+    static SlotIndex byTags() {
+        return new SlotIndex(Slot::getTags);
+    }
+
+    /**
+     * Returns an index of slots by their names.
+     */
+    static SlotIndex byName() {
+        return new SlotIndex(slot -> slot.getName() == null
+                ? Collections.emptySet() : Collections.singleton(slot.getName()));
+    }
+
+    /**
+     * Replaces the slots indexed on {@code date} with the slots of {@code day}, which may be null.
+     */
+    void indexDay(LocalDate date, Day day) {
+        removeDay(date);
+        if (day == null || day.getSlots().isEmpty()) {
+            return;
+        }
+
+        final Set<String> keys = new HashSet<>();
+        for (Slot slot : day.getSlots()) {
+            for (String value : keysOf.apply(slot)) {
+                final String key = value.toLowerCase();
+                final List<Slot> slots = postings.computeIfAbsent(key, k -> new TreeMap<>())
+                        .computeIfAbsent(date, d -> new ArrayList<>());
+                // a slot with the same key in different cases is only indexed once
+                if (slots.isEmpty() || slots.get(slots.size() - 1) != slot) {
+                    slots.add(slot);
+                    postingSizes.merge(key, 1, Integer::sum);
+                }
+                keys.add(key);
+            }
+        }
+        if (!keys.isEmpty()) {
+            indexedKeys.put(date, keys);
+        }
+    }
+
+    /**
+     * Removes the slots indexed on {@code date}.
+     */
+    private void removeDay(LocalDate date) {
+        final Set<String> keys = indexedKeys.remove(date);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            final NavigableMap<LocalDate, List<Slot>> posting = postings.get(key);
+            final int size = postingSizes.get(key) - posting.remove(date).size();
+            if (size == 0) {
+                postings.remove(key);
+                postingSizes.remove(key);
+            } else {
+                postingSizes.put(key, size);
+            }
+        }
+    }
+
+    /**
+     * Removes all slots from the index.
+     */
+    void clear() {
+        postings.clear();
+        postingSizes.clear();
+        indexedKeys.clear();
+    }
+
+    /**
+     * Returns the slots which have each of {@code keys} in some case and match {@code filter}, in date order
+     * and then in order of start time. {@code keys} must not be empty.
+     * Only the posting list of the key with the fewest slots is walked.
+     */
+    List<Pair<LocalDate, Slot>> getSlots(Set<String> keys, Predicate<Slot> filter) {
+        final List<Pair<LocalDate, Slot>> selectedSlots = new ArrayList<>();
+        final String rarestKey = keys.stream()
+                .map(String::toLowerCase)
+                .min(Comparator.comparingInt(key -> postingSizes.getOrDefault(key, 0)))
+                .orElseThrow(IllegalArgumentException::new);
+        final NavigableMap<LocalDate, List<Slot>> posting = postings.get(rarestKey);
+        if (posting == null) {
+            return selectedSlots;
+        }
+
+        for (Map.Entry<LocalDate, List<Slot>> entry : posting.entrySet()) {
+            for (Slot slot : entry.getValue()) {
+                if (filter.test(slot)) {
+                    selectedSlots.add(new Pair<>(entry.getKey(), slot));
+                }
+            }
+        }
+        return selectedSlots;
+    }
+}
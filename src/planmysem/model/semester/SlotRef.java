@@ -0,0 +1,57 @@
+package planmysem.model.semester;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import javafx.util.Pair;
+import planmysem.model.slot.ReadOnlySlot;
+import planmysem.model.slot.Slot;
+
+/**
+ * Refers to a slot of a Semester together with its date and day, e.g. as an element of a list of results.
+ * Unlike a pair of the date and a pair of the day and slot, it is a single object.
+ */
+public class SlotRef {
+    private final LocalDate date;
+    private final Day day;
+    private final Slot slot;
+
+    public SlotRef(LocalDate date, Day day, Slot slot) {
+        this.date = date;
+        this.day = day;
+        this.slot = slot;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Day getDay() {
+        return day;
+    }
+
+    public Slot getSlot() {
+        return slot;
+    }
+
+    /**
+     * Returns the date, day and slot as they are held by the lists of slots shown to the user.
+     */
+    public Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>> toPair() {
+        return new Pair<>(date, new Pair<>(day, slot));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this // short circuit if same object
+                || (other instanceof SlotRef // instanceof handles nulls
+                && date.equals(((SlotRef) other).date)
+                && day.equals(((SlotRef) other).day)
+                && slot.equals(((SlotRef) other).slot));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(date, day, slot);
+    }
+}
@@ -0,0 +1,18 @@
+package planmysem.model.semester;
+
+import java.time.LocalDate;
+
+import planmysem.model.slot.Slot;
+
+/**
+ * Visits the slots of a Semester one at a time.
+ * Each slot is passed together with its date and day, so that scanning the slots wraps none of them.
+ */
+@FunctionalInterface
+public interface SlotVisitor {
+
+    /**
+     * Visits {@code slot}, a slot of {@code day} on {@code date}. The semester is not to be changed meanwhile.
+     */
+    void visit(LocalDate date, Day day, Slot slot);
+}
@@ -0,0 +1,27 @@
+package planmysem.model.semester;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Loads the weeks of a Semester which were left out when the Semester was read from storage.
+ */
+public interface WeekLoader {
+
+    /**
+     * Returns new copies of the days of the week starting on {@code weekStart}, keyed by date.
+     * Every call returns the days as they were when the Semester was read, even if the week was saved since.
+     *
+     * @throws WeekLoadException if the week cannot be read.
+     */
+    Map<LocalDate, Day> loadWeek(LocalDate weekStart);
+
+    /**
+     * Signals that a week of a Semester could not be read from storage.
+     */
+    class WeekLoadException extends RuntimeException {
+        public WeekLoadException(String message) {
+            super(message);
+        }
+    }
+}
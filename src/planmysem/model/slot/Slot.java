@@ -1,6 +1,7 @@
 package planmysem.model.slot;
 
 import java.time.LocalTime;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -12,12 +13,22 @@ import planmysem.common.Utils;
  * Guarantees: details are present and not null, field values are validated.
  */
 public class Slot implements ReadOnlySlot {
-    private final Set<String> tags = new HashSet<>();
+    /**
+     * Id of a slot which has not been added to a planner yet.
+     */
+    public static final long NO_ID = 0;
+
+    private static final Set<String> NO_TAGS = Collections.emptySet();
+
+    // Tag sets are never modified, so slots may share them.
+    private Set<String> tags;
     private String name;
     private String location;
     private String description;
     private LocalTime startTime;
     private int duration;
+    private long id = NO_ID; // assigned by the semester the slot is added to, not part of the state of the slot
+    private long seriesId = NO_ID; // id of the series this slot is an occurrence of, if any
 
     /**
      * Assumption: Every field must be present and not null.
@@ -29,9 +40,7 @@ public class Slot implements ReadOnlySlot {
         this.description = description;
         this.startTime = startTime;
         this.duration = Utils.getDuration(startTime, endTime);
-        if (tags != null) {
-            this.tags.addAll(tags);
-        }
+        this.tags = copyTags(tags);
     }
 
     /**
@@ -44,17 +53,42 @@ public class Slot implements ReadOnlySlot {
         this.description = description;
         this.startTime = startTime;
         this.duration = duration;
-        if (tags != null) {
-            this.tags.addAll(tags);
-        }
+        this.tags = copyTags(tags);
     }
 
     /**
      * Copy constructor.
+     * The copy shares the tag set, the id and the series of {@code source} if {@code source} is a Slot.
      */
     public Slot(ReadOnlySlot source) {
-        this(source.getName(), source.getLocation(), source.getDescription(),
-                source.getStartTime(), source.getDuration(), source.getTags());
+        this.name = source.getName();
+        this.location = source.getLocation();
+        this.description = source.getDescription();
+        this.startTime = source.getStartTime();
+        this.duration = source.getDuration();
+        this.tags = source instanceof Slot ? ((Slot) source).tags : copyTags(source.getTags());
+        this.id = source instanceof Slot ? ((Slot) source).id : NO_ID;
+        this.seriesId = source instanceof Slot ? ((Slot) source).seriesId : NO_ID;
+    }
+
+    /**
+     * Returns an unmodifiable copy of {@code tags}.
+     */
+    private static Set<String> copyTags(Set<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return NO_TAGS;
+        }
+        return Collections.unmodifiableSet(new HashSet<>(tags));
+    }
+
+    /**
+     * Replaces the details of this slot with their canonical instances in {@code pool}.
+     */
+    void canonicalize(SlotPool pool) {
+        name = pool.intern(name);
+        location = pool.intern(location);
+        description = pool.intern(description);
+        tags = pool.internTags(tags);
     }
 
     /**
@@ -104,8 +138,7 @@ public class Slot implements ReadOnlySlot {
         if (tags == null) {
             return;
         }
-        this.tags.clear();
-        this.tags.addAll(tags);
+        this.tags = copyTags(tags);
     }
 
     /**
@@ -115,6 +148,47 @@ public class Slot implements ReadOnlySlot {
         duration = value;
     }
 
+    /**
+     * Set the id which identifies this slot in its planner.
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the id which identifies this slot in its planner, or {@link #NO_ID} if it has none.
+     * Copies of a slot share its id, but the id is not compared by {@link #equals}.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Makes this slot an occurrence of the series with the given id, or of no series if it is {@link #NO_ID}.
+     * An occurrence of a series has the id of its series.
+     */
+    public void setSeriesId(long seriesId) {
+        this.seriesId = seriesId;
+        if (seriesId != NO_ID) {
+            id = seriesId;
+        }
+    }
+
+    /**
+     * Returns the id of the series this slot is an occurrence of, or {@link #NO_ID} if it is not part of a series.
+     * Occurrences of a series may be shared between days, so they are never changed once added to a planner.
+     */
+    public long getSeriesId() {
+        return seriesId;
+    }
+
+    /**
+     * Returns true if this slot is an occurrence of a series.
+     */
+    public boolean isOccurrence() {
+        return seriesId != NO_ID;
+    }
+
     @Override
     public String getName() {
         return name;
@@ -140,6 +214,9 @@ public class Slot implements ReadOnlySlot {
         return startTime;
     }
 
+    /**
+     * Returns the tags of this slot, which cannot be modified.
+     */
     @Override
     public Set<String> getTags() {
         return tags;
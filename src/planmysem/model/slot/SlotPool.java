@@ -0,0 +1,86 @@
+package planmysem.model.slot;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Holds one canonical instance of every string and tag set used by the slots of a planner.
+ * Slots which are canonicalized by the same pool share equal names, locations, descriptions and tag sets,
+ * so a module repeated over many weeks keeps one copy of each of its details.
+ * Canonical instances are only weakly referenced, so details of removed or edited slots are dropped from the
+ * pool once no slot uses them any more, and copies of a semester may share the pool without keeping each
+ * other's details alive.
+ * Weeks may be read from storage by the saving thread, so the pool can be used from several threads.
+ */
+public class SlotPool {
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+    private final Map<Set<String>, WeakReference<Set<String>>> tagSets = new WeakHashMap<>();
+
+    /**
+     * Returns the canonical instance of {@code value}, or null if {@code value} is null.
+     */
+    public synchronized String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        final String existing = get(strings, value);
+        if (existing != null) {
+            return existing;
+        }
+        strings.put(value, new WeakReference<>(value));
+        return value;
+    }
+
+    /**
+     * Returns the canonical unmodifiable set equal to {@code tags}.
+     * The tags in the returned set are canonical instances as well.
+     */
+    public synchronized Set<String> internTags(Set<String> tags) {
+        final Set<String> existing = get(tagSets, tags);
+        if (existing != null) {
+            return existing;
+        }
+        final Set<String> canonical = new HashSet<>();
+        for (String tag : tags) {
+            canonical.add(intern(tag));
+        }
+        final Set<String> unmodifiable = Collections.unmodifiableSet(canonical);
+        tagSets.put(unmodifiable, new WeakReference<>(unmodifiable));
+        return unmodifiable;
+    }
+
+    /**
+     * Returns the canonical instance equal to {@code key} held by {@code canonicals}, or null if there is none
+     * or it has been garbage collected.
+     */
+    private static <T> T get(Map<T, WeakReference<T>> canonicals, T key) {
+        final WeakReference<T> reference = canonicals.get(key);
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Replaces the details of {@code slot} with their canonical instances and returns {@code slot}.
+     */
+    public Slot intern(Slot slot) {
+        slot.canonicalize(this);
+        return slot;
+    }
+
+    /**
+     * Returns the number of distinct strings held by this pool that have not been garbage collected yet.
+     */
+    public synchronized int getStringCount() {
+        return strings.size();
+    }
+
+    /**
+     * Returns the number of distinct tag sets held by this pool that have not been garbage collected yet.
+     */
+    public synchronized int getTagSetCount() {
+        return tagSets.size();
+    }
+}
@@ -0,0 +1,161 @@
+package planmysem.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import planmysem.model.Planner;
+import planmysem.model.PlannerHistory;
+
+/**
+ * Saves planners to another Storage on a background thread, so that commands do not wait for the file to be written.
+ * Planners saved while an earlier save is still being written are combined into a single save.
+ * The changes of the undo history are written on the same thread, right before the planner they were made with.
+ */
+public class AsyncStorage implements Storage {
+    private final Storage storage;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "storage-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // These variables are shared with the writer thread and guarded by this object.
+    private Planner pending; // snapshot holding all changes which have not been written yet
+    private List<Runnable> pendingHistoryWrites = new ArrayList<>();
+    private boolean isWriteScheduled;
+    private StorageOperationException lastFailure;
+    private Consumer<StorageOperationException> failureHandler = failure -> { };
+
+    public AsyncStorage(Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Schedules the changes made to {@code planner} since it was last saved to be written in the background.
+     * Failures are reported to the handler set by {@link #setSaveFailureHandler} and by {@link #flush}.
+     */
+    @Override
+    public void save(Planner planner) {
+        requireNonNull(planner);
+        final Runnable historyWrites = storage.takeHistoryWrites();
+        final Planner snapshot = planner.hasUnsavedChanges() ? planner.takeSnapshotForSaving() : null;
+        synchronized (this) {
+            pendingHistoryWrites.add(historyWrites);
+            if (snapshot != null) {
+                if (pending != null) {
+                    snapshot.mergeUnsavedChanges(pending);
+                }
+                pending = snapshot;
+            }
+            if (isWriteScheduled) {
+                return;
+            }
+            isWriteScheduled = true;
+        }
+        writer.execute(this::writePending);
+    }
+
+    /**
+     * Writes the pending changes of the history, then the pending snapshot, if any. Runs on the writer thread.
+     */
+    private void writePending() {
+        final Planner snapshot;
+        final List<Runnable> historyWrites;
+        synchronized (this) {
+            snapshot = pending;
+            pending = null;
+            historyWrites = pendingHistoryWrites;
+            pendingHistoryWrites = new ArrayList<>();
+            isWriteScheduled = false;
+        }
+        if (snapshot == null) {
+            historyWrites.forEach(Runnable::run);
+            return;
+        }
+
+        try {
+            storage.save(snapshot, () -> historyWrites.forEach(Runnable::run));
+            synchronized (this) {
+                lastFailure = null;
+            }
+        } catch (StorageOperationException soe) {
+            keepFailedSnapshot(snapshot, soe);
+        } catch (RuntimeException re) {
+            // the planner was marked as saved when the snapshot was taken, so the snapshot must not be dropped
+            keepFailedSnapshot(snapshot,
+                    new StorageOperationException("Error writing to file: " + getPath() + " error: " + re));
+        }
+    }
+
+    /**
+     * Keeps the changes of {@code snapshot}, whose save failed with {@code failure}, so that they are written
+     * together with the next save, and reports the failure. Runs on the writer thread.
+     */
+    private void keepFailedSnapshot(Planner snapshot, StorageOperationException failure) {
+        final Consumer<StorageOperationException> handler;
+        synchronized (this) {
+            if (pending != null) {
+                pending.mergeUnsavedChanges(snapshot);
+            } else {
+                pending = snapshot;
+            }
+            lastFailure = failure;
+            handler = failureHandler;
+        }
+        handler.accept(failure);
+    }
+
+    @Override
+    public Planner load() throws StorageOperationException {
+        return storage.load();
+    }
+
+    @Override
+    public PlannerHistory loadHistory(Planner planner) throws StorageOperationException {
+        return storage.loadHistory(planner);
+    }
+
+    @Override
+    public String getPath() {
+        return storage.getPath();
+    }
+
+    @Override
+    public StorageStatistics getStatistics() {
+        return storage.getStatistics();
+    }
+
+    /**
+     * Writes all pending changes, retrying changes whose earlier save failed, and waits for the writes to finish.
+     *
+     * @throws StorageOperationException if some of the changes could not be written.
+     */
+    @Override
+    public void flush() throws StorageOperationException {
+        try {
+            writer.submit(this::writePending).get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new StorageOperationException("Interrupted while writing to file: " + getPath());
+        } catch (ExecutionException ee) {
+            throw new StorageOperationException("Error writing to file: " + getPath() + " error: " + ee.getCause());
+        }
+
+        synchronized (this) {
+            if (pending != null && lastFailure != null) {
+                throw lastFailure;
+            }
+        }
+    }
+
+    @Override
+    public synchronized void setSaveFailureHandler(Consumer<StorageOperationException> handler) {
+        failureHandler = requireNonNull(handler);
+    }
+}
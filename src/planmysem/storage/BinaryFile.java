@@ -0,0 +1,357 @@
+package planmysem.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import planmysem.storage.binary.BinaryCodec;
+
+/**
+ * Reads and writes files in the binary storage format.
+ * A file consists of a header holding the magic bytes, the schema version and flags, followed by a body which is
+ * compressed and then encrypted with authenticated AES-GCM if the flags say so.
+ * A body compressed with a preset dictionary starts with the id of the dictionary, followed by raw Deflate data.
+ * The upper bits of the flags hold the id of the {@link StorageCodec} the body was written with.
+ * Bodies are streamed, so only small buffers are held in memory while a file is read or written.
+ */
+class BinaryFile {
+    static final int FLAG_ENCRYPTED = 1;
+    static final int FLAG_COMPRESSED = 2;
+    static final int FLAG_DICTIONARY = 4;
+
+    private static final int CODEC_SHIFT = 4;
+    private static final int HEADER_LENGTH = BinaryCodec.MAGIC.length + 3;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Writes the body of a file.
+     */
+    @FunctionalInterface
+    interface BodyWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes a file with the given flags and a body written by {@code bodyWriter} with {@code codec} to {@code file}.
+     * The file is written to a temporary file first, which then replaces {@code file},
+     * so that {@code file} is never left half written.
+     *
+     * @param dictionary the preset dictionary to compress the body with, or null to compress it without one.
+     *                   Ignored if the body is not compressed.
+     */
+    static Written write(Path file, int flags, StorageCodec codec, CompressionDictionary dictionary,
+            BodyWriter bodyWriter) throws IOException {
+        final Path temp = Paths.get(file + ".tmp");
+        final CRC32 checksum = new CRC32();
+        int headerFlags = flags | codec.getId() << CODEC_SHIFT;
+        if (dictionary == null || (flags & FLAG_COMPRESSED) == 0) {
+            headerFlags &= ~FLAG_DICTIONARY;
+            dictionary = null;
+        } else {
+            headerFlags |= FLAG_DICTIONARY;
+        }
+
+        final OutputStream fileOut = openForWriting(temp, headerFlags, checksum);
+        final CountingOutputStream compressed = new CountingOutputStream(fileOut);
+        final CountingOutputStream body;
+        try {
+            body = new CountingOutputStream(openCompression(compressed, headerFlags, dictionary));
+        } catch (IOException ioe) {
+            fileOut.close();
+            Files.deleteIfExists(temp);
+            throw ioe;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(body, BUFFER_SIZE))) {
+            bodyWriter.write(out);
+        } catch (IOException ioe) {
+            Files.deleteIfExists(temp);
+            throw ioe;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException amnse) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new Written(checksum.getValue(), body.count, compressed.count);
+    }
+
+    /**
+     * Opens {@code file} for writing and writes the file header.
+     * The returned stream encrypts the bytes written to it as {@code flags} say, and updates
+     * {@code checksum} with every byte written to the file.
+     */
+    private static OutputStream openForWriting(Path file, int flags, CRC32 checksum) throws IOException {
+        final byte[] header = getHeader(flags);
+        final OutputStream fileOut = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE)), BUFFER_SIZE), checksum);
+        try {
+            fileOut.write(header);
+            return (flags & FLAG_ENCRYPTED) != 0 ? Encryptor.encryptStream(fileOut, header) : fileOut;
+        } catch (IOException ioe) {
+            fileOut.close();
+            throw ioe;
+        }
+    }
+
+    /**
+     * Returns a stream which compresses the bytes written to it into {@code out} as {@code flags} say.
+     * Closing the returned stream closes {@code out}.
+     */
+    private static OutputStream openCompression(OutputStream out, int flags, CompressionDictionary dictionary)
+            throws IOException {
+        if ((flags & FLAG_COMPRESSED) == 0) {
+            return out;
+        }
+        if (dictionary == null) {
+            return new DeflaterOutputStream(out);
+        }
+        new DataOutputStream(out).writeInt(dictionary.getId());
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setDictionary(dictionary.getBytes());
+        return new DeflaterOutputStream(out, deflater) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the file header for a file written with the given flags.
+     */
+    private static byte[] getHeader(int flags) {
+        final byte[] header = Arrays.copyOf(BinaryCodec.MAGIC, HEADER_LENGTH);
+        header[BinaryCodec.MAGIC.length] = (byte) (BinaryCodec.SCHEMA_VERSION >> 8);
+        header[BinaryCodec.MAGIC.length + 1] = (byte) BinaryCodec.SCHEMA_VERSION;
+        header[BinaryCodec.MAGIC.length + 2] = (byte) flags;
+        return header;
+    }
+
+    /**
+     * Describes a file written by {@link #write}.
+     */
+    static class Written {
+        private final long checksum;
+        private final long bodyLength;
+        private final long storedLength;
+
+        Written(long checksum, long bodyLength, long storedLength) {
+            this.checksum = checksum;
+            this.bodyLength = bodyLength;
+            this.storedLength = storedLength;
+        }
+
+        /**
+         * Returns the CRC32 checksum of the whole file.
+         */
+        long getChecksum() {
+            return checksum;
+        }
+
+        /**
+         * Returns the length of the body written by the codec.
+         */
+        long getBodyLength() {
+            return bodyLength;
+        }
+
+        /**
+         * Returns the length of the body after it was compressed, before it was encrypted.
+         */
+        long getStoredLength() {
+            return storedLength;
+        }
+    }
+
+    /**
+     * Stream which counts the bytes written through it.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+
+    /**
+     * Reads a file, which may or may not be in the binary format.
+     */
+    static class Reader implements Closeable {
+        private final BufferedInputStream fileIn;
+        private final CRC32 checksum = new CRC32();
+        private final byte[] header = new byte[HEADER_LENGTH];
+        private final boolean isBinary;
+        private InputStream payload;
+
+        Reader(Path file) throws IOException {
+            this(Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)));
+        }
+
+        Reader(InputStream in) throws IOException {
+            fileIn = new BufferedInputStream(in, BUFFER_SIZE);
+            fileIn.mark(HEADER_LENGTH);
+            final int headerLength = fileIn.readNBytes(header, 0, HEADER_LENGTH);
+            isBinary = headerLength == HEADER_LENGTH && BinaryCodec.hasMagic(header);
+            if (isBinary) {
+                checksum.update(header);
+            } else {
+                fileIn.reset();
+            }
+        }
+
+        /**
+         * Returns true if the file is in the binary format.
+         */
+        boolean isBinary() {
+            return isBinary;
+        }
+
+        /**
+         * Returns the schema version the file was written with.
+         */
+        int getVersion() {
+            assert isBinary;
+            return ((header[BinaryCodec.MAGIC.length] & 0xff) << 8) | (header[BinaryCodec.MAGIC.length + 1] & 0xff);
+        }
+
+        /**
+         * Returns the codec the body of a file in the binary format was written with, which reads the schema
+         * version of the file.
+         *
+         * @throws IOException if the codec is not known.
+         */
+        StorageCodec getCodec() throws IOException {
+            assert isBinary;
+            final StorageCodec codec = StorageCodec.forId((header[BinaryCodec.MAGIC.length + 2] & 0xff) >> CODEC_SHIFT);
+            if (codec == null) {
+                throw new IOException("File was written with an unknown codec");
+            }
+            return codec.forVersion(getVersion());
+        }
+
+        /**
+         * Returns a stream of the decrypted and decompressed body of a file in the binary format,
+         * which was not compressed with a preset dictionary.
+         *
+         * @see #openBody(Map)
+         */
+        DataInputStream openBody() throws IOException {
+            return openBody(Collections.emptyMap());
+        }
+
+        /**
+         * Returns a stream of the decrypted and decompressed body of a file in the binary format.
+         * Reading from the stream throws {@link SegmentedGcmInputStream.CorruptedDataException}
+         * if the encrypted body was changed.
+         *
+         * @param dictionaries the preset dictionaries the body may have been compressed with, by id.
+         */
+        DataInputStream openBody(Map<Integer, CompressionDictionary> dictionaries) throws IOException {
+            assert isBinary && payload == null;
+            final int flags = header[BinaryCodec.MAGIC.length + 2];
+            final InputStream checkedIn = new CheckedInputStream(fileIn, checksum);
+            payload = (flags & FLAG_ENCRYPTED) != 0 ? Encryptor.decryptStream(checkedIn, header) : checkedIn;
+            final InputStream in;
+            if ((flags & FLAG_COMPRESSED) == 0) {
+                in = payload;
+            } else if ((flags & FLAG_DICTIONARY) == 0) {
+                in = new InflaterInputStream(payload);
+            } else {
+                in = openDictionaryInflater(payload, dictionaries);
+            }
+            return new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        }
+
+        /**
+         * Returns a stream which inflates raw Deflate data compressed with the dictionary whose id starts
+         * {@code in}.
+         */
+        private InputStream openDictionaryInflater(InputStream in, Map<Integer, CompressionDictionary> dictionaries)
+                throws IOException {
+            final CompressionDictionary dictionary = dictionaries.get(new DataInputStream(in).readInt());
+            if (dictionary == null) {
+                throw new IOException("File was compressed with an unknown dictionary");
+            }
+            final Inflater inflater = new Inflater(true);
+            inflater.setDictionary(dictionary.getBytes());
+            return new InflaterInputStream(in, inflater) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            };
+        }
+
+        /**
+         * Reads the rest of the body, so that the whole file is authenticated, and returns the CRC32 checksum of
+         * the whole file.
+         */
+        long finish() throws IOException {
+            final byte[] rest = new byte[BUFFER_SIZE];
+            int read;
+            do {
+                read = payload.read(rest);
+            } while (read != -1);
+            return checksum.getValue();
+        }
+
+        /**
+         * Returns the whole content of a file which is not in the binary format.
+         */
+        byte[] readAll() throws IOException {
+            assert !isBinary;
+            return fileIn.readAllBytes();
+        }
+
+        @Override
+        public void close() throws IOException {
+            fileIn.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package planmysem.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Adler32;
+
+import planmysem.model.semester.ReadOnlyDay;
+import planmysem.model.slot.Slot;
+
+/**
+ * Preset dictionary for Deflate, holding the strings which are repeated across the slots of a planner.
+ * Deflate can refer back to the dictionary from the start of the data, so even a small file of a single week
+ * compresses well when its names, locations and tags are in the dictionary.
+ */
+class CompressionDictionary {
+    /**
+     * Deflate can only refer back 32 KiB, so a longer dictionary would not help.
+     */
+    static final int MAX_LENGTH = 32 * 1024;
+
+    private final int id;
+    private final byte[] bytes;
+
+    CompressionDictionary(byte[] bytes) {
+        this.bytes = bytes;
+        final Adler32 checksum = new Adler32();
+        checksum.update(bytes);
+        id = (int) checksum.getValue();
+    }
+
+    /**
+     * Builds a dictionary from the names, locations and tags which are repeated in the slots of {@code days}.
+     * Strings which occur once gain nothing from being in the dictionary, so they are left out.
+     * Deflate finds strings near the end of the dictionary more cheaply, so the most frequent strings are put last.
+     *
+     * @return the dictionary, or null if no strings are repeated.
+     */
+    static CompressionDictionary build(Collection<? extends ReadOnlyDay> days) {
+        final Map<String, Integer> counts = new HashMap<>();
+        for (ReadOnlyDay day : days) {
+            for (Slot slot : day.getSlots()) {
+                count(counts, slot.getName());
+                count(counts, slot.getLocation());
+                for (String tag : slot.getTags()) {
+                    count(counts, tag);
+                }
+            }
+        }
+        counts.values().removeIf(count -> count < 2);
+        if (counts.isEmpty()) {
+            return null;
+        }
+
+        final List<Map.Entry<String, Integer>> strings = new ArrayList<>(counts.entrySet());
+        strings.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        final List<byte[]> included = new ArrayList<>();
+        int length = 0;
+        for (Map.Entry<String, Integer> string : strings) {
+            final byte[] encoded = string.getKey().getBytes(StandardCharsets.UTF_8);
+            if (length + encoded.length > MAX_LENGTH) {
+                break;
+            }
+            included.add(encoded);
+            length += encoded.length;
+        }
+
+        Collections.reverse(included);
+        final byte[] bytes = new byte[length];
+        int offset = 0;
+        for (byte[] encoded : included) {
+            System.arraycopy(encoded, 0, bytes, offset, encoded.length);
+            offset += encoded.length;
+        }
+        return new CompressionDictionary(bytes);
+    }
+
+    private static void count(Map<String, Integer> counts, String value) {
+        if (value != null && !value.isEmpty()) {
+            counts.merge(value, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Returns the Adler-32 checksum of the dictionary, which identifies it in the files compressed with it.
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the content of the dictionary, which must not be modified.
+     */
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other == this // short circuit if same object
+                || (other instanceof CompressionDictionary // instanceof handles nulls
+                && Arrays.equals(bytes, ((CompressionDictionary) other).bytes));
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+}
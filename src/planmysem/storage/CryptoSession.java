@@ -0,0 +1,116 @@
+package planmysem.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Holds the key of a key store in memory for the lifetime of the process, so that the key store is only read once.
+ * Each thread reuses its own Cipher and all sessions share a single SecureRandom.
+ */
+public class CryptoSession {
+    public static final String DEFAULT_KEY_STORAGE = "KeyStorage.jceks";
+
+    private static final String CBC_TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    private static final int IV_SIZE = 16;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Map<String, CryptoSession> SESSIONS = new ConcurrentHashMap<>();
+
+    private final SecretKey key;
+    private final ThreadLocal<Cipher> cbcCipher = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(CBC_TRANSFORMATION);
+        } catch (GeneralSecurityException gse) {
+            throw new IllegalStateException(gse);
+        }
+    });
+
+    private CryptoSession(SecretKey key) {
+        this.key = new SecretKeySpec(key.getEncoded(), "AES");
+    }
+
+    /**
+     * Returns the session of the default key store, loading its key on first use.
+     */
+    public static CryptoSession getDefault() throws IOException {
+        return get(DEFAULT_KEY_STORAGE);
+    }
+
+    /**
+     * Returns the session of the given key store, loading its key on first use.
+     * The key store is created with a new key if it does not exist.
+     *
+     * @param keyStorage .jceks file to load the key from.
+     */
+    public static CryptoSession get(String keyStorage) throws IOException {
+        final CryptoSession session = SESSIONS.get(keyStorage);
+        if (session != null) {
+            return session;
+        }
+        synchronized (SESSIONS) {
+            if (!SESSIONS.containsKey(keyStorage)) {
+                try {
+                    SESSIONS.put(keyStorage, new CryptoSession(KeyStorage.load(keyStorage)));
+                } catch (Exception e) {
+                    throw new IOException("Error loading encryption key from " + keyStorage, e);
+                }
+            }
+            return SESSIONS.get(keyStorage);
+        }
+    }
+
+    /**
+     * Encrypts bytes using AES in CBC mode.
+     *
+     * @return the random IV followed by the encrypted bytes
+     */
+    public byte[] encrypt(byte[] toEncrypt) throws GeneralSecurityException {
+        final byte[] iv = new byte[IV_SIZE];
+        RANDOM.nextBytes(iv);
+        final Cipher cipher = cbcCipher.get();
+        cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(iv));
+
+        final byte[] encrypted = cipher.doFinal(toEncrypt);
+
+        // Combine IV and encrypted part.
+        final byte[] encryptedIvAndText = new byte[IV_SIZE + encrypted.length];
+        System.arraycopy(iv, 0, encryptedIvAndText, 0, IV_SIZE);
+        System.arraycopy(encrypted, 0, encryptedIvAndText, IV_SIZE, encrypted.length);
+        return encryptedIvAndText;
+    }
+
+    /**
+     * Decrypts bytes written by {@link #encrypt}.
+     */
+    public byte[] decrypt(byte[] encryptedIvAndText) throws GeneralSecurityException {
+        if (encryptedIvAndText.length < IV_SIZE) {
+            throw new GeneralSecurityException("Encrypted data is too short");
+        }
+        final Cipher cipher = cbcCipher.get();
+        cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(encryptedIvAndText, 0, IV_SIZE));
+        return cipher.doFinal(encryptedIvAndText, IV_SIZE, encryptedIvAndText.length - IV_SIZE);
+    }
+
+    /**
+     * Returns a stream which encrypts the bytes written to it with AES-GCM, see {@link SegmentedGcmOutputStream}.
+     */
+    public OutputStream encryptStream(OutputStream out, byte[] associatedData) throws IOException {
+        return new SegmentedGcmOutputStream(out, key, RANDOM, associatedData);
+    }
+
+    /**
+     * Returns a stream which decrypts a stream written by {@link #encryptStream}.
+     */
+    public InputStream decryptStream(InputStream in, byte[] associatedData) throws IOException {
+        return new SegmentedGcmInputStream(in, key, associatedData);
+    }
+}
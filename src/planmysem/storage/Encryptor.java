@@ -1,63 +1,47 @@
 package planmysem.storage;
 
-import java.security.SecureRandom;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
-import javax.crypto.Cipher;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
 import javax.xml.bind.DatatypeConverter;
 
 import planmysem.common.exceptions.IllegalValueException;
 
 /**
- * Contains methods to encrypt and decrypt strings
+ * Contains methods to encrypt and decrypt strings, bytes and streams.
+ * The keys are loaded once through {@link CryptoSession}.
  */
 public class Encryptor {
 
-    private static int ivSize = 16;
-
     public static String encrypt(String toEncrypt, String keyStorage) {
         return executeEncrypt(toEncrypt, keyStorage);
     }
 
     public static String encrypt(String toEncrypt) {
-        return executeEncrypt(toEncrypt, "KeyStorage.jceks");
+        return executeEncrypt(toEncrypt, CryptoSession.DEFAULT_KEY_STORAGE);
+    }
+
+    public static String encrypt(byte[] toEncrypt) {
+        return executeEncrypt(toEncrypt, CryptoSession.DEFAULT_KEY_STORAGE);
+    }
+
+    private static String executeEncrypt(String toEncrypt, String keyStorage) {
+        return executeEncrypt(toEncrypt.getBytes(), keyStorage);
     }
 
     /**
-     * Encrypts string using the AES algorithm
-     * @param toEncrypt string to be encrypted
+     * Encrypts bytes using the AES algorithm
+     * @param toEncrypt bytes to be encrypted
      * @param keyStorage string .jceks file to load from.
      * @return encrypted string
      */
-    private static String executeEncrypt(String toEncrypt, String keyStorage) {
+    private static String executeEncrypt(byte[] toEncrypt, String keyStorage) {
         try {
-            //Load key from KeyStore.
-            SecretKey key = KeyStorage.load(keyStorage);
-            SecretKeySpec skeySpec = new SecretKeySpec(key.getEncoded(), "AES");
-
-            // Generating IV.
-            byte[] iv = new byte[ivSize];
-            SecureRandom random = new SecureRandom();
-            random.nextBytes(iv);
-            IvParameterSpec ivParameterSpec = new IvParameterSpec(iv);
-
-            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            cipher.init(Cipher.ENCRYPT_MODE, skeySpec, ivParameterSpec);
-            byte[] encrypted = cipher.doFinal(toEncrypt.getBytes());
-
-            // Combine IV and encrypted part.
-            byte[] encryptedIvAndText = new byte[ivSize + encrypted.length];
-            System.arraycopy(iv, 0, encryptedIvAndText, 0, ivSize);
-            System.arraycopy(encrypted, 0, encryptedIvAndText, ivSize, encrypted.length);
-
-            return DatatypeConverter.printBase64Binary(encryptedIvAndText);
-
+            return DatatypeConverter.printBase64Binary(CryptoSession.get(keyStorage).encrypt(toEncrypt));
         } catch (Exception ex) {
             return null;
         }
-
     }
 
     public static String decrypt(String toDecrypt, String keyStorage) throws IllegalValueException {
@@ -65,39 +49,48 @@ public class Encryptor {
     }
 
     public static String decrypt(String toDecrypt) throws IllegalValueException {
-        return executeDecrypt(toDecrypt, "KeyStorage.jceks");
+        return executeDecrypt(toDecrypt, CryptoSession.DEFAULT_KEY_STORAGE);
+    }
+
+    public static byte[] decryptToBytes(String toDecrypt) throws IllegalValueException {
+        return executeDecryptToBytes(toDecrypt, CryptoSession.DEFAULT_KEY_STORAGE);
+    }
+
+    /**
+     * Returns a stream which encrypts the bytes written to it with authenticated AES-GCM and writes them to
+     * {@code out}, holding at most one segment of data in memory.
+     *
+     * @param associatedData data which is not encrypted, but which has to be passed unchanged to
+     *                       {@link #decryptStream} for the stream to be decrypted.
+     */
+    public static OutputStream encryptStream(OutputStream out, byte[] associatedData) throws IOException {
+        return CryptoSession.getDefault().encryptStream(out, associatedData);
     }
+
+    /**
+     * Returns a stream which decrypts a stream written by {@link #encryptStream}.
+     * Reading from the returned stream throws {@link SegmentedGcmInputStream.CorruptedDataException}
+     * if the encrypted data was changed or truncated.
+     */
+    public static InputStream decryptStream(InputStream in, byte[] associatedData) throws IOException {
+        return CryptoSession.getDefault().decryptStream(in, associatedData);
+    }
+
+    private static String executeDecrypt(String toDecrypt, String keyStorage) throws IllegalValueException {
+        return new String(executeDecryptToBytes(toDecrypt, keyStorage));
+    }
+
     /**
      * Decrypts a string using the AES algorithm
      *
      * @param toDecrypt string to be decrypted
      * @param keyStorage string .jceks file to load from.
-     * @return decrypted string
+     * @return decrypted bytes
      */
-    private static String executeDecrypt(String toDecrypt, String keyStorage) throws IllegalValueException {
+    private static byte[] executeDecryptToBytes(String toDecrypt, String keyStorage) throws IllegalValueException {
         try {
-            //Load key from KeyStore.
-            SecretKey key = KeyStorage.load(keyStorage);
-            SecretKeySpec skeySpec = new SecretKeySpec(key.getEncoded(), "AES");
-
-            //Decode to bytes.
-            byte[] decodedData = DatatypeConverter.parseBase64Binary(toDecrypt);
-
-            // Extract IV.
-            byte[] iv = new byte[ivSize];
-            System.arraycopy(decodedData, 0, iv, 0, iv.length);
-            IvParameterSpec ivParameterSpec = new IvParameterSpec(iv);
-
-            // Extract encrypted part.
-            int encryptedSize = decodedData.length - ivSize;
-            byte[] encryptedBytes = new byte[encryptedSize];
-            System.arraycopy(decodedData, ivSize, encryptedBytes, 0, encryptedSize);
-
-            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
-            cipher.init(Cipher.DECRYPT_MODE, skeySpec, ivParameterSpec);
-
-            byte[] decryptedData = cipher.doFinal(encryptedBytes);
-            return new String(decryptedData);
+            final byte[] decodedData = DatatypeConverter.parseBase64Binary(toDecrypt);
+            return CryptoSession.get(keyStorage).decrypt(decodedData);
         } catch (Exception e) {
             throw new IllegalValueException("Error decrypting file. Reinitializing semester.");
         }
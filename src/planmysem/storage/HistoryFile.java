@@ -0,0 +1,698 @@
+package planmysem.storage;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.DatatypeConverter;
+
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.HistoryBudget;
+import planmysem.model.HistoryStatistics;
+import planmysem.model.PlannerChange;
+import planmysem.model.PlannerDelta;
+import planmysem.model.PlannerHistory;
+import planmysem.model.PlannerOperation;
+import planmysem.model.semester.Day;
+import planmysem.storage.Storage.StorageOperationException;
+import planmysem.storage.binary.BinaryCodec;
+
+/**
+ * Represents the file which keeps the undo history of a Planner across restarts.
+ * The first line holds the key of the semester the history belongs to. Every following line is a record, either
+ * {@code C <index> <delta>}, which discards the deltas with that index and above and adds the delta,
+ * {@code S <index>}, which records the current state after an undo or redo, or {@code V <saved state>}, which
+ * records that the planner was saved in the given state with all the records before it. Deltas hold the operations
+ * of each change and the days of each checkpoint, which are written with the configured {@link StorageCodec}, and
+ * are encrypted. Records {@code D <index> <delta>} written by earlier versions hold a single checkpoint.
+ * Records are not written when the history changes, but taken by {@link #takePendingWrites} and written together
+ * with the planner, so that writing the history adds no time to commands and never gets ahead of the planner.
+ * Only the position of each delta and a few recently used deltas are kept in memory; other deltas are read from the
+ * file when they are needed. The file is compacted to the number of states allowed by its {@link HistoryBudget}, and
+ * the deltas kept in memory are limited to the size the budget allows.
+ */
+public class HistoryFile implements PlannerHistory {
+    /**
+     * Number of deltas which are kept in memory after they were written or read.
+     */
+    static final int MAX_CACHED_DELTAS = 16;
+
+    /**
+     * Number of deltas kept by default when the file is compacted. Older deltas can no longer be undone.
+     */
+    static final int MAX_DELTAS = HistoryBudget.DEFAULT_MAX_STATES;
+
+    private static final String DELTA_RECORD = "C";
+    private static final String CHECKPOINT_DELTA_RECORD = "D";
+    private static final byte OPERATIONS_CHANGE = 0;
+    private static final byte CHECKPOINT_CHANGE = 1;
+    private static final String STATE_RECORD = "S";
+    private static final String SAVED_STATE_RECORD = "V";
+
+    private final Path path;
+    private final boolean isEncrypted;
+    private final StorageCodec codec;
+    private final HistoryBudget budget;
+
+    // These variables are shared with the thread which writes the file and guarded by this object.
+    // The delta with index i is at position i - 1.
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Integer, PlannerDelta> cachedDeltas = new LinkedHashMap<>(16, 0.75f, true);
+    private List<Runnable> pendingWrites = new ArrayList<>();
+    private String key;
+    private int currentState;
+
+    // These variables are only used by the thread which writes the file, once the file is open.
+    private int recordCount;
+    private boolean isWritable;
+    private String savedState;
+    private boolean isSavedStateRecorded; // true if no record was written after the record of the saved state
+
+    public HistoryFile(Path path, boolean isEncrypted, StorageCodec codec) {
+        this(path, isEncrypted, codec, new HistoryBudget(MAX_DELTAS, HistoryBudget.DEFAULT_MAX_BYTES));
+    }
+
+    public HistoryFile(Path path, boolean isEncrypted, StorageCodec codec, HistoryBudget budget) {
+        this.path = path;
+        this.isEncrypted = isEncrypted;
+        this.codec = codec;
+        this.budget = budget;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Reads the positions of the deltas in the history of the semester with the given key, as it was when the
+     * planner was saved in {@code savedState}. Records written after that state were not saved with the planner and
+     * are discarded, and so is the history of another semester or of a planner which was never saved in that state.
+     * Reading stops at the first damaged record, which is what a write interrupted halfway leaves behind.
+     * The file is compacted if it holds many records which are no longer needed.
+     */
+    public synchronized void open(String key, String savedState) throws IOException {
+        this.key = key;
+        entries.clear();
+        cachedDeltas.clear();
+        pendingWrites = new ArrayList<>();
+        currentState = 0;
+        recordCount = 0;
+        isWritable = true;
+        this.savedState = savedState;
+        isSavedStateRecorded = false;
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        // the history as of the last record of the saved state
+        List<Entry> savedEntries = null;
+        int savedCurrentState = 0;
+        int savedRecordCount = 0;
+        long savedLength = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            final ByteArrayOutputStream line = new ByteArrayOutputStream();
+            final String savedStateRecord = SAVED_STATE_RECORD + " " + savedState;
+            long offset = 0;
+            boolean isHeader = true;
+            int next;
+            while ((next = in.read()) != -1) {
+                if (next != '\n') {
+                    line.write(next);
+                    continue;
+                }
+                final String text = line.toString("US-ASCII");
+                final long lineOffset = offset;
+                offset += line.size() + 1;
+                line.reset();
+                if (isHeader) {
+                    if (!key.equals(text)) {
+                        break;
+                    }
+                    isHeader = false;
+                } else if (text.startsWith(SAVED_STATE_RECORD + " ")) {
+                    recordCount++;
+                    if (text.equals(savedStateRecord)) {
+                        savedEntries = new ArrayList<>(entries);
+                        savedCurrentState = currentState;
+                        savedRecordCount = recordCount;
+                        savedLength = offset;
+                    }
+                } else if (!readRecord(text, lineOffset)) {
+                    break;
+                }
+            }
+        }
+
+        if (savedEntries == null) {
+            // the history belongs to another semester, or to changes which were not saved with the planner
+            reset();
+            return;
+        }
+        entries.clear();
+        entries.addAll(savedEntries);
+        currentState = savedCurrentState;
+        recordCount = savedRecordCount;
+        isSavedStateRecorded = true;
+        if (savedLength < Files.size(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(savedLength);
+            }
+        }
+        if (recordCount > 2 * entries.size() + MAX_CACHED_DELTAS || entries.size() > budget.getMaxStates()) {
+            dropOldestDeltas();
+            compact(new ArrayList<>(entries), currentState);
+        }
+    }
+
+    /**
+     * Reads the delta or state record on a line of the file which starts at {@code offset}.
+     *
+     * @return false if the record is damaged.
+     */
+    private boolean readRecord(String text, long offset) {
+        final String[] parts = text.split(" ", 3);
+        try {
+            final int index = Integer.parseInt(parts[1]);
+            if (index < 0 || index > entries.size() + 1) {
+                return false;
+            }
+            final boolean isDelta = DELTA_RECORD.equals(parts[0]) || CHECKPOINT_DELTA_RECORD.equals(parts[0]);
+            if (isDelta && parts.length == 3 && index > 0) {
+                entries.subList(index - 1, entries.size()).clear();
+                final int payloadOffset = parts[0].length() + parts[1].length() + 2;
+                entries.add(new Entry(new Record(parts[0], offset + payloadOffset, parts[2].length())));
+                currentState = index;
+            } else if (STATE_RECORD.equals(parts[0]) && parts.length == 2 && index <= entries.size()) {
+                currentState = index;
+            } else {
+                return false;
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return false;
+        }
+        recordCount++;
+        return true;
+    }
+
+    /**
+     * Starts a new, empty history.
+     */
+    private void reset() throws IOException {
+        Files.deleteIfExists(path);
+        entries.clear();
+        currentState = 0;
+        recordCount = 0;
+    }
+
+    /**
+     * Drops the oldest deltas, which can no longer be undone, to keep at most as many of them as the budget allows.
+     * The current state is never dropped. Dropping the oldest deltas renumbers the remaining ones.
+     */
+    private void dropOldestDeltas() {
+        final int dropped = Math.min(Math.max(entries.size() - budget.getMaxStates(), 0), currentState);
+        entries.subList(0, dropped).clear();
+        currentState -= dropped;
+
+        final Map<Integer, PlannerDelta> renumbered = new LinkedHashMap<>();
+        for (Map.Entry<Integer, PlannerDelta> entry : cachedDeltas.entrySet()) {
+            if (entry.getKey() > dropped) {
+                renumbered.put(entry.getKey() - dropped, entry.getValue());
+            }
+        }
+        cachedDeltas.clear();
+        cachedDeltas.putAll(renumbered);
+    }
+
+    /**
+     * Rewrites the file with only the deltas of {@code kept}, numbered from 1, and {@code state} as the current
+     * state. Runs on the thread which writes the file. Does nothing if a delta was never written.
+     */
+    private void compact(List<Entry> kept, int state) {
+        final List<Record> written = new ArrayList<>();
+        for (Entry entry : kept) {
+            written.add(getRecord(entry));
+        }
+        if (!isWritable || written.contains(null)) {
+            return;
+        }
+        final Path compacted = Paths.get(path + ".new");
+        final List<Record> records = new ArrayList<>();
+        try {
+            try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+                 OutputStream out = Files.newOutputStream(compacted)) {
+                long offset = writeLine(out, key);
+                for (int index = 1; index <= kept.size(); index++) {
+                    final Record record = written.get(index - 1);
+                    final String prefix = record.type + " " + index + " ";
+                    final String payload = readPayload(source, record);
+                    records.add(new Record(record.type, offset + prefix.length(), payload.length()));
+                    offset += writeLine(out, prefix + payload);
+                }
+                writeLine(out, STATE_RECORD + " " + state);
+                if (isSavedStateRecorded) {
+                    writeLine(out, SAVED_STATE_RECORD + " " + savedState);
+                }
+            }
+            synchronized (this) {
+                // deltas may be read by other threads, so the file and the positions are replaced together
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                for (int i = 0; i < kept.size(); i++) {
+                    kept.get(i).record = records.get(i);
+                }
+            }
+            recordCount = kept.size() + (isSavedStateRecorded ? 2 : 1);
+        } catch (IOException ioe) {
+            // the file is replaced only once it was rewritten completely, so it can still be appended to
+        }
+    }
+
+    /**
+     * Returns where the delta of {@code entry} is in the file, or null if it was never written.
+     */
+    private synchronized Record getRecord(Entry entry) {
+        return entry.record;
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized PlannerDelta get(int index) {
+        final Entry entry = entries.get(index - 1);
+        if (entry.unwritten != null) {
+            return entry.unwritten;
+        }
+        final PlannerDelta cached = cachedDeltas.get(index);
+        if (cached != null) {
+            return cached;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final String payload = readPayload(channel, entry.record);
+            final PlannerDelta delta = DELTA_RECORD.equals(entry.record.type)
+                    ? decodeDelta(payload)
+                    : decodeCheckpointDelta(payload);
+            cache(index, delta);
+            return delta;
+        } catch (IOException | IllegalValueException | RuntimeException e) {
+            throw new HistoryReadException("Error reading undo history from file: " + path);
+        }
+    }
+
+    /**
+     * Adds {@code delta}, which is written to the end of the file with the next pending writes.
+     * If it cannot be written, it is kept in memory instead.
+     */
+    @Override
+    public synchronized void add(int index, PlannerDelta delta) {
+        entries.subList(Math.min(index - 1, entries.size()), entries.size()).clear();
+        cachedDeltas.keySet().removeIf(i -> i >= index);
+        final Entry entry = new Entry(delta);
+        entries.add(entry);
+        currentState = index;
+        cache(index, delta);
+        pendingWrites.add(() -> writeDelta(index, entry));
+
+        // compacting once the budget is exceeded by a few deltas keeps the file from being rewritten on every add
+        if (entries.size() > budget.getMaxStates() + MAX_CACHED_DELTAS) {
+            dropOldestDeltas();
+            final List<Entry> kept = new ArrayList<>(entries);
+            final int state = currentState;
+            pendingWrites.add(() -> compact(kept, state));
+        }
+    }
+
+    /**
+     * Keeps {@code delta} in memory, dropping the least recently used deltas which are kept in memory to stay within
+     * {@link #MAX_CACHED_DELTAS} and the size allowed by the budget. The delta itself is always kept.
+     */
+    private void cache(int index, PlannerDelta delta) {
+        cachedDeltas.put(index, delta);
+        long bytes = estimateCachedBytes();
+        final Iterator<PlannerDelta> eldest = cachedDeltas.values().iterator();
+        // the delta was put last, so it is only reached once all other deltas were dropped
+        while (cachedDeltas.size() > 1
+                && (cachedDeltas.size() > MAX_CACHED_DELTAS || bytes > budget.getMaxBytes())) {
+            final PlannerDelta dropped = eldest.next();
+            bytes -= dropped.estimateSize();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Returns the estimated number of bytes taken up by the deltas kept in memory.
+     */
+    private long estimateCachedBytes() {
+        long bytes = 0;
+        for (PlannerDelta delta : cachedDeltas.values()) {
+            bytes += delta.estimateSize();
+        }
+        for (Entry entry : entries) {
+            if (entry.unwritten != null) {
+                bytes += entry.unwritten.estimateSize();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public synchronized int getCurrentState() {
+        return currentState;
+    }
+
+    @Override
+    public synchronized void setCurrentState(int index) {
+        currentState = index;
+        pendingWrites.add(() -> writeState(index));
+    }
+
+    @Override
+    public synchronized HistoryStatistics getStatistics() {
+        return new HistoryStatistics(size(), estimateCachedBytes(), currentState, size() - currentState, budget);
+    }
+
+    /**
+     * Takes the records of the changes made since this was last called, as a task which writes them.
+     * The task is run on the thread which saves the planner, before the planner is saved with these changes.
+     */
+    public synchronized Runnable takePendingWrites() {
+        final List<Runnable> writes = pendingWrites;
+        pendingWrites = new ArrayList<>();
+        return () -> writes.forEach(Runnable::run);
+    }
+
+    /**
+     * Records that the planner was saved in {@code state} with all the records written so far.
+     * Runs on the thread which writes the file.
+     */
+    public void recordSavedState(String state) {
+        if (isSavedStateRecorded && state.equals(savedState)) {
+            return;
+        }
+        savedState = state;
+        isSavedStateRecorded = false;
+        if (!isWritable) {
+            return;
+        }
+        try {
+            append(SAVED_STATE_RECORD + " " + state);
+            isSavedStateRecorded = true;
+        } catch (IOException ioe) {
+            isWritable = false;
+        }
+    }
+
+    /**
+     * Writes {@code entry}, the delta with the given index, to the end of the file.
+     * Runs on the thread which writes the file.
+     */
+    private void writeDelta(int index, Entry entry) {
+        final PlannerDelta delta;
+        synchronized (this) {
+            delta = entry.unwritten;
+        }
+        if (!isWritable) {
+            return;
+        }
+        try {
+            final String prefix = DELTA_RECORD + " " + index + " ";
+            final String payload = encodeDelta(delta);
+            final long offset = append(prefix + payload);
+            synchronized (this) {
+                entry.record = new Record(DELTA_RECORD, offset + prefix.length(), payload.length());
+                entry.unwritten = null;
+            }
+        } catch (IOException | StorageOperationException | RuntimeException e) {
+            // part of the record may have been written, so nothing can be appended after it
+            isWritable = false;
+        }
+    }
+
+    /**
+     * Writes a record of the current state being the one with the given index. Runs on the thread which writes the
+     * file.
+     */
+    private void writeState(int index) {
+        if (!isWritable) {
+            return;
+        }
+        try {
+            append(STATE_RECORD + " " + index);
+        } catch (IOException ioe) {
+            isWritable = false;
+        }
+    }
+
+    /**
+     * Appends {@code line} to the file, writing the key first if the file is new.
+     *
+     * @return the offset of the line in the file.
+     */
+    private long append(String line) throws IOException {
+        final boolean isNewFile = !Files.exists(path);
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            long offset = isNewFile ? writeLine(out, key) : Files.size(path);
+            writeLine(out, line);
+            recordCount++;
+            isSavedStateRecorded = false;
+            return offset;
+        }
+    }
+
+    /**
+     * Writes {@code line} followed by a line break.
+     *
+     * @return the number of bytes written.
+     */
+    private static long writeLine(OutputStream out, String line) throws IOException {
+        final byte[] bytes = (line + "\n").getBytes(US_ASCII);
+        out.write(bytes);
+        return bytes.length;
+    }
+
+    /**
+     * Reads the delta payload held by {@code record}.
+     */
+    private static String readPayload(FileChannel channel, Record record) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(record.length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, record.offset + buffer.position()) < 0) {
+                throw new IOException("Undo history file is truncated");
+            }
+        }
+        return new String(buffer.array(), US_ASCII);
+    }
+
+    /**
+     * Encodes {@code delta} into the payload of a delta record.
+     */
+    private String encodeDelta(PlannerDelta delta) throws IOException, StorageOperationException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(codec.getId());
+            out.writeByte(JournalFile.RECORD_FORMAT_VERSION);
+            out.writeInt(delta.getChanges().size());
+            for (PlannerChange change : delta.getChanges()) {
+                if (change.isCheckpoint()) {
+                    out.writeByte(CHECKPOINT_CHANGE);
+                    writeDays(out, change.getDaysBefore());
+                    writeDays(out, change.getDaysAfter());
+                } else {
+                    out.writeByte(OPERATIONS_CHANGE);
+                    writeOperations(out, change.getOperations());
+                    writeOperations(out, change.getInverseOperations());
+                }
+            }
+        }
+
+        if (!isEncrypted) {
+            return DatatypeConverter.printBase64Binary(bytes.toByteArray());
+        }
+        final String encrypted = Encryptor.encrypt(bytes.toByteArray());
+        if (encrypted == null) {
+            throw new StorageOperationException("Error encrypting undo history");
+        }
+        return encrypted;
+    }
+
+    /**
+     * Decodes the payload of a delta record.
+     */
+    private PlannerDelta decodeDelta(String payload) throws IOException, IllegalValueException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(decryptPayload(payload)))) {
+            final StorageCodec writtenCodec = readCodec(in);
+            final byte version = in.readByte();
+            if (version < JournalFile.RECORD_FORMAT_VERSION_WITHOUT_IDS
+                    || version > JournalFile.RECORD_FORMAT_VERSION) {
+                throw new IllegalValueException("Undo history was written in an unknown format");
+            }
+            // days of earlier records were written before strings of any length could be written
+            final StorageCodec deltaCodec = version > JournalFile.RECORD_FORMAT_VERSION_WITHOUT_LONG_STRINGS
+                    ? writtenCodec
+                    : writtenCodec.forVersion(BinaryCodec.SCHEMA_VERSION_SLOT_SERIES);
+            final int count = in.readInt();
+            if (count < 0) {
+                throw new IllegalValueException("Undo history contains illegal data values");
+            }
+            final List<PlannerChange> changes = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final byte kind = in.readByte();
+                if (kind == CHECKPOINT_CHANGE) {
+                    changes.add(readCheckpoint(in, deltaCodec));
+                } else if (kind == OPERATIONS_CHANGE) {
+                    final List<PlannerOperation> operations = readOperations(in, version);
+                    changes.add(PlannerChange.ofOperations(operations, readOperations(in, version)));
+                } else {
+                    throw new IllegalValueException("Undo history contains illegal data values");
+                }
+            }
+            return new PlannerDelta(changes);
+        }
+    }
+
+    /**
+     * Decodes the payload of a delta record written by an earlier version, which holds a single checkpoint.
+     */
+    private PlannerDelta decodeCheckpointDelta(String payload) throws IOException, IllegalValueException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(decryptPayload(payload)))) {
+            final StorageCodec deltaCodec = readCodec(in).forVersion(BinaryCodec.SCHEMA_VERSION_SLOT_SERIES);
+            return new PlannerDelta(Collections.singletonList(readCheckpoint(in, deltaCodec)));
+        }
+    }
+
+    /**
+     * Returns the bytes held by the payload of a delta record.
+     */
+    private byte[] decryptPayload(String payload) throws IllegalValueException {
+        return isEncrypted
+                ? Encryptor.decryptToBytes(payload)
+                : DatatypeConverter.parseBase64Binary(payload);
+    }
+
+    /**
+     * Reads the id of the codec a delta was written with and returns the codec.
+     */
+    private static StorageCodec readCodec(DataInputStream in) throws IOException, IllegalValueException {
+        final StorageCodec deltaCodec = StorageCodec.forId(in.readByte());
+        if (deltaCodec == null) {
+            throw new IllegalValueException("Undo history was written with an unknown codec");
+        }
+        return deltaCodec;
+    }
+
+    /**
+     * Reads the days of a checkpoint as they were before and after the change.
+     */
+    private static PlannerChange readCheckpoint(DataInputStream in, StorageCodec codec)
+            throws IOException, IllegalValueException {
+        final Map<LocalDate, Day> daysBefore = readDays(in, codec);
+        final Map<LocalDate, Day> daysAfter = readDays(in, codec);
+        if (!daysBefore.keySet().equals(daysAfter.keySet())) {
+            throw new IllegalValueException("Undo history contains illegal data values");
+        }
+        return PlannerChange.ofDays(daysBefore, daysAfter);
+    }
+
+    /**
+     * Writes {@code operations}, prefixed by their number.
+     */
+    private static void writeOperations(DataOutputStream out, List<PlannerOperation> operations) throws IOException {
+        out.writeInt(operations.size());
+        for (PlannerOperation operation : operations) {
+            JournalFile.writeOperation(out, operation);
+        }
+    }
+
+    /**
+     * Reads operations written by {@link #writeOperations} in the given {@code version} of the journal format.
+     */
+    private static List<PlannerOperation> readOperations(DataInputStream in, byte version)
+            throws IOException, IllegalValueException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IllegalValueException("Undo history contains illegal data values");
+        }
+        final List<PlannerOperation> operations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            operations.add(JournalFile.readOperation(in, version));
+        }
+        return operations;
+    }
+
+    /**
+     * Writes {@code days} with the configured codec, prefixed by their length.
+     */
+    private void writeDays(DataOutputStream out, Map<LocalDate, Day> days) throws IOException {
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        codec.encodeDays(days, encoded);
+        out.writeInt(encoded.size());
+        encoded.writeTo(out);
+    }
+
+    /**
+     * Reads days written by {@link #writeDays}.
+     */
+    private static Map<LocalDate, Day> readDays(DataInputStream in, StorageCodec codec)
+            throws IOException, IllegalValueException {
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new IllegalValueException("Undo history contains illegal data values");
+        }
+        final byte[] encoded = new byte[length];
+        in.readFully(encoded);
+        return codec.decodeDays(new ByteArrayInputStream(encoded));
+    }
+
+    /**
+     * Kind and position of the payload of a delta record in the file.
+     */
+    private static class Record {
+        private final String type;
+        private final long offset;
+        private final int length;
+
+        Record(String type, long offset, int length) {
+            this.type = type;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+    /**
+     * A delta of the history, which is kept in memory until it was written to the file.
+     */
+    private static class Entry {
+        private PlannerDelta unwritten; // null once the delta was written
+        private Record record; // where the delta is in the file, null until it was written
+
+        Entry(PlannerDelta unwritten) {
+            this.unwritten = unwritten;
+        }
+
+        Entry(Record record) {
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package planmysem.storage;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.bind.DatatypeConverter;
+
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.Planner;
+import planmysem.model.PlannerOperation;
+import planmysem.model.slot.ReadOnlySlot;
+import planmysem.model.slot.Slot;
+import planmysem.storage.Storage.StorageOperationException;
+import planmysem.storage.binary.BinaryCodec;
+
+/**
+ * Represents the journal which records the changes made to a Planner since its last full snapshot.
+ * The first line of the journal holds the checksum of the snapshot it applies to,
+ * every following line holds one record of the operations performed by a single save.
+ */
+public class JournalFile {
+    static final byte RECORD_FORMAT_VERSION = 4;
+    static final byte RECORD_FORMAT_VERSION_WITHOUT_IDS = 1;
+    static final byte RECORD_FORMAT_VERSION_WITHOUT_LONG_STRINGS = 3;
+    private static final byte RECORD_FORMAT_VERSION_WITHOUT_SERIES = 2;
+
+    private final Path path;
+    private final boolean isEncrypted;
+    private String snapshotChecksum; // null if the snapshot the journal applies to is unknown
+    private int recordCount;
+
+    public JournalFile(Path path, boolean isEncrypted) {
+        this.path = path;
+        this.isEncrypted = isEncrypted;
+    }
+
+    /**
+     * Starts a new, empty journal for the snapshot with the given checksum.
+     */
+    public void reset(String snapshotChecksum) throws IOException {
+        Files.deleteIfExists(path);
+        this.snapshotChecksum = snapshotChecksum;
+        recordCount = 0;
+    }
+
+    /**
+     * Returns true if records can be appended to the journal,
+     * i.e. the snapshot the journal applies to is known and the journal is intact.
+     */
+    public boolean canAppend() {
+        return snapshotChecksum != null;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Appends one record holding {@code operations} to the journal. Does nothing if there are no operations.
+     */
+    public void append(List<PlannerOperation> operations) throws IOException, StorageOperationException {
+        assert canAppend();
+        if (operations.isEmpty()) {
+            return;
+        }
+
+        final String record = encodeRecord(operations);
+        final boolean isNewJournal = !Files.exists(path);
+        try (BufferedWriter writer = Files.newBufferedWriter(path, UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (isNewJournal) {
+                writer.write(snapshotChecksum);
+                writer.newLine();
+            }
+            writer.write(record);
+            writer.newLine();
+        } catch (IOException ioe) {
+            // part of the record may have been written, so nothing can be appended after it
+            snapshotChecksum = null;
+            throw ioe;
+        }
+        recordCount++;
+    }
+
+    /**
+     * Replays the journal over {@code planner}, which was loaded from the snapshot with the given checksum.
+     * A journal written for a different snapshot is ignored. Replay stops at the first unreadable record,
+     * which is what a save interrupted halfway leaves behind.
+     *
+     * @return the number of records replayed
+     */
+    public int replay(Planner planner, String snapshotChecksum) throws IOException {
+        this.snapshotChecksum = snapshotChecksum;
+        recordCount = 0;
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, UTF_8)) {
+            if (!snapshotChecksum.equals(reader.readLine())) {
+                // the journal belongs to an older snapshot, the next save has to start a new one
+                this.snapshotChecksum = null;
+                return 0;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final List<PlannerOperation> operations;
+                try {
+                    operations = decodeRecord(line);
+                } catch (IOException | IllegalValueException | RuntimeException e) {
+                    // records appended after a damaged one would be lost, so start a new journal on the next save
+                    this.snapshotChecksum = null;
+                    break;
+                }
+                for (PlannerOperation operation : operations) {
+                    operation.applyTo(planner);
+                }
+                recordCount++;
+            }
+        }
+        return recordCount;
+    }
+
+    /**
+     * Encodes {@code operations} into a single line of the journal.
+     */
+    private String encodeRecord(List<PlannerOperation> operations) throws IOException, StorageOperationException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_FORMAT_VERSION);
+            out.writeInt(operations.size());
+            for (PlannerOperation operation : operations) {
+                writeOperation(out, operation);
+            }
+        }
+
+        if (!isEncrypted) {
+            return DatatypeConverter.printBase64Binary(bytes.toByteArray());
+        }
+        final String encrypted = Encryptor.encrypt(bytes.toByteArray());
+        if (encrypted == null) {
+            throw new StorageOperationException("Error encrypting journal record");
+        }
+        return encrypted;
+    }
+
+    /**
+     * Decodes a single line of the journal into the operations it holds.
+     */
+    private List<PlannerOperation> decodeRecord(String line) throws IOException, IllegalValueException {
+        final byte[] bytes = isEncrypted
+                ? Encryptor.decryptToBytes(line)
+                : DatatypeConverter.parseBase64Binary(line);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            final byte version = in.readByte();
+            if (version < RECORD_FORMAT_VERSION_WITHOUT_IDS || version > RECORD_FORMAT_VERSION) {
+                throw new IOException("Unsupported journal record format");
+            }
+            final int count = in.readInt();
+            final List<PlannerOperation> operations = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                operations.add(readOperation(in, version));
+            }
+            return operations;
+        }
+    }
+
+    /**
+     * Writes a single operation to {@code out}.
+     */
+    static void writeOperation(DataOutputStream out, PlannerOperation operation) throws IOException {
+        out.writeByte(operation.getType().ordinal());
+        switch (operation.getType()) {
+        case ADD:
+        case REMOVE:
+            out.writeLong(operation.getDate().toEpochDay());
+            writeSlot(out, operation.getSlot());
+            break;
+        case EDIT:
+            out.writeLong(operation.getDate().toEpochDay());
+            writeSlot(out, operation.getSlot());
+            out.writeBoolean(operation.getNewDate() != null);
+            if (operation.getNewDate() != null) {
+                out.writeLong(operation.getNewDate().toEpochDay());
+            }
+            out.writeBoolean(operation.getNewStartTime() != null);
+            if (operation.getNewStartTime() != null) {
+                out.writeInt(operation.getNewStartTime().toSecondOfDay());
+            }
+            out.writeInt(operation.getNewDuration());
+            writeNullableString(out, operation.getNewName());
+            writeNullableString(out, operation.getNewLocation());
+            writeNullableString(out, operation.getNewDescription());
+            writeTags(out, operation.getNewTags());
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Reads a single operation written by {@link #writeOperation}.
+     * Records written in an earlier {@code version} of the format hold no ids or series, and shorter strings.
+     */
+    static PlannerOperation readOperation(DataInputStream in, byte version) throws IOException {
+        final PlannerOperation.Type type = PlannerOperation.Type.values()[in.readByte()];
+        switch (type) {
+        case ADD:
+            return PlannerOperation.add(LocalDate.ofEpochDay(in.readLong()), readSlot(in, version));
+        case REMOVE:
+            return PlannerOperation.remove(LocalDate.ofEpochDay(in.readLong()), readSlot(in, version));
+        case EDIT:
+            final LocalDate targetDate = LocalDate.ofEpochDay(in.readLong());
+            final Slot targetSlot = readSlot(in, version);
+            final LocalDate date = in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+            final LocalTime startTime = in.readBoolean() ? LocalTime.ofSecondOfDay(in.readInt()) : null;
+            final int duration = in.readInt();
+            final String name = readNullableString(in, version);
+            final String location = readNullableString(in, version);
+            final String description = readNullableString(in, version);
+            return PlannerOperation.edit(targetDate, targetSlot, date, startTime, duration, name, location,
+                    description, readTags(in, version));
+        default:
+            return PlannerOperation.clear();
+        }
+    }
+
+    /**
+     * Writes the details of {@code slot} to {@code out}.
+     */
+    private static void writeSlot(DataOutputStream out, ReadOnlySlot slot) throws IOException {
+        out.writeLong(slot instanceof Slot ? ((Slot) slot).getId() : Slot.NO_ID);
+        out.writeLong(slot instanceof Slot ? ((Slot) slot).getSeriesId() : Slot.NO_ID);
+        BinaryCodec.writeString(out, slot.getName());
+        writeNullableString(out, slot.getLocation());
+        writeNullableString(out, slot.getDescription());
+        out.writeInt(slot.getStartTime().toSecondOfDay());
+        out.writeInt(slot.getDuration());
+        writeTags(out, slot.getTags());
+    }
+
+    /**
+     * Reads a slot written by {@link #writeSlot}.
+     */
+    private static Slot readSlot(DataInputStream in, byte version) throws IOException {
+        final long id = version >= RECORD_FORMAT_VERSION_WITHOUT_SERIES ? in.readLong() : Slot.NO_ID;
+        final long seriesId = version >= RECORD_FORMAT_VERSION ? in.readLong() : Slot.NO_ID;
+        final String name = readString(in, version);
+        final String location = readNullableString(in, version);
+        final String description = readNullableString(in, version);
+        final LocalTime startTime = LocalTime.ofSecondOfDay(in.readInt());
+        final int duration = in.readInt();
+        final Slot slot = new Slot(name, location, description, startTime, duration, readTags(in, version));
+        slot.setId(id);
+        slot.setSeriesId(seriesId);
+        return slot;
+    }
+
+    /**
+     * Writes {@code tags} to {@code out}.
+     */
+    private static void writeTags(DataOutputStream out, Set<String> tags) throws IOException {
+        out.writeInt(tags.size());
+        for (String tag : tags) {
+            BinaryCodec.writeString(out, tag);
+        }
+    }
+
+    /**
+     * Reads tags written by {@link #writeTags}.
+     */
+    private static Set<String> readTags(DataInputStream in, byte version) throws IOException {
+        final int count = in.readInt();
+        final Set<String> tags = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            tags.add(readString(in, version));
+        }
+        return tags;
+    }
+
+    /**
+     * Writes a string which may be null to {@code out}.
+     */
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            BinaryCodec.writeString(out, value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeNullableString}.
+     */
+    private static String readNullableString(DataInputStream in, byte version) throws IOException {
+        return in.readBoolean() ? readString(in, version) : null;
+    }
+
+    /**
+     * Reads a string written in the given {@code version} of the format. Strings of records written before
+     * {@link #RECORD_FORMAT_VERSION} are limited to 65535 bytes.
+     */
+    private static String readString(DataInputStream in, byte version) throws IOException {
+        return version > RECORD_FORMAT_VERSION_WITHOUT_LONG_STRINGS ? BinaryCodec.readString(in) : in.readUTF();
+    }
+}
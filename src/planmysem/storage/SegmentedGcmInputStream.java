@@ -0,0 +1,154 @@
+package planmysem.storage;
+
+import static planmysem.storage.SegmentedGcmOutputStream.NONCE_PREFIX_LENGTH;
+import static planmysem.storage.SegmentedGcmOutputStream.SEGMENT_SIZE;
+import static planmysem.storage.SegmentedGcmOutputStream.TAG_LENGTH;
+import static planmysem.storage.SegmentedGcmOutputStream.TRANSFORMATION;
+import static planmysem.storage.SegmentedGcmOutputStream.getAssociatedData;
+import static planmysem.storage.SegmentedGcmOutputStream.getNonce;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Decrypts a stream written by {@link SegmentedGcmOutputStream}, one segment at a time.
+ * Bytes of a segment are only returned after the authentication tag of the segment has been verified.
+ */
+class SegmentedGcmInputStream extends FilterInputStream {
+    private final DataInputStream in;
+    private final Cipher cipher;
+    private final SecretKey key;
+    private final byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+    private final byte[] associatedData;
+    private final byte[] encrypted = new byte[SEGMENT_SIZE + TAG_LENGTH];
+    private byte[] segment = new byte[0];
+    private int position;
+    private int segmentIndex;
+    private boolean isLastSegmentRead;
+
+    SegmentedGcmInputStream(InputStream in, SecretKey key, byte[] associatedData) throws IOException {
+        super(in);
+        this.in = new DataInputStream(in);
+        this.key = key;
+        this.associatedData = associatedData.clone();
+        try {
+            cipher = Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException gse) {
+            throw new IOException("AES-GCM is not available", gse);
+        }
+        readFully(noncePrefix, noncePrefix.length);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (position == segment.length) {
+            if (isLastSegmentRead) {
+                return -1;
+            }
+            readSegment();
+        }
+        final int count = Math.min(length, segment.length - position);
+        System.arraycopy(segment, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final byte[] buffer = new byte[(int) Math.min(n, SEGMENT_SIZE)];
+        long skipped = 0;
+        int read;
+        while (skipped < n && (read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length))) != -1) {
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return segment.length - position;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Reads and decrypts the next segment.
+     *
+     * @throws CorruptedDataException if the segment was changed or the stream ends before its last segment.
+     */
+    private void readSegment() throws IOException {
+        final int flag = in.read();
+        if (flag != 0 && flag != 1) {
+            throw new CorruptedDataException();
+        }
+        final boolean isLast = flag == 1;
+        final int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException eofe) {
+            throw new CorruptedDataException();
+        }
+        if (length < TAG_LENGTH || length > encrypted.length) {
+            throw new CorruptedDataException();
+        }
+        readFully(encrypted, length);
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key,
+                    new GCMParameterSpec(TAG_LENGTH * 8, getNonce(noncePrefix, segmentIndex)));
+            cipher.updateAAD(getAssociatedData(associatedData, isLast));
+            segment = cipher.doFinal(encrypted, 0, length);
+        } catch (GeneralSecurityException gse) {
+            throw new CorruptedDataException();
+        }
+        position = 0;
+        segmentIndex++;
+        if (isLast) {
+            isLastSegmentRead = true;
+            if (in.read() != -1) {
+                throw new CorruptedDataException();
+            }
+        }
+    }
+
+    /**
+     * Reads exactly {@code length} bytes into {@code buffer}.
+     *
+     * @throws CorruptedDataException if the stream ends first.
+     */
+    private void readFully(byte[] buffer, int length) throws IOException {
+        try {
+            in.readFully(buffer, 0, length);
+        } catch (EOFException eofe) {
+            throw new CorruptedDataException();
+        }
+    }
+
+    /**
+     * Signals that the encrypted data was changed, truncated or was not encrypted with the expected key.
+     */
+    public static class CorruptedDataException extends IOException {
+        public CorruptedDataException() {
+            super("Encrypted data is corrupted");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package planmysem.storage;
+
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * Encrypts the bytes written to it with AES-GCM, one segment at a time, so that only a single segment is ever held
+ * in memory. A stream written by this class is read back by {@link SegmentedGcmInputStream}.
+ * <p>
+ * The stream starts with a random nonce prefix. Each segment is written as a flag marking the last segment,
+ * the length of the encrypted segment and the encrypted segment including its authentication tag.
+ * The nonce of a segment is the prefix followed by the index of the segment, and the flag is authenticated together
+ * with {@code associatedData}, so segments cannot be changed, reordered, removed or appended to without detection.
+ */
+class SegmentedGcmOutputStream extends FilterOutputStream {
+    static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    static final int SEGMENT_SIZE = 64 * 1024;
+    static final int NONCE_PREFIX_LENGTH = 8;
+    static final int NONCE_LENGTH = NONCE_PREFIX_LENGTH + 4;
+    static final int TAG_LENGTH = 16;
+
+    private final DataOutputStream out;
+    private final Cipher cipher;
+    private final SecretKey key;
+    private final byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+    private final byte[] associatedData;
+    private final byte[] segment = new byte[SEGMENT_SIZE];
+    private int segmentLength;
+    private int segmentIndex;
+    private boolean isClosed;
+
+    SegmentedGcmOutputStream(OutputStream out, SecretKey key, SecureRandom random, byte[] associatedData)
+            throws IOException {
+        super(out);
+        this.out = new DataOutputStream(out);
+        this.key = key;
+        this.associatedData = associatedData.clone();
+        try {
+            cipher = Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException gse) {
+            throw new IOException("AES-GCM is not available", gse);
+        }
+        random.nextBytes(noncePrefix);
+        this.out.write(noncePrefix);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            // a full segment is only written once more bytes arrive, as the last segment is marked differently
+            if (segmentLength == SEGMENT_SIZE) {
+                writeSegment(false);
+            }
+            final int count = Math.min(length - written, SEGMENT_SIZE - segmentLength);
+            System.arraycopy(bytes, offset + written, segment, segmentLength, count);
+            segmentLength += count;
+            written += count;
+        }
+    }
+
+    /**
+     * Writes the last segment and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        try {
+            writeSegment(true);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Encrypts and writes the buffered segment.
+     */
+    private void writeSegment(boolean isLast) throws IOException {
+        final byte[] encrypted;
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, key,
+                    new GCMParameterSpec(TAG_LENGTH * 8, getNonce(noncePrefix, segmentIndex)));
+            cipher.updateAAD(getAssociatedData(associatedData, isLast));
+            encrypted = cipher.doFinal(segment, 0, segmentLength);
+        } catch (GeneralSecurityException gse) {
+            throw new IOException("Error encrypting data", gse);
+        }
+        out.writeBoolean(isLast);
+        out.writeInt(encrypted.length);
+        out.write(encrypted);
+        segmentLength = 0;
+        segmentIndex++;
+    }
+
+    /**
+     * Returns the nonce of the segment with the given index.
+     */
+    static byte[] getNonce(byte[] noncePrefix, int segmentIndex) {
+        return ByteBuffer.allocate(NONCE_LENGTH).put(noncePrefix).putInt(segmentIndex).array();
+    }
+
+    /**
+     * Returns the data authenticated together with a segment.
+     */
+    static byte[] getAssociatedData(byte[] associatedData, boolean isLast) {
+        final byte[] result = Arrays.copyOf(associatedData, associatedData.length + 1);
+        result[associatedData.length] = (byte) (isLast ? 1 : 0);
+        return result;
+    }
+}
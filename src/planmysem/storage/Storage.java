@@ -1,7 +1,10 @@
 package planmysem.storage;
 
+import java.util.function.Consumer;
+
 import planmysem.common.exceptions.IllegalValueException;
 import planmysem.model.Planner;
+import planmysem.model.PlannerHistory;
 
 /**
  * API of the Logic component
@@ -15,6 +18,17 @@ public interface Storage {
      */
     void save(Planner planner) throws StorageFile.StorageOperationException;
 
+    /**
+     * Runs {@code historyWrites}, which were taken by {@link #takeHistoryWrites} when {@code planner} was taken for
+     * saving, and then saves {@code planner}, so that the history is never written ahead of the planner.
+     *
+     * @throws StorageFile.StorageOperationException if there were errors converting and/or storing model to file.
+     */
+    default void save(Planner planner, Runnable historyWrites) throws StorageOperationException {
+        historyWrites.run();
+        save(planner);
+    }
+
     /**
      * Loads model from this storage file.
      *
@@ -22,11 +36,51 @@ public interface Storage {
      */
     Planner load() throws StorageFile.StorageOperationException;
 
+    /**
+     * Loads the undo history of {@code planner}, which was returned by {@link #load()}.
+     * Storages which do not keep the history return a new history kept in memory only.
+     *
+     * @throws StorageFile.StorageOperationException if the history cannot be read.
+     */
+    default PlannerHistory loadHistory(Planner planner) throws StorageOperationException {
+        return PlannerHistory.inMemory();
+    }
+
+    /**
+     * Takes the changes made to the history returned by {@link #loadHistory} which were not written yet, as a task
+     * which writes them. Storages which do not keep the history return a task which does nothing.
+     */
+    default Runnable takeHistoryWrites() {
+        return () -> { };
+    }
+
     /**
      * Gets path of file.
      **/
     String getPath();
 
+    /**
+     * Returns the sizes of the data kept by this storage, as of the last time it was read or fully written.
+     */
+    default StorageStatistics getStatistics() {
+        return new StorageStatistics(0, 0, 0, 0);
+    }
+
+    /**
+     * Blocks until every planner passed to {@link #save} so far has been written.
+     *
+     * @throws StorageFile.StorageOperationException if some of the changes could not be written.
+     */
+    default void flush() throws StorageOperationException {
+    }
+
+    /**
+     * Sets the handler to notify when a save fails after {@link #save} has returned.
+     * Storages which report every failure by throwing from {@link #save} never notify the handler.
+     */
+    default void setSaveFailureHandler(Consumer<StorageOperationException> handler) {
+    }
+
     /**
      * Signals that the given file path does not fulfill the storage filepath constraints.
      */
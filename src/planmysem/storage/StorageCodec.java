@@ -0,0 +1,114 @@
+package planmysem.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.semester.Day;
+import planmysem.model.semester.ReadOnlyDay;
+import planmysem.model.semester.Semester;
+import planmysem.storage.binary.BinaryCodec;
+import planmysem.storage.jaxb.XmlCodec;
+import planmysem.storage.json.JsonCodec;
+
+/**
+ * Converts the parts of a Planner to and from the bytes stored in the body of a storage file.
+ * The id of the codec is stored in the header of every file, so each file is read with the codec it was written with.
+ */
+public interface StorageCodec {
+    /**
+     * System property which selects the codec new files are written with, by name.
+     */
+    String CODEC_PROPERTY = "planmysem.storage.codec";
+
+    /**
+     * Returns the id stored in the header of files written with this codec. Ids range from 0 to 15.
+     */
+    int getId();
+
+    /**
+     * Returns the name by which this codec is selected.
+     */
+    String getName();
+
+    /**
+     * Returns a codec which reads data written in the given schema {@code version} of the binary format.
+     * Codecs whose data does not depend on the schema version return themselves.
+     */
+    default StorageCodec forVersion(int version) {
+        return this;
+    }
+
+    /**
+     * Writes the details of {@code semester}, without its days.
+     */
+    void encodeSemester(Semester semester, OutputStream out) throws IOException;
+
+    /**
+     * Reads the details written by {@link #encodeSemester} into a semester without days.
+     *
+     * @throws IllegalValueException if the data does not describe a valid semester.
+     */
+    Semester decodeSemester(InputStream in) throws IOException, IllegalValueException;
+
+    /**
+     * Writes {@code days}.
+     */
+    void encodeDays(Map<LocalDate, ? extends ReadOnlyDay> days, OutputStream out) throws IOException;
+
+    /**
+     * Reads days written by {@link #encodeDays}.
+     *
+     * @throws IllegalValueException if the data does not describe valid days.
+     */
+    HashMap<LocalDate, Day> decodeDays(InputStream in) throws IOException, IllegalValueException;
+
+    /**
+     * Returns the codecs files can be written with.
+     */
+    static StorageCodec[] getCodecs() {
+        return new StorageCodec[] {new BinaryCodec(), new XmlCodec(), new JsonCodec()};
+    }
+
+    /**
+     * Returns the codec with the given id, or null if there is none.
+     */
+    static StorageCodec forId(int id) {
+        for (StorageCodec codec : getCodecs()) {
+            if (codec.getId() == id) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the codec with the given name, or null if there is none.
+     */
+    static StorageCodec forName(String name) {
+        for (StorageCodec codec : getCodecs()) {
+            if (codec.getName().equalsIgnoreCase(name)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the codec selected by {@link #CODEC_PROPERTY}, which is the binary codec by default.
+     *
+     * @throws IllegalArgumentException if the property names no codec.
+     */
+    static StorageCodec getConfigured() {
+        final String name = System.getProperty(CODEC_PROPERTY, BinaryCodec.NAME);
+        final StorageCodec codec = forName(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown storage codec: " + name);
+        }
+        return codec;
+    }
+}
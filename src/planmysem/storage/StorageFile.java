@@ -1,28 +1,46 @@
 package planmysem.storage;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.StringReader;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 
+import planmysem.common.Clock;
 import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.HistoryBudget;
 import planmysem.model.Planner;
+import planmysem.model.PlannerHistory;
+import planmysem.model.semester.Day;
+import planmysem.model.semester.Semester;
+import planmysem.model.semester.WeekLoader.WeekLoadException;
+import planmysem.storage.binary.BinaryCodec;
 import planmysem.storage.jaxb.AdaptedPlanner;
 
 /**
  * Represents the file used to store Planner model.
+ * The file is a manifest holding the details of the semester and listing the files in which each academic week is
+ * stored, see {@link WeekShards}. On load, only the current week is read; other weeks are read when first needed.
+ * All files are in the binary format of {@link BinaryFile}, compressed and then encrypted with AES-GCM.
+ * Their bodies are written with the configured {@link StorageCodec}; files written with another codec are
+ * converted when they are loaded. The undo history is kept in a separate file, see {@link HistoryFile}.
  */
 public class StorageFile implements Storage {
     /**
@@ -30,12 +48,31 @@ public class StorageFile implements Storage {
      */
     public static final String DEFAULT_STORAGE_FILEPATH = "PlanMySem.txt";
 
+    /**
+     * Number of journal records after which the next save writes the whole planner again.
+     */
+    private static final int MAX_JOURNAL_RECORDS = 200;
+
     /* Note: Note the use of nested classes below.
      * More info https://docs.oracle.com/javase/tutorial/java/javaOO/nested.html
      */
     public final Path path;
+    private final JournalFile journal;
+    private final Path historyPath;
+    private final WeekShards weeks;
+    private final StorageCodec codec;
     private final JAXBContext jaxbContext;
     private final boolean isEncrypted = true; //set to true to encrypt model
+    private final boolean isCompressed = true; //set to true to compress model before encrypting it
+    private final boolean isDictionaryCompressed = true; //set to false to compress without a preset dictionary
+    private final boolean isJournaled = true; //set to false to rewrite the whole file on every save
+    private final boolean isHistoryPersisted = true; //set to false to keep the undo history in memory only
+
+    // The dates of the days which changed since the last snapshot.
+    private final Set<LocalDate> changedDates = new HashSet<>();
+    private String snapshotChecksum; // checksum of the manifest the journal applies to
+    private HistoryFile history; // null until the history is loaded
+    private volatile StorageStatistics statistics = new StorageStatistics(0, 0, 0, 0);
 
     /**
      * @throws InvalidStorageFilePathException if the default path is invalid
@@ -48,6 +85,15 @@ public class StorageFile implements Storage {
      * @throws InvalidStorageFilePathException if the given file path is invalid
      */
     public StorageFile(String filePath) throws JAXBException, InvalidStorageFilePathException {
+        this(filePath, StorageCodec.getConfigured());
+    }
+
+    /**
+     * @param codec the codec files are written with
+     * @throws InvalidStorageFilePathException if the given file path is invalid
+     */
+    public StorageFile(String filePath, StorageCodec codec) throws JAXBException, InvalidStorageFilePathException {
+        this.codec = codec;
         try {
             jaxbContext = JAXBContext.newInstance(AdaptedPlanner.class);
         } catch (JAXBException ex) {
@@ -58,6 +104,9 @@ public class StorageFile implements Storage {
         if (!isValidPath(path)) {
             throw new InvalidStorageFilePathException("Storage file should end with '.txt'");
         }
+        journal = new JournalFile(Paths.get(filePath + ".journal"), isEncrypted);
+        historyPath = Paths.get(filePath + ".history");
+        weeks = new WeekShards(Paths.get(filePath + ".weeks"), getFlags(), codec);
     }
 
     /**
@@ -68,66 +117,179 @@ public class StorageFile implements Storage {
         return filePath.toString().endsWith(".txt");
     }
 
+    /**
+     * Saves the changes made to {@code planner} since it was last saved, together with the changes made to its
+     * history since then.
+     */
     @Override
     public void save(Planner planner) throws StorageOperationException {
-        /* Note: Note the 'try with resource' statement below.
-         * More info: https://docs.oracle.com/javase/tutorial/essential/exceptions/tryResourceClose.html
-         */
-        try (final Writer fileWriter =
-                     new BufferedWriter(new FileWriter(path.toFile()))) {
-
-            final AdaptedPlanner toSave = new AdaptedPlanner(planner);
-            final Marshaller marshaller = jaxbContext.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            if (isEncrypted) {
-                StringWriter sw = new StringWriter();
-                marshaller.marshal(toSave, sw);
-                fileWriter.write(Encryptor.encrypt(sw.toString()));
+        save(planner, takeHistoryWrites());
+    }
+
+    /**
+     * Writes the changes of the history, then the changes made to {@code planner} since it was last saved.
+     * The changes of the planner are appended to the journal when possible, otherwise the whole planner is written.
+     * Once the planner is saved, the history records the state it was saved in.
+     */
+    @Override
+    public void save(Planner planner, Runnable historyWrites) throws StorageOperationException {
+        historyWrites.run();
+        if (!planner.hasUnsavedChanges()) {
+            recordSavedState();
+            return;
+        }
+
+        changedDates.addAll(planner.getSemester().getDirtyDates());
+        try {
+            if (isJournaled && !planner.isSnapshotRequired() && journal.canAppend()
+                    && journal.getRecordCount() < MAX_JOURNAL_RECORDS) {
+                journal.append(planner.getUnsavedOperations());
             } else {
-                marshaller.marshal(toSave, fileWriter);
+                saveSnapshot(planner);
             }
-
-        } catch (IOException ioe) {
-            throw new StorageOperationException("Error writing to file: " + path + " error: " + ioe.getMessage());
-        } catch (JAXBException jaxbe) {
-            throw new StorageOperationException("Error converting Planner into storage format");
+        } catch (IOException | WeekLoadException e) {
+            throw new StorageOperationException("Error writing to file: " + path + " error: " + e.getMessage());
         }
+        planner.markSaved();
+        recordSavedState();
     }
 
     @Override
-    public Planner load() throws StorageOperationException {
-        try (final BufferedReader fileReader =
-                     new BufferedReader(new FileReader(path.toFile()))) {
-
-            final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            final AdaptedPlanner loaded;
-            //decrypts
-            if (isEncrypted) {
-                StringReader decryptedData;
-                decryptedData = new StringReader(Encryptor.decrypt(fileReader.readLine()));
-                loaded = (AdaptedPlanner) unmarshaller.unmarshal(decryptedData);
-            } else {
-                loaded = (AdaptedPlanner) unmarshaller.unmarshal(fileReader);
-            }
+    public Runnable takeHistoryWrites() {
+        return history == null ? () -> { } : history.takePendingWrites();
+    }
 
-            // manual check for missing elements
-            if (loaded.isAnyRequiredFieldMissing()) {
-                throw new StorageOperationException("File model missing some elements");
+    /**
+     * Returns the state the planner was last read or written in, which is the checksum of its snapshot and the number
+     * of journal records applied to it.
+     */
+    private String getSavedState() {
+        return snapshotChecksum + " " + journal.getRecordCount();
+    }
+
+    /**
+     * Records in the history that the planner was saved in its current state.
+     */
+    private void recordSavedState() {
+        if (history != null) {
+            history.recordSavedState(getSavedState());
+        }
+    }
+
+    /**
+     * Returns the flags of the files written, which say how their content is stored.
+     */
+    private int getFlags() {
+        return (isEncrypted ? BinaryFile.FLAG_ENCRYPTED : 0) | (isCompressed ? BinaryFile.FLAG_COMPRESSED : 0);
+    }
+
+    /**
+     * Writes the weeks of {@code planner} which changed since the last snapshot and a manifest listing them,
+     * then starts a new journal for it.
+     * Weeks which were not read from this storage yet are only written if their file was replaced since.
+     */
+    private void saveSnapshot(Planner planner) throws IOException {
+        final Semester semester = planner.getSemester();
+        final WeekShards.Loader loader = weeks.getOwnLoader(semester.getWeekLoader());
+        if (loader == null) {
+            // weeks left out by another storage cannot be told apart from the weeks of this storage
+            semester.getDays();
+        }
+
+        final Set<LocalDate> changedWeeks = new HashSet<>();
+        for (LocalDate date : changedDates) {
+            changedWeeks.add(semester.getWeekStart(date));
+        }
+        final Map<LocalDate, Map<LocalDate, Day>> loadedWeeks = new HashMap<>();
+        for (Map.Entry<LocalDate, Day> entry : semester.getLoadedDays().entrySet()) {
+            loadedWeeks.computeIfAbsent(semester.getWeekStart(entry.getKey()), weekStart -> new HashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+
+        final CompressionDictionary dictionary = isDictionaryCompressed
+                ? CompressionDictionary.build(semester.getLoadedDays().values())
+                : null;
+        final Map<LocalDate, WeekShards.Shard> listed = new HashMap<>();
+        final List<WeekShards.Shard> written = new ArrayList<>();
+        try {
+            for (Map.Entry<LocalDate, Map<LocalDate, Day>> week : loadedWeeks.entrySet()) {
+                WeekShards.Shard shard = weeks.get(week.getKey());
+                if (shard == null || changedWeeks.contains(week.getKey())) {
+                    shard = weeks.write(week.getKey(), week.getValue(), dictionary);
+                    written.add(shard);
+                }
+                listed.put(week.getKey(), shard);
+            }
+            for (LocalDate weekStart : semester.getUnloadedWeeks()) {
+                WeekShards.Shard shard = loader.get(weekStart);
+                if (shard != null && !shard.equals(weeks.get(weekStart))) {
+                    // the week was saved since it was loaded, e.g. before the change to it was undone
+                    shard = weeks.write(weekStart, loader.loadWeek(weekStart), dictionary);
+                    written.add(shard);
+                }
+                if (shard != null) {
+                    listed.put(weekStart, shard);
+                }
             }
-            return loaded.toModelType();
 
+            final BinaryFile.Written manifest = BinaryFile.write(path, getFlags(), codec, null, out -> {
+                // the details are length-prefixed, as a codec may read ahead of the data it needs
+                final ByteArrayOutputStream details = new ByteArrayOutputStream();
+                codec.encodeSemester(semester, details);
+                out.writeInt(details.size());
+                details.writeTo(out);
+                weeks.writeManifest(out, listed);
+            });
+            weeks.commit(listed);
+            statistics = weeks.getStatistics();
+            changedDates.clear();
+            snapshotChecksum = Long.toHexString(manifest.getChecksum());
+            journal.reset(snapshotChecksum);
+        } catch (IOException | WeekLoadException e) {
+            weeks.discard(written);
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the planner from the storage file and replays the journal over it.
+     * Files in older formats are converted to the current format.
+     */
+    @Override
+    public Planner load() throws StorageOperationException {
+        try {
             /* Note: Here, we are using an exception to create the file if it is missing or empty. However, we should
              * minimize using exceptions to facilitate normal paths of execution. If we consider the missing file as a
              * 'normal' situation (i.e. not truly exceptional) we should not use an exception to handle it.
              */
 
             // create empty planner if not found or is empty.
-        } catch (FileNotFoundException | NullPointerException e) {
-            final Planner empty = new Planner();
-            save(empty);
-            return empty;
+            if (!Files.exists(path) || Files.size(path) == 0) {
+                // the undo history of a planner which no longer exists cannot be applied to a new one
+                Files.deleteIfExists(historyPath);
+                final Planner empty = new Planner();
+                save(empty);
+                return empty;
+            }
+
+            try (BinaryFile.Reader reader = new BinaryFile.Reader(path)) {
+                if (!reader.isBinary()) {
+                    return loadLegacy(reader.readAll());
+                }
+                if (reader.getVersion() > BinaryCodec.SCHEMA_VERSION) {
+                    throw new StorageOperationException("File was written by a newer version of PlanMySem: " + path);
+                }
+                if (reader.getVersion() == BinaryCodec.SCHEMA_VERSION_SINGLE_FILE) {
+                    return loadSingleFile(reader);
+                }
+                return loadManifest(reader);
+            }
 
             // other errors
+        } catch (SegmentedGcmInputStream.CorruptedDataException cde) {
+            throw new StorageOperationException("File is corrupted or was not encrypted with this key: " + path);
+        } catch (WeekLoadException wle) {
+            throw new StorageOperationException(wle.getMessage());
         } catch (IOException ioe) {
             throw new StorageOperationException("Error writing to file: " + path);
         } catch (JAXBException jaxbe) {
@@ -137,6 +299,141 @@ public class StorageFile implements Storage {
         }
     }
 
+    /**
+     * Reads the manifest and the current week, leaving the other weeks to be read when they are first needed.
+     * If the files were written with another codec, all weeks are read and written again with the configured codec.
+     */
+    private Planner loadManifest(BinaryFile.Reader reader) throws IOException, IllegalValueException {
+        final DataInputStream in = reader.openBody();
+        final Semester semester = readSemester(reader, in);
+        weeks.readManifest(in, reader.getVersion());
+        final long checksum = reader.finish();
+        weeks.deleteUnlistedFiles();
+        statistics = weeks.getStatistics();
+
+        final WeekShards.Loader loader = weeks.newLoader();
+        final Set<LocalDate> unloadedWeeks = new HashSet<>(weeks.getWeekStarts());
+        final LocalDate currentWeek = semester.getWeekStart(LocalDate.now(Clock.get()));
+        final HashMap<LocalDate, Day> days = new HashMap<>();
+        if (unloadedWeeks.remove(currentWeek)) {
+            days.putAll(loader.loadWeek(currentWeek));
+        }
+        semester.setDays(days);
+        semester.setUnloadedWeeks(unloadedWeeks, loader);
+        final Planner planner = replayJournal(new Planner(semester), checksum);
+
+        if (reader.getCodec().getId() != codec.getId()) {
+            changedDates.addAll(planner.getSemester().getDays().keySet());
+            saveSnapshot(planner);
+        }
+        return planner;
+    }
+
+    /**
+     * Reads the details of the semester at the start of the manifest.
+     */
+    private static Semester readSemester(BinaryFile.Reader reader, DataInputStream in)
+            throws IOException, IllegalValueException {
+        if (reader.getVersion() == BinaryCodec.SCHEMA_VERSION_BINARY_MANIFEST) {
+            return new BinaryCodec(BinaryCodec.SCHEMA_VERSION_BINARY_MANIFEST).decodeSemester(in);
+        }
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new IllegalValueException("File contains illegal data values");
+        }
+        final byte[] details = new byte[length];
+        in.readFully(details);
+        return reader.getCodec().decodeSemester(new ByteArrayInputStream(details));
+    }
+
+    /**
+     * Reads a whole planner stored in a single file, and converts it to the current format.
+     */
+    private Planner loadSingleFile(BinaryFile.Reader reader) throws IOException, IllegalValueException {
+        final BinaryCodec singleFileCodec = new BinaryCodec(BinaryCodec.SCHEMA_VERSION_SINGLE_FILE);
+        final Planner planner = singleFileCodec.decodePlanner(reader.openBody());
+        replayJournal(planner, reader.finish());
+        saveSnapshot(planner);
+        planner.markSaved();
+        return planner;
+    }
+
+    /**
+     * Replays the journal of the snapshot with the given checksum over {@code planner}.
+     * The days changed by the journal are written with the next snapshot.
+     */
+    private Planner replayJournal(Planner planner, long checksum) throws IOException {
+        planner.markSaved();
+        snapshotChecksum = Long.toHexString(checksum);
+        journal.replay(planner, snapshotChecksum);
+        changedDates.addAll(planner.getSemester().getDirtyDates());
+        planner.markSaved();
+        return planner;
+    }
+
+    /**
+     * Reads a file in the older XML format, replays its journal and converts it to the current format.
+     */
+    private Planner loadLegacy(byte[] content)
+            throws IOException, JAXBException, IllegalValueException, StorageOperationException {
+        final String text = new String(content, StandardCharsets.UTF_8);
+        final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        final String snapshot;
+        final AdaptedPlanner loaded;
+        //decrypts
+        if (isEncrypted) {
+            snapshot = new BufferedReader(new StringReader(text)).readLine();
+            loaded = (AdaptedPlanner) unmarshaller.unmarshal(new StringReader(Encryptor.decrypt(snapshot)));
+        } else {
+            snapshot = text;
+            loaded = (AdaptedPlanner) unmarshaller.unmarshal(new StringReader(snapshot));
+        }
+
+        // manual check for missing elements
+        if (loaded.isAnyRequiredFieldMissing()) {
+            throw new StorageOperationException("File model missing some elements");
+        }
+        final Planner planner = loaded.toModelType();
+        journal.replay(planner, getChecksum(snapshot.getBytes(StandardCharsets.UTF_8)));
+        saveSnapshot(planner);
+        planner.markSaved();
+        return planner;
+    }
+
+    /**
+     * Returns the checksum identifying a snapshot with the given content.
+     */
+    private static String getChecksum(byte[] content) {
+        final CRC32 crc = new CRC32();
+        crc.update(content);
+        return Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Reads the undo history of {@code planner}, as it was when the planner was saved in the state it was loaded in.
+     * The history of another semester, or of another state of the planner, is discarded.
+     */
+    @Override
+    public PlannerHistory loadHistory(Planner planner) throws StorageOperationException {
+        if (!isHistoryPersisted) {
+            return PlannerHistory.inMemory();
+        }
+        final Semester semester = planner.getSemester();
+        final HistoryFile history = new HistoryFile(historyPath, isEncrypted, codec, HistoryBudget.getConfigured());
+        try {
+            history.open(semester.getStartDate() + " " + semester.getEndDate(), getSavedState());
+        } catch (IOException ioe) {
+            throw new StorageOperationException("Error reading undo history from file: " + historyPath);
+        }
+        this.history = history;
+        return history;
+    }
+
+    @Override
+    public StorageStatistics getStatistics() {
+        return statistics;
+    }
+
     @Override
     public String getPath() {
         return path.toString();
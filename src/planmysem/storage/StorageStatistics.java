@@ -0,0 +1,49 @@
+package planmysem.storage;
+
+/**
+ * Sizes of the data kept by a storage, used to report how well it is compressed.
+ */
+public class StorageStatistics {
+    private final int fileCount;
+    private final long dataLength;
+    private final long storedLength;
+    private final int dictionaryLength;
+
+    /**
+     * @param fileCount the number of files the data is kept in
+     * @param dataLength the length of the data before it was compressed
+     * @param storedLength the length of the data after it was compressed
+     * @param dictionaryLength the total length of the preset dictionaries the data was compressed with
+     */
+    public StorageStatistics(int fileCount, long dataLength, long storedLength, int dictionaryLength) {
+        this.fileCount = fileCount;
+        this.dataLength = dataLength;
+        this.storedLength = storedLength;
+        this.dictionaryLength = dictionaryLength;
+    }
+
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    public long getStoredLength() {
+        return storedLength;
+    }
+
+    public int getDictionaryLength() {
+        return dictionaryLength;
+    }
+
+    /**
+     * Returns how many times smaller the data became when it was compressed, or 0 if there is no data.
+     * The dictionaries count towards the compressed length, as they are stored too.
+     */
+    public double getCompressionRatio() {
+        final long compressedLength = storedLength + dictionaryLength;
+        return compressedLength == 0 ? 0 : (double) dataLength / compressedLength;
+    }
+}
@@ -0,0 +1,419 @@
+package planmysem.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.semester.Day;
+import planmysem.model.semester.WeekLoader;
+import planmysem.storage.binary.BinaryCodec;
+
+/**
+ * Stores each academic week of a planner in its own file, so that weeks can be read when they are first needed
+ * and only the weeks which changed have to be written again.
+ * <p>
+ * The files of the current weeks are listed in a manifest. Every file is named after the first date of its week and
+ * a generation number which increases with every file written, so a file listed in the manifest is never
+ * overwritten. Files which are no longer listed are deleted once the new manifest has been written.
+ * The manifest also holds the preset dictionaries the listed files were compressed with.
+ */
+class WeekShards {
+    private static final String FILE_EXTENSION = ".bin";
+    private static final int NO_DICTIONARY = 0;
+
+    private final Path directory;
+    private final int flags;
+    private final StorageCodec codec;
+    private final Map<LocalDate, Shard> shards = new HashMap<>();
+    private final Map<Integer, CompressionDictionary> dictionaries = new HashMap<>();
+    private long nextGeneration;
+
+    // Loaders handed out for the semesters read from this storage, which may still read files deleted since.
+    private final List<WeakReference<Loader>> loaders = new ArrayList<>();
+
+    WeekShards(Path directory, int flags, StorageCodec codec) {
+        this.directory = directory;
+        this.flags = flags;
+        this.codec = codec;
+    }
+
+    /**
+     * Returns the first dates of the weeks listed in the manifest.
+     */
+    Set<LocalDate> getWeekStarts() {
+        return Collections.unmodifiableSet(shards.keySet());
+    }
+
+    /**
+     * Returns the file listed in the manifest for the week starting on {@code weekStart}, or null if there is none.
+     */
+    Shard get(LocalDate weekStart) {
+        return shards.get(weekStart);
+    }
+
+    /**
+     * Writes the list of files, and the dictionaries they were compressed with, to the manifest.
+     */
+    void writeManifest(DataOutputStream out, Map<LocalDate, Shard> listed) throws IOException {
+        out.writeLong(nextGeneration);
+        final Set<Integer> dictionaryIds = getDictionaryIds(listed.values());
+        out.writeInt(dictionaryIds.size());
+        for (int dictionaryId : dictionaryIds) {
+            final byte[] dictionary = dictionaries.get(dictionaryId).getBytes();
+            out.writeInt(dictionary.length);
+            out.write(dictionary);
+        }
+        out.writeInt(listed.size());
+        for (Shard shard : listed.values()) {
+            out.writeInt((int) shard.weekStart.toEpochDay());
+            out.writeLong(shard.generation);
+            out.writeLong(shard.checksum);
+            out.writeInt(shard.dictionaryId);
+            out.writeLong(shard.dataLength);
+            out.writeLong(shard.storedLength);
+        }
+    }
+
+    /**
+     * Replaces the list of files with the list read from the manifest, which was written with the given version
+     * of the format.
+     */
+    void readManifest(DataInputStream in, int version) throws IOException, IllegalValueException {
+        final boolean hasDictionaries = version >= BinaryCodec.SCHEMA_VERSION_DICTIONARIES;
+        final long generation = in.readLong();
+        final Map<Integer, CompressionDictionary> readDictionaries = new HashMap<>();
+        final int dictionaryCount = hasDictionaries ? in.readInt() : 0;
+        for (int i = 0; i < dictionaryCount; i++) {
+            final int length = in.readInt();
+            if (length < 0 || length > CompressionDictionary.MAX_LENGTH) {
+                throw new IllegalValueException("File contains illegal data values");
+            }
+            final byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            final CompressionDictionary dictionary = new CompressionDictionary(bytes);
+            readDictionaries.put(dictionary.getId(), dictionary);
+        }
+
+        final int count = in.readInt();
+        final Map<LocalDate, Shard> listed = new HashMap<>();
+        try {
+            for (int i = 0; i < count; i++) {
+                final LocalDate weekStart = LocalDate.ofEpochDay(in.readInt());
+                final long shardGeneration = in.readLong();
+                final long checksum = in.readLong();
+                final Shard shard = hasDictionaries
+                        ? new Shard(weekStart, shardGeneration, checksum, in.readInt(), in.readLong(), in.readLong())
+                        : new Shard(weekStart, shardGeneration, checksum, NO_DICTIONARY, 0, 0);
+                listed.put(shard.weekStart, shard);
+            }
+        } catch (DateTimeException dte) {
+            throw new IllegalValueException("File contains illegal data values");
+        }
+        shards.clear();
+        shards.putAll(listed);
+        dictionaries.clear();
+        dictionaries.putAll(readDictionaries);
+        nextGeneration = generation;
+    }
+
+    /**
+     * Writes {@code days}, the days of the week starting on {@code weekStart}, to a new file.
+     * The file is only listed once it is passed to {@link #commit}.
+     *
+     * @param dictionary the preset dictionary to compress the file with, or null to compress it without one
+     */
+    Shard write(LocalDate weekStart, Map<LocalDate, Day> days, CompressionDictionary requestedDictionary)
+            throws IOException {
+        CompressionDictionary dictionary = requestedDictionary;
+        if (dictionary != null && dictionary.getId() != NO_DICTIONARY) {
+            // another dictionary may have the same id, which is too rare to be worth telling them apart
+            dictionary = dictionaries.computeIfAbsent(dictionary.getId(), id -> requestedDictionary);
+            dictionary = dictionary.equals(requestedDictionary) ? dictionary : null;
+        } else {
+            dictionary = null;
+        }
+
+        Files.createDirectories(directory);
+        final long generation = nextGeneration++;
+        final BinaryFile.Written written = BinaryFile.write(getFile(weekStart, generation), flags, codec, dictionary,
+            out -> codec.encodeDays(days, out));
+        return new Shard(weekStart, generation, written.getChecksum(),
+                dictionary == null ? NO_DICTIONARY : dictionary.getId(),
+                written.getBodyLength(), written.getStoredLength());
+    }
+
+    /**
+     * Returns the sizes of the listed files.
+     */
+    StorageStatistics getStatistics() {
+        long dataLength = 0;
+        long storedLength = 0;
+        for (Shard shard : shards.values()) {
+            dataLength += shard.dataLength;
+            storedLength += shard.storedLength;
+        }
+        int dictionaryLength = 0;
+        for (int dictionaryId : getDictionaryIds(shards.values())) {
+            dictionaryLength += dictionaries.get(dictionaryId).getBytes().length;
+        }
+        return new StorageStatistics(shards.size(), dataLength, storedLength, dictionaryLength);
+    }
+
+    /**
+     * Returns the ids of the dictionaries {@code listed} were compressed with.
+     */
+    private static Set<Integer> getDictionaryIds(Collection<Shard> listed) {
+        final Set<Integer> dictionaryIds = new TreeSet<>();
+        for (Shard shard : listed) {
+            if (shard.dictionaryId != NO_DICTIONARY) {
+                dictionaryIds.add(shard.dictionaryId);
+            }
+        }
+        return dictionaryIds;
+    }
+
+    /**
+     * Deletes files written by {@link #write} which will not be listed, e.g. because the manifest could not be
+     * written.
+     */
+    void discard(Collection<Shard> written) {
+        for (Shard shard : written) {
+            delete(shard);
+        }
+    }
+
+    /**
+     * Makes {@code listed} the list of files, after it has been written to the manifest,
+     * and deletes the files which are no longer listed.
+     */
+    void commit(Map<LocalDate, Shard> listed) {
+        final Set<Shard> unlisted = new HashSet<>(shards.values());
+        unlisted.removeAll(listed.values());
+        shards.clear();
+        shards.putAll(listed);
+        dictionaries.keySet().retainAll(getDictionaryIds(listed.values()));
+        for (Shard shard : unlisted) {
+            retainForLoaders(shard);
+            delete(shard);
+        }
+    }
+
+    /**
+     * Deletes the files in the directory which are not listed, such as files left behind by a save which was
+     * interrupted before its manifest was written.
+     */
+    void deleteUnlistedFiles() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        final Set<Path> listedFiles = new HashSet<>();
+        for (Shard shard : shards.values()) {
+            listedFiles.add(getFile(shard));
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (!listedFiles.contains(file)) {
+                    retainForLoaders(file);
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a loader which reads the weeks listed in the manifest at this point,
+     * even after the files of some of these weeks have been replaced.
+     */
+    Loader newLoader() {
+        final Loader loader = new Loader(new HashMap<>(shards), new HashMap<>(dictionaries));
+        loaders.removeIf(reference -> reference.get() == null);
+        loaders.add(new WeakReference<>(loader));
+        return loader;
+    }
+
+    /**
+     * Returns {@code weekLoader} if it is a loader of this storage, or null if it is not.
+     */
+    Loader getOwnLoader(WeekLoader weekLoader) {
+        for (WeakReference<Loader> reference : loaders) {
+            if (reference.get() != null && reference.get() == weekLoader) {
+                return (Loader) weekLoader;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lets the loaders which may still read {@code shard} keep its content before the file is deleted.
+     */
+    private void retainForLoaders(Shard shard) {
+        retainForLoaders(getFile(shard));
+    }
+
+    /**
+     * Lets the loaders which may still read {@code file} keep its content before the file is deleted.
+     */
+    private void retainForLoaders(Path file) {
+        for (WeakReference<Loader> reference : loaders) {
+            final Loader loader = reference.get();
+            if (loader != null) {
+                loader.retain(file);
+            }
+        }
+    }
+
+    /**
+     * Deletes the file of {@code shard}, ignoring failures as unlisted files are deleted on the next load.
+     */
+    private void delete(Shard shard) {
+        try {
+            Files.deleteIfExists(getFile(shard));
+        } catch (IOException ioe) {
+            // deleted on the next load
+        }
+    }
+
+    /**
+     * Reads the days stored in {@code in}, the content of the file of {@code shard}.
+     */
+    private static Map<LocalDate, Day> read(Shard shard, InputStream in,
+            Map<Integer, CompressionDictionary> dictionaries) throws IOException, IllegalValueException {
+        try (BinaryFile.Reader reader = new BinaryFile.Reader(in)) {
+            if (!reader.isBinary() || reader.getVersion() < BinaryCodec.SCHEMA_VERSION_BINARY_MANIFEST
+                    || reader.getVersion() > BinaryCodec.SCHEMA_VERSION) {
+                throw new IOException("Unsupported file format");
+            }
+            final Map<LocalDate, Day> days = reader.getCodec().decodeDays(reader.openBody(dictionaries));
+            if (reader.finish() != shard.checksum) {
+                throw new IOException("File does not match the manifest");
+            }
+            return days;
+        }
+    }
+
+    private Path getFile(Shard shard) {
+        return getFile(shard.weekStart, shard.generation);
+    }
+
+    private Path getFile(LocalDate weekStart, long generation) {
+        return directory.resolve(weekStart + "-" + generation + FILE_EXTENSION);
+    }
+
+    /**
+     * Identifies the file holding the days of one week.
+     */
+    static class Shard {
+        private final LocalDate weekStart;
+        private final long generation;
+        private final long checksum;
+        private final int dictionaryId;
+        private final long dataLength;
+        private final long storedLength;
+
+        Shard(LocalDate weekStart, long generation, long checksum, int dictionaryId, long dataLength,
+                long storedLength) {
+            this.weekStart = weekStart;
+            this.generation = generation;
+            this.checksum = checksum;
+            this.dictionaryId = dictionaryId;
+            this.dataLength = dataLength;
+            this.storedLength = storedLength;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other == this // short circuit if same object
+                    || (other instanceof Shard // instanceof handles nulls
+                    && weekStart.equals(((Shard) other).weekStart)
+                    && generation == ((Shard) other).generation
+                    && checksum == ((Shard) other).checksum);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(weekStart, generation, checksum);
+        }
+    }
+
+    /**
+     * Reads the weeks listed in the manifest when the loader was created.
+     * Files deleted since are kept in memory by the loader.
+     */
+    class Loader implements WeekLoader {
+        private final Map<LocalDate, Shard> listed;
+        private final Map<Integer, CompressionDictionary> listedDictionaries;
+        private final Map<Path, byte[]> retained = new HashMap<>();
+
+        private Loader(Map<LocalDate, Shard> listed, Map<Integer, CompressionDictionary> listedDictionaries) {
+            this.listed = listed;
+            this.listedDictionaries = listedDictionaries;
+        }
+
+        /**
+         * Returns the file this loader reads the week starting on {@code weekStart} from, or null if there is none.
+         */
+        Shard get(LocalDate weekStart) {
+            return listed.get(weekStart);
+        }
+
+        @Override
+        public Map<LocalDate, Day> loadWeek(LocalDate weekStart) {
+            final Shard shard = listed.get(weekStart);
+            if (shard == null) {
+                return new HashMap<>();
+            }
+            try (InputStream in = open(getFile(shard))) {
+                return read(shard, in, listedDictionaries);
+            } catch (IOException | IllegalValueException e) {
+                throw new WeekLoadException("Error reading week of " + weekStart + " from " + directory
+                        + " error: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Opens {@code file}, or its content if the file was deleted since.
+         */
+        private synchronized InputStream open(Path file) throws IOException {
+            final byte[] content = retained.get(file);
+            return content != null ? new ByteArrayInputStream(content) : Files.newInputStream(file);
+        }
+
+        /**
+         * Keeps the content of {@code file} in memory if this loader may read it, as it is about to be deleted.
+         */
+        private synchronized void retain(Path file) {
+            if (retained.containsKey(file)) {
+                return;
+            }
+            for (Shard shard : listed.values()) {
+                if (getFile(shard).equals(file)) {
+                    try {
+                        retained.put(file, Files.readAllBytes(file));
+                    } catch (IOException ioe) {
+                        // the week cannot be read anymore, which loadWeek reports when it is needed
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package planmysem.storage.binary;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.Planner;
+import planmysem.model.semester.Day;
+import planmysem.model.semester.ReadOnlyDay;
+import planmysem.model.semester.Semester;
+import planmysem.model.slot.Slot;
+import planmysem.storage.StorageCodec;
+
+/**
+ * Converts the parts of a Planner to and from the compact binary storage format.
+ * Dates are written as epoch days and times as minutes of the day. Every distinct name, location, description,
+ * tag and week type of a group of days is written once in a string table, which the slots refer to by id.
+ * Each series of slots is written once per group of days as well: its first occurrence holds the details of the
+ * series, later occurrences refer to it by its position among the series of the group.
+ */
+public class BinaryCodec implements StorageCodec {
+    public static final int ID = 0;
+    public static final String NAME = "binary";
+
+    /**
+     * Bytes every file in the binary format starts with. The first byte is not a valid Base64 character,
+     * so files in the binary format cannot be mistaken for files in the older encrypted XML format.
+     */
+    public static final byte[] MAGIC = {(byte) 0x89, 'P', 'M', 'S'};
+
+    /**
+     * Version of the format written by this codec. Increase it whenever the format changes.
+     */
+    public static final int SCHEMA_VERSION = 6;
+
+    /**
+     * Version of the format in which the whole planner was written to a single file.
+     */
+    public static final int SCHEMA_VERSION_SINGLE_FILE = 1;
+
+    /**
+     * Version of the format in which the details of the semester were always written in binary at the start of
+     * the manifest, rather than length-prefixed by the codec of the file.
+     */
+    public static final int SCHEMA_VERSION_BINARY_MANIFEST = 2;
+
+    /**
+     * First version of the format in which the manifest holds the preset dictionaries the files were compressed
+     * with, and the lengths of the files.
+     */
+    public static final int SCHEMA_VERSION_DICTIONARIES = 4;
+
+    /**
+     * First version of the format in which the slots of a day are written with their ids, and series of slots
+     * are written once per group of days. Days written in earlier versions can still be read.
+     */
+    public static final int SCHEMA_VERSION_SLOT_SERIES = 5;
+
+    /**
+     * First version of the format in which strings are written as their length in bytes followed by their UTF-8
+     * encoding. Earlier versions wrote strings in modified UTF-8 with a two byte length, which limits them to
+     * 65535 bytes.
+     */
+    public static final int SCHEMA_VERSION_LONG_STRINGS = 6;
+
+    /**
+     * Written in place of the date of a day in the {@link #SCHEMA_VERSION_SLOT_SERIES} format. Days written in
+     * earlier versions start with their date, which is never this value.
+     */
+    private static final int DAY_WITH_SERIES = Integer.MIN_VALUE;
+
+    // Kinds of slots in a day written in the SCHEMA_VERSION_SLOT_SERIES format.
+    private static final byte SLOT = 0;
+    private static final byte SERIES_DEFINITION = 1;
+    private static final byte SERIES_OCCURRENCE = 2;
+
+    private static final String MESSAGE_ILLEGAL_VALUE = "File contains illegal data values";
+
+    private final int version;
+
+    public BinaryCodec() {
+        this(SCHEMA_VERSION);
+    }
+
+    /**
+     * Creates a codec which reads data written in the given {@code version} of the format.
+     * Data is always written in the current version.
+     */
+    public BinaryCodec(int version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns true if {@code content} starts with {@link #MAGIC}.
+     */
+    public static boolean hasMagic(byte[] content) {
+        if (content.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (content[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public StorageCodec forVersion(int version) {
+        return new BinaryCodec(version);
+    }
+
+    @Override
+    public void encodeSemester(Semester semester, OutputStream output) throws IOException {
+        final DataOutputStream out = new DataOutputStream(output);
+        writeString(out, semester.getName());
+        writeString(out, semester.getAcademicYear());
+        out.writeInt((int) semester.getStartDate().toEpochDay());
+        out.writeInt((int) semester.getEndDate().toEpochDay());
+        out.writeInt(semester.getNoOfWeeks());
+        writeDates(out, semester.getRecessDays());
+        writeDates(out, semester.getReadingDays());
+        writeDates(out, semester.getNormalDays());
+        writeDates(out, semester.getExamDays());
+    }
+
+    @Override
+    public Semester decodeSemester(InputStream input) throws IOException, IllegalValueException {
+        final DataInputStream in = new DataInputStream(input);
+        try {
+            final String name = readString(in, version);
+            final String academicYear = readString(in, version);
+            final LocalDate startDate = LocalDate.ofEpochDay(in.readInt());
+            final LocalDate endDate = LocalDate.ofEpochDay(in.readInt());
+            final int noOfWeeks = in.readInt();
+            final Set<LocalDate> recessDays = readDates(in);
+            final Set<LocalDate> readingDays = readDates(in);
+            final Set<LocalDate> normalDays = readDates(in);
+            final Set<LocalDate> examDays = readDates(in);
+            return new Semester(name, academicYear, new HashMap<>(), startDate, endDate, noOfWeeks,
+                    recessDays, readingDays, normalDays, examDays);
+        } catch (DateTimeException dte) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+    }
+
+    /**
+     * Writes {@code days} in date order, together with the string table they refer to.
+     */
+    @Override
+    public void encodeDays(Map<LocalDate, ? extends ReadOnlyDay> days, OutputStream output) throws IOException {
+        final DataOutputStream out = new DataOutputStream(output);
+        // days are encoded first, as they add strings to the table
+        final StringTable strings = new StringTable();
+        final Map<Slot, Integer> series = new IdentityHashMap<>();
+        final List<byte[]> encodedDays = new ArrayList<>();
+        for (Map.Entry<LocalDate, ? extends ReadOnlyDay> entry : new TreeMap<>(days).entrySet()) {
+            encodedDays.add(encodeDay(entry.getKey(), entry.getValue(), strings, series));
+        }
+
+        strings.write(out);
+        out.writeInt(encodedDays.size());
+        for (byte[] day : encodedDays) {
+            out.writeInt(day.length);
+            out.write(day);
+        }
+    }
+
+    @Override
+    public HashMap<LocalDate, Day> decodeDays(InputStream input) throws IOException, IllegalValueException {
+        final DataInputStream in = new DataInputStream(input);
+        final String[] table = StringTable.read(in, version);
+        final int dayCount = in.readInt();
+        final HashMap<LocalDate, Day> days = new HashMap<>();
+        final List<Slot> series = new ArrayList<>();
+        try {
+            for (int i = 0; i < dayCount; i++) {
+                final int length = in.readInt();
+                if (length < 0) {
+                    throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+                }
+                final byte[] encoded = new byte[length];
+                in.readFully(encoded);
+                decodeDay(encoded, table, series, days);
+            }
+        } catch (DateTimeException dte) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+        return days;
+    }
+
+    /**
+     * Reads a whole planner written in the {@link #SCHEMA_VERSION_SINGLE_FILE} format, which consists of
+     * the details of the semester followed by all of its days.
+     *
+     * @throws IllegalValueException if the data does not describe a valid planner.
+     */
+    public Planner decodePlanner(InputStream in) throws IOException, IllegalValueException {
+        final Semester semester = decodeSemester(in);
+        semester.setDays(decodeDays(in));
+        return new Planner(semester);
+    }
+
+    /**
+     * Encodes a single day, adding its strings to {@code strings} and the series first seen in it to {@code series}.
+     */
+    private static byte[] encodeDay(LocalDate date, ReadOnlyDay day, StringTable strings, Map<Slot, Integer> series)
+            throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(DAY_WITH_SERIES);
+            out.writeInt((int) date.toEpochDay());
+            out.writeInt(strings.getId(day.getType()));
+            out.writeInt(day.getSlots().size());
+            for (Slot slot : day.getSlots()) {
+                final Integer position = series.get(slot);
+                if (position != null) {
+                    out.writeByte(SERIES_OCCURRENCE);
+                    out.writeInt(position);
+                    continue;
+                }
+                if (slot.isOccurrence()) {
+                    series.put(slot, series.size());
+                    out.writeByte(SERIES_DEFINITION);
+                } else {
+                    out.writeByte(SLOT);
+                }
+                out.writeLong(slot.isOccurrence() ? slot.getSeriesId() : slot.getId());
+                writeSlotDetails(out, slot, strings);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the details of {@code slot}, adding its strings to {@code strings}.
+     */
+    private static void writeSlotDetails(DataOutputStream out, Slot slot, StringTable strings) throws IOException {
+        out.writeInt(strings.getId(slot.getName()));
+        out.writeInt(strings.getId(slot.getLocation()));
+        out.writeInt(strings.getId(slot.getDescription()));
+        out.writeShort(slot.getStartTime().getHour() * 60 + slot.getStartTime().getMinute());
+        out.writeInt(slot.getDuration());
+        out.writeShort(slot.getTags().size());
+        for (String tag : slot.getTags()) {
+            out.writeInt(strings.getId(tag));
+        }
+    }
+
+    /**
+     * Decodes a single day encoded by {@link #encodeDay}, or by an earlier version of the format, and puts it into
+     * {@code days}. The series first seen in the day are added to {@code series}.
+     */
+    private static void decodeDay(byte[] encoded, String[] table, List<Slot> series, Map<LocalDate, Day> days)
+            throws IOException, IllegalValueException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            final int first = in.readInt();
+            final boolean hasSeries = first == DAY_WITH_SERIES;
+            final LocalDate date = LocalDate.ofEpochDay(hasSeries ? in.readInt() : first);
+            final String type = getString(table, in.readInt());
+            final int slotCount = in.readInt();
+            final List<Slot> slots = new ArrayList<>();
+            for (int i = 0; i < slotCount; i++) {
+                final byte kind = hasSeries ? in.readByte() : SLOT;
+                if (kind == SERIES_OCCURRENCE) {
+                    final int position = in.readInt();
+                    if (position < 0 || position >= series.size()) {
+                        throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+                    }
+                    slots.add(series.get(position));
+                    continue;
+                }
+                if (kind != SLOT && kind != SERIES_DEFINITION) {
+                    throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+                }
+                final long id = hasSeries ? in.readLong() : Slot.NO_ID;
+                final Slot slot = readSlotDetails(in, table);
+                if (kind == SERIES_DEFINITION) {
+                    slot.setSeriesId(id);
+                    series.add(slot);
+                } else {
+                    slot.setId(id);
+                }
+                slots.add(slot);
+            }
+            // days written before slots had ids may end with the ids of their slots
+            if (!hasSeries && in.available() > 0) {
+                for (Slot slot : slots) {
+                    slot.setId(in.readLong());
+                }
+            }
+            days.put(date, new Day(date.getDayOfWeek(), type, slots));
+        }
+    }
+
+    /**
+     * Reads the details of a slot written by {@link #writeSlotDetails}.
+     */
+    private static Slot readSlotDetails(DataInputStream in, String[] table) throws IOException, IllegalValueException {
+        final String name = getString(table, in.readInt());
+        final String location = getString(table, in.readInt());
+        final String description = getString(table, in.readInt());
+        final int startMinute = in.readShort();
+        final int duration = in.readInt();
+        if (name == null || startMinute < 0 || startMinute >= 24 * 60 || duration < 0) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+        final int tagCount = in.readShort();
+        final Set<String> tags = new HashSet<>();
+        for (int j = 0; j < tagCount; j++) {
+            final String tag = getString(table, in.readInt());
+            if (tag == null) {
+                throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+            }
+            tags.add(tag);
+        }
+        return new Slot(name, location, description, LocalTime.of(startMinute / 60, startMinute % 60), duration, tags);
+    }
+
+    /**
+     * Returns the string with the given id in {@code table}.
+     *
+     * @throws IllegalValueException if there is no string with the given id.
+     */
+    private static String getString(String[] table, int id) throws IllegalValueException {
+        if (id == StringTable.NULL_ID) {
+            return null;
+        }
+        if (id < 0 || id >= table.length) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+        return table[id];
+    }
+
+    /**
+     * Writes {@code value} as its length in bytes followed by its UTF-8 encoding, so that strings of any length
+     * can be written.
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString}.
+     */
+    public static String readString(DataInput in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid string length");
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Reads a string written in the given {@code version} of the format.
+     */
+    static String readString(DataInput in, int version) throws IOException {
+        return version >= SCHEMA_VERSION_LONG_STRINGS ? readString(in) : in.readUTF();
+    }
+
+    /**
+     * Writes a set of dates as epoch days.
+     */
+    private static void writeDates(DataOutputStream out, Set<LocalDate> dates) throws IOException {
+        out.writeInt(dates.size());
+        for (LocalDate date : dates) {
+            out.writeInt((int) date.toEpochDay());
+        }
+    }
+
+    /**
+     * Reads a set of dates written by {@link #writeDates}.
+     */
+    private static Set<LocalDate> readDates(DataInputStream in) throws IOException {
+        final int size = in.readInt();
+        final Set<LocalDate> dates = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            dates.add(LocalDate.ofEpochDay(in.readInt()));
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,62 @@
+package planmysem.storage.binary;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns ids to the strings of a binary planner file, so that each distinct string is only written once.
+ * Ids are never reassigned, so data encoded with earlier ids stays valid as strings are added.
+ */
+class StringTable {
+    /**
+     * Id which represents a null string.
+     */
+    static final int NULL_ID = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * Returns the id of {@code value}, adding it to the table if it is not in it yet.
+     */
+    int getId(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        return ids.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+
+    /**
+     * Writes all strings of the table in the order of their ids.
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(strings.size());
+        for (String value : strings) {
+            BinaryCodec.writeString(out, value);
+        }
+    }
+
+    /**
+     * Reads the strings written by {@link #write}, or by the given earlier {@code version} of the format, indexed
+     * by their ids.
+     */
+    static String[] read(DataInputStream in, int version) throws IOException {
+        final int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid string table size");
+        }
+        final String[] strings = new String[size];
+        for (int i = 0; i < size; i++) {
+            strings[i] = BinaryCodec.readString(in, version);
+        }
+        return strings;
+    }
+}
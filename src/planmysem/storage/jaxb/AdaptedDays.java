@@ -0,0 +1,60 @@
+package planmysem.storage.jaxb;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.semester.Day;
+import planmysem.model.semester.ReadOnlyDay;
+
+/**
+ * JAXB-friendly adapted holder class for a group of days, such as the days of one week.
+ */
+@XmlRootElement(name = "Days")
+public class AdaptedDays {
+    @XmlElement(required = true)
+    private HashMap<String, AdaptedDay> days = new HashMap<>();
+
+    /**
+     * No-arg constructor for JAXB use.
+     */
+    public AdaptedDays() {
+    }
+
+    /**
+     * Converts the given days into this class for JAXB use.
+     *
+     * @param source future changes to this will not affect the created AdaptedDays
+     */
+    public AdaptedDays(Map<LocalDate, ? extends ReadOnlyDay> source) {
+        for (Map.Entry<LocalDate, ? extends ReadOnlyDay> day : source.entrySet()) {
+            days.put(day.getKey().toString(), new AdaptedDay(day.getValue()));
+        }
+    }
+
+    /**
+     * Returns true if any required field is missing.
+     */
+    public boolean isAnyRequiredFieldMissing() {
+        for (AdaptedDay day : days.values()) {
+            if (day.isAnyRequiredFieldMissing()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts this jaxb-friendly adapted object into the days, keyed by date.
+     *
+     * @throws IllegalValueException if there were any model constraints violated in the days
+     */
+    public HashMap<LocalDate, Day> toModelType() throws IllegalValueException {
+        return AdaptedSemester.convertDays(days, ForkJoinPool.commonPool());
+    }
+}
@@ -1,12 +1,17 @@
 package planmysem.storage.jaxb;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
 
 import planmysem.common.exceptions.IllegalValueException;
 import planmysem.model.semester.Day;
@@ -16,7 +21,13 @@ import planmysem.model.semester.Semester;
 /**
  * JAXB-friendly adapted person model holder class.
  */
+@XmlRootElement(name = "Semester")
 public class AdaptedSemester {
+    /**
+     * Number of days below which the days are converted by a single task instead of being split further.
+     */
+    private static final int DAYS_PER_TASK = 8;
+
     @XmlElement(required = true)
     private String name;
     @XmlElement(required = true)
@@ -104,6 +115,17 @@ public class AdaptedSemester {
      * @throws IllegalValueException if there were any model constraints violated in the IcsSemester
      */
     public Semester toModelType() throws IllegalValueException {
+        return toModelType(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts this jaxb-friendly adapted object into the Semester object, converting the days in parallel on
+     * {@code pool}.
+     *
+     * @throws IllegalValueException if there were any model constraints violated in the IcsSemester. If several
+     *                               days are illegal, the exception of the earliest of them is thrown.
+     */
+    public Semester toModelType(ForkJoinPool pool) throws IllegalValueException {
         final String name = this.name;
         final String academicYear = this.academicYear;
         final String startDate = this.startDate;
@@ -115,10 +137,7 @@ public class AdaptedSemester {
 
         final int noOfWeeks = this.noOfWeeks;
 
-        final HashMap<LocalDate, Day> days = new HashMap<>();
-        for (Map.Entry<String, AdaptedDay> day : this.days.entrySet()) {
-            days.put(LocalDate.parse(day.getKey()), day.getValue().toModelType());
-        }
+        final HashMap<LocalDate, Day> days = convertDays(this.days, pool);
 
         final Set<LocalDate> recessDays = new HashSet<>();
         for (String date : this.recessDays) {
@@ -144,4 +163,74 @@ public class AdaptedSemester {
                 LocalDate.parse(startDate), LocalDate.parse(endDate), noOfWeeks,
                 recessDays, readingDays, normalDays, examDays);
     }
+
+    /**
+     * Converts {@code adaptedDays}, keyed by date in ISO format, on {@code pool}. Dates in ISO format sort in date
+     * order, so the days are sorted by their keys and the failure of the earliest day is thrown, no matter which
+     * task failed first.
+     */
+    static HashMap<LocalDate, Day> convertDays(Map<String, AdaptedDay> adaptedDays, ForkJoinPool pool)
+            throws IllegalValueException {
+        final List<Map.Entry<String, AdaptedDay>> entries = new ArrayList<>(adaptedDays.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+        final ConvertDaysTask task = new ConvertDaysTask(entries, 0, entries.size());
+        pool.invoke(task);
+
+        final HashMap<LocalDate, Day> days = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (task.errors[i] instanceof IllegalValueException) {
+                throw (IllegalValueException) task.errors[i];
+            } else if (task.errors[i] != null) {
+                throw (RuntimeException) task.errors[i];
+            }
+            days.put(task.dates[i], task.converted[i]);
+        }
+        return days;
+    }
+
+    /**
+     * Converts a range of days, splitting the range into subtasks until it is small.
+     * The result or failure of each day is stored at its index, which subtasks share.
+     */
+    private static class ConvertDaysTask extends RecursiveAction {
+        private final List<Map.Entry<String, AdaptedDay>> entries;
+        private final LocalDate[] dates;
+        private final Day[] converted;
+        private final Exception[] errors;
+        private final int from;
+        private final int to;
+
+        ConvertDaysTask(List<Map.Entry<String, AdaptedDay>> entries, int from, int to) {
+            this(entries, new LocalDate[entries.size()], new Day[entries.size()], new Exception[entries.size()],
+                    from, to);
+        }
+
+        private ConvertDaysTask(List<Map.Entry<String, AdaptedDay>> entries, LocalDate[] dates, Day[] converted,
+                Exception[] errors, int from, int to) {
+            this.entries = entries;
+            this.dates = dates;
+            this.converted = converted;
+            this.errors = errors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= DAYS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        dates[i] = LocalDate.parse(entries.get(i).getKey());
+                        converted[i] = entries.get(i).getValue().toModelType();
+                    } catch (IllegalValueException | RuntimeException e) {
+                        errors[i] = e;
+                    }
+                }
+                return;
+            }
+            final int middle = (from + to) >>> 1;
+            invokeAll(new ConvertDaysTask(entries, dates, converted, errors, from, middle),
+                    new ConvertDaysTask(entries, dates, converted, errors, middle, to));
+        }
+    }
 }
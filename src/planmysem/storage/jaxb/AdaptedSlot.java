@@ -20,6 +20,10 @@ import planmysem.model.slot.Slot;
  * JAXB-friendly adapted person model holder class.
  */
 public class AdaptedSlot {
+    @XmlElement
+    private Long id; // null for slots written before slots had ids
+    @XmlElement
+    private Long seriesId; // null for slots which are not part of a series
     @XmlElement(required = true)
     private String name;
     @XmlElement(required = true)
@@ -45,6 +49,11 @@ public class AdaptedSlot {
      * @param source future changes to this will not affect the created AdaptedPerson
      */
     public AdaptedSlot(ReadOnlySlot source) {
+        if (source instanceof Slot && ((Slot) source).isOccurrence()) {
+            seriesId = ((Slot) source).getSeriesId();
+        } else if (source instanceof Slot && ((Slot) source).getId() != Slot.NO_ID) {
+            id = ((Slot) source).getId();
+        }
         name = source.getName();
         location = source.getLocation();
         description = source.getDescription();
@@ -96,7 +105,14 @@ public class AdaptedSlot {
             tags.add(tag);
         }
 
-        return new Slot(name, location, description, startTime, duration, tags);
+        final Slot slot = new Slot(name, location, description, startTime, duration, tags);
+        if (id != null) {
+            slot.setId(id);
+        }
+        if (seriesId != null) {
+            slot.setSeriesId(seriesId);
+        }
+        return slot;
     }
 
     /**
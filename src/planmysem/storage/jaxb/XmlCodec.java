@@ -0,0 +1,130 @@
+package planmysem.storage.jaxb;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.semester.Day;
+import planmysem.model.semester.ReadOnlyDay;
+import planmysem.model.semester.Semester;
+import planmysem.storage.StorageCodec;
+
+/**
+ * Converts the parts of a Planner to and from XML, through the JAXB-friendly adapted classes.
+ */
+public class XmlCodec implements StorageCodec {
+    public static final int ID = 1;
+    public static final String NAME = "xml";
+
+    private static final String MESSAGE_ILLEGAL_VALUE = "File contains illegal data values";
+
+    private static JAXBContext jaxbContext;
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void encodeSemester(Semester semester, OutputStream out) throws IOException {
+        // the days are written separately, so they are left out of the adapted semester
+        final Semester details = new Semester(semester.getName(), semester.getAcademicYear(), new HashMap<>(),
+                semester.getStartDate(), semester.getEndDate(), semester.getNoOfWeeks(), semester.getRecessDays(),
+                semester.getReadingDays(), semester.getNormalDays(), semester.getExamDays());
+        marshal(new AdaptedSemester(details), out);
+    }
+
+    @Override
+    public Semester decodeSemester(InputStream in) throws IOException, IllegalValueException {
+        try {
+            final AdaptedSemester adapted = (AdaptedSemester) getContext().createUnmarshaller()
+                    .unmarshal(new UnclosedInputStream(in));
+            return adapted.toModelType();
+        } catch (JAXBException jaxbe) {
+            throw new IOException("Error parsing file model format", jaxbe);
+        } catch (DateTimeParseException dtpe) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+    }
+
+    @Override
+    public void encodeDays(Map<LocalDate, ? extends ReadOnlyDay> days, OutputStream out) throws IOException {
+        marshal(new AdaptedDays(days), out);
+    }
+
+    @Override
+    public HashMap<LocalDate, Day> decodeDays(InputStream in) throws IOException, IllegalValueException {
+        try {
+            final AdaptedDays adapted = (AdaptedDays) getContext().createUnmarshaller()
+                    .unmarshal(new UnclosedInputStream(in));
+            if (adapted.isAnyRequiredFieldMissing()) {
+                throw new IllegalValueException("File model missing some elements");
+            }
+            return adapted.toModelType();
+        } catch (JAXBException jaxbe) {
+            throw new IOException("Error parsing file model format", jaxbe);
+        } catch (DateTimeParseException dtpe) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+    }
+
+    /**
+     * Writes {@code element} to {@code out}, leaving {@code out} open.
+     */
+    private static void marshal(Object element, OutputStream out) throws IOException {
+        try {
+            getContext().createMarshaller().marshal(element, new FilterOutputStream(out) {
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            });
+        } catch (JAXBException jaxbe) {
+            throw new IOException("Error writing file model format", jaxbe);
+        }
+    }
+
+    /**
+     * Returns the JAXB context of the adapted classes, which is created once as creating it is slow.
+     */
+    private static synchronized JAXBContext getContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(AdaptedDays.class, AdaptedSemester.class);
+        }
+        return jaxbContext;
+    }
+
+    /**
+     * Stream which leaves the underlying stream open when it is closed, as XML parsers close the stream they read.
+     */
+    private static class UnclosedInputStream extends FilterInputStream {
+        UnclosedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+            // the underlying stream is closed by its owner
+        }
+    }
+}
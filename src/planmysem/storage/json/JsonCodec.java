@@ -0,0 +1,324 @@
+package planmysem.storage.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.semester.Day;
+import planmysem.model.semester.ReadOnlyDay;
+import planmysem.model.semester.Semester;
+import planmysem.model.slot.Slot;
+import planmysem.storage.StorageCodec;
+
+/**
+ * Converts the parts of a Planner to and from JSON.
+ * The model is written and read token by token with Jackson's streaming API, so no intermediate objects are built.
+ * Dates and times are written in ISO format.
+ */
+public class JsonCodec implements StorageCodec {
+    public static final int ID = 2;
+    public static final String NAME = "json";
+
+    private static final String MESSAGE_ILLEGAL_VALUE = "File contains illegal data values";
+
+    private static final JsonFactory FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void encodeSemester(Semester semester, OutputStream out) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("name", semester.getName());
+            generator.writeStringField("academicYear", semester.getAcademicYear());
+            generator.writeStringField("startDate", semester.getStartDate().toString());
+            generator.writeStringField("endDate", semester.getEndDate().toString());
+            generator.writeNumberField("noOfWeeks", semester.getNoOfWeeks());
+            writeDates(generator, "recessDays", semester.getRecessDays());
+            writeDates(generator, "readingDays", semester.getReadingDays());
+            writeDates(generator, "normalDays", semester.getNormalDays());
+            writeDates(generator, "examDays", semester.getExamDays());
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public Semester decodeSemester(InputStream in) throws IOException, IllegalValueException {
+        String name = null;
+        String academicYear = null;
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+        int noOfWeeks = 0;
+        Set<LocalDate> recessDays = new HashSet<>();
+        Set<LocalDate> readingDays = new HashSet<>();
+        Set<LocalDate> normalDays = new HashSet<>();
+        Set<LocalDate> examDays = new HashSet<>();
+
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                case "name":
+                    name = getNullableText(parser);
+                    break;
+                case "academicYear":
+                    academicYear = getNullableText(parser);
+                    break;
+                case "startDate":
+                    startDate = LocalDate.parse(parser.getText());
+                    break;
+                case "endDate":
+                    endDate = LocalDate.parse(parser.getText());
+                    break;
+                case "noOfWeeks":
+                    noOfWeeks = parser.getIntValue();
+                    break;
+                case "recessDays":
+                    recessDays = readDates(parser);
+                    break;
+                case "readingDays":
+                    readingDays = readDates(parser);
+                    break;
+                case "normalDays":
+                    normalDays = readDates(parser);
+                    break;
+                case "examDays":
+                    examDays = readDates(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+        } catch (DateTimeException dte) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+
+        if (startDate == null || endDate == null) {
+            throw new IllegalValueException("File model missing some elements");
+        }
+        return new Semester(name, academicYear, new HashMap<>(), startDate, endDate, noOfWeeks,
+                recessDays, readingDays, normalDays, examDays);
+    }
+
+    /**
+     * Writes {@code days} as an array in date order.
+     */
+    @Override
+    public void encodeDays(Map<LocalDate, ? extends ReadOnlyDay> days, OutputStream out) throws IOException {
+        try (JsonGenerator generator = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (Map.Entry<LocalDate, ? extends ReadOnlyDay> day : new TreeMap<>(days).entrySet()) {
+                generator.writeStartObject();
+                generator.writeStringField("date", day.getKey().toString());
+                generator.writeStringField("type", day.getValue().getType());
+                generator.writeArrayFieldStart("slots");
+                for (Slot slot : day.getValue().getSlots()) {
+                    writeSlot(generator, slot);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    @Override
+    public HashMap<LocalDate, Day> decodeDays(InputStream in) throws IOException, IllegalValueException {
+        final HashMap<LocalDate, Day> days = new HashMap<>();
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_ARRAY);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                readDay(parser, days);
+            }
+        } catch (DateTimeException dte) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+        return days;
+    }
+
+    /**
+     * Writes a single slot as an object.
+     */
+    private static void writeSlot(JsonGenerator generator, Slot slot) throws IOException {
+        generator.writeStartObject();
+        if (slot.isOccurrence()) {
+            generator.writeNumberField("seriesId", slot.getSeriesId());
+        } else if (slot.getId() != Slot.NO_ID) {
+            generator.writeNumberField("id", slot.getId());
+        }
+        generator.writeStringField("name", slot.getName());
+        generator.writeStringField("location", slot.getLocation());
+        generator.writeStringField("description", slot.getDescription());
+        generator.writeStringField("startTime", slot.getStartTime().toString());
+        generator.writeNumberField("duration", slot.getDuration());
+        generator.writeArrayFieldStart("tags");
+        for (String tag : slot.getTags()) {
+            generator.writeString(tag);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads the day object the parser is at and puts it into {@code days}.
+     */
+    private static void readDay(JsonParser parser, Map<LocalDate, Day> days)
+            throws IOException, IllegalValueException {
+        LocalDate date = null;
+        String type = null;
+        final List<Slot> slots = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+            case "date":
+                date = LocalDate.parse(parser.getText());
+                break;
+            case "type":
+                type = getNullableText(parser);
+                break;
+            case "slots":
+                expect(parser.getCurrentToken(), JsonToken.START_ARRAY);
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    slots.add(readSlot(parser));
+                }
+                expect(parser.getCurrentToken(), JsonToken.END_ARRAY);
+                break;
+            default:
+                parser.skipChildren();
+            }
+        }
+        if (date == null) {
+            throw new IllegalValueException("File model missing some elements");
+        }
+        days.put(date, new Day(date.getDayOfWeek(), type, slots));
+    }
+
+    /**
+     * Reads the slot object the parser is at. Slots written before slots had ids have no id.
+     */
+    private static Slot readSlot(JsonParser parser) throws IOException, IllegalValueException {
+        long id = Slot.NO_ID;
+        long seriesId = Slot.NO_ID;
+        String name = null;
+        String location = null;
+        String description = null;
+        LocalTime startTime = null;
+        int duration = -1;
+        final Set<String> tags = new HashSet<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+            case "id":
+                id = parser.getLongValue();
+                break;
+            case "seriesId":
+                seriesId = parser.getLongValue();
+                break;
+            case "name":
+                name = parser.getText();
+                break;
+            case "location":
+                location = getNullableText(parser);
+                break;
+            case "description":
+                description = getNullableText(parser);
+                break;
+            case "startTime":
+                startTime = LocalTime.parse(parser.getText());
+                break;
+            case "duration":
+                duration = parser.getIntValue();
+                break;
+            case "tags":
+                expect(parser.getCurrentToken(), JsonToken.START_ARRAY);
+                while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    tags.add(parser.getText());
+                }
+                expect(parser.getCurrentToken(), JsonToken.END_ARRAY);
+                break;
+            default:
+                parser.skipChildren();
+            }
+        }
+        if (name == null || startTime == null || duration < 0) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+        final Slot slot = new Slot(name, location, description, startTime, duration, tags);
+        slot.setId(id);
+        slot.setSeriesId(seriesId);
+        return slot;
+    }
+
+    /**
+     * Returns the text of the current value, or null if the value is null.
+     */
+    private static String getNullableText(JsonParser parser) throws IOException {
+        return parser.getCurrentToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    /**
+     * Writes a set of dates as an array field.
+     */
+    private static void writeDates(JsonGenerator generator, String field, Set<LocalDate> dates) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (LocalDate date : dates) {
+            generator.writeString(date.toString());
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Reads the array of dates the parser is at.
+     */
+    private static Set<LocalDate> readDates(JsonParser parser) throws IOException, IllegalValueException {
+        expect(parser.getCurrentToken(), JsonToken.START_ARRAY);
+        final Set<LocalDate> dates = new HashSet<>();
+        while (parser.nextToken() == JsonToken.VALUE_STRING) {
+            dates.add(LocalDate.parse(parser.getText()));
+        }
+        expect(parser.getCurrentToken(), JsonToken.END_ARRAY);
+        return dates;
+    }
+
+    /**
+     * Checks that the parser read the {@code expected} token.
+     *
+     * @throws IllegalValueException if it did not.
+     */
+    private static void expect(JsonToken actual, JsonToken expected) throws IllegalValueException {
+        if (actual != expected) {
+            throw new IllegalValueException(MESSAGE_ILLEGAL_VALUE);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -27,8 +28,13 @@ public class MainWindow {
     @FXML
     private TextField commandInput;
 
+    /**
+     * Sets the logic manager which executes the user's commands.
+     * Errors from saving changes in the background are displayed as they happen.
+     */
     public void setLogicManager(LogicManager logicManager) {
         this.logicManager = logicManager;
+        logicManager.setStorageFailureHandler(message -> Platform.runLater(() -> display(message)));
     }
 
     public void setMainApp(Stoppable mainApp) {
@@ -0,0 +1,69 @@
+package planmysem.benchmark;
+
+import java.io.File;
+import java.security.SecureRandom;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import planmysem.storage.Encryptor;
+import planmysem.storage.KeyStorage;
+
+/**
+ * Measures the time spent encrypting a journal record on every save, when the key store is read and the Cipher
+ * and SecureRandom are created for every record (as before), and when they are reused through a CryptoSession.
+ * Run with {@code java planmysem.benchmark.CryptoBenchmark [records]}.
+ */
+public class CryptoBenchmark {
+    private static final int RECORD_SIZE = 256;
+
+    /**
+     * Runs the benchmark and prints the average time per save.
+     */
+    public static void main(String[] args) throws Exception {
+        final int records = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final File keyStorage = File.createTempFile("benchmark", ".jceks");
+        keyStorage.deleteOnExit();
+        keyStorage.delete();
+
+        final byte[] record = new byte[RECORD_SIZE];
+        new Random(1).nextBytes(record);
+
+        // warm up both paths, so that class loading and JIT compilation are not measured
+        for (int i = 0; i < records / 10; i++) {
+            encryptUncached(record, keyStorage.getPath());
+            Encryptor.encrypt(new String(record), keyStorage.getPath());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < records; i++) {
+            encryptUncached(record, keyStorage.getPath());
+        }
+        final long uncached = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < records; i++) {
+            Encryptor.encrypt(new String(record), keyStorage.getPath());
+        }
+        final long cached = System.nanoTime() - start;
+
+        System.out.printf("per save, key store read every time: %8.1f us%n", uncached / 1000.0 / records);
+        System.out.printf("per save, with CryptoSession:        %8.1f us%n", cached / 1000.0 / records);
+    }
+
+    /**
+     * Encrypts {@code toEncrypt} the way Encryptor did before keys were cached.
+     */
+    private static byte[] encryptUncached(byte[] toEncrypt, String keyStorage) throws Exception {
+        SecretKey key = KeyStorage.load(keyStorage);
+        SecretKeySpec skeySpec = new SecretKeySpec(key.getEncoded(), "AES");
+        byte[] iv = new byte[16];
+        new SecureRandom().nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, skeySpec, new IvParameterSpec(iv));
+        return cipher.doFinal(toEncrypt);
+    }
+}
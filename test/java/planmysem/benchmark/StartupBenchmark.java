@@ -0,0 +1,86 @@
+package planmysem.benchmark;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Unmarshaller;
+
+import planmysem.common.Clock;
+import planmysem.model.Planner;
+import planmysem.model.slot.Slot;
+import planmysem.storage.jaxb.AdaptedPlanner;
+import planmysem.storage.jaxb.AdaptedSemester;
+
+/**
+ * Measures the time spent converting a planner read from an XML file into the model at startup,
+ * when the days are converted one after another and when they are converted on the common fork-join pool.
+ * Run with {@code java planmysem.benchmark.StartupBenchmark [slots...]}, which defaults to 1000, 10000 and 100000.
+ */
+public class StartupBenchmark {
+    private static final int RUNS = 5;
+
+    /**
+     * Runs the benchmark and prints the average conversion time for each planner size.
+     */
+    public static void main(String[] args) throws Exception {
+        Clock.set("2019-01-14T10:00:00Z");
+        final int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1000, 10000, 100000};
+        final JAXBContext context = JAXBContext.newInstance(AdaptedPlanner.class);
+        final ForkJoinPool sequential = new ForkJoinPool(1);
+
+        for (int slots : sizes) {
+            final Planner planner = createPlanner(slots);
+            final StringWriter xml = new StringWriter();
+            context.createMarshaller().marshal(new AdaptedPlanner(planner), xml);
+            final AdaptedSemester adapted = new AdaptedSemester(planner.getSemester());
+
+            // warm up both paths, so that class loading and JIT compilation are not measured
+            adapted.toModelType(sequential);
+            adapted.toModelType();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                adapted.toModelType(sequential);
+            }
+            final long sequentialTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                adapted.toModelType();
+            }
+            final long parallelTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final Unmarshaller unmarshaller = context.createUnmarshaller();
+            ((AdaptedPlanner) unmarshaller.unmarshal(new StringReader(xml.toString()))).toModelType();
+            final long startupTime = System.nanoTime() - start;
+
+            System.out.printf("%7d slots: sequential %8.1f ms, parallel %8.1f ms, unmarshal and convert %8.1f ms%n",
+                    slots, sequentialTime / 1e6 / RUNS, parallelTime / 1e6 / RUNS, startupTime / 1e6);
+        }
+        sequential.shutdown();
+    }
+
+    /**
+     * Returns a planner with {@code slots} slots spread over the days of the semester.
+     */
+    private static Planner createPlanner(int slots) throws Exception {
+        final Planner planner = new Planner();
+        final LocalDate start = planner.getSemester().getStartDate();
+        final int days = (int) (planner.getSemester().getEndDate().toEpochDay() - start.toEpochDay()) + 1;
+        for (int i = 0; i < slots; i++) {
+            planner.addSlot(start.plusDays(i % days), new Slot("Slot " + i, "Location " + i % 50,
+                    "Description " + i, LocalTime.of(i % 24, 0), 60,
+                    new HashSet<>(Arrays.asList("CS" + i % 20, "Tag" + i % 7))));
+        }
+        return planner;
+    }
+}
@@ -1,6 +1,7 @@
 package planmysem.logic.Commands;
 
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static planmysem.logic.commands.AddCommand.MESSAGE_SUCCESS;
 import static planmysem.logic.commands.AddCommand.craftSuccessMessage;
@@ -14,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Predicate;
 
 import javafx.util.Pair;
 import org.junit.Before;
@@ -21,18 +23,24 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import planmysem.common.Clock;
+import planmysem.common.Messages;
 import planmysem.logic.CommandHistory;
 import planmysem.logic.commands.AddCommand;
 import planmysem.logic.commands.CommandResult;
 import planmysem.logic.commands.exceptions.CommandException;
+import planmysem.model.HistoryStatistics;
 import planmysem.model.Model;
+import planmysem.model.ModelManager;
 import planmysem.model.Planner;
 import planmysem.model.recurrence.Recurrence;
 import planmysem.model.semester.Day;
 import planmysem.model.semester.ReadOnlyDay;
 import planmysem.model.semester.Semester;
+import planmysem.model.semester.SlotRef;
+import planmysem.model.semester.SlotVisitor;
 import planmysem.model.slot.ReadOnlySlot;
 import planmysem.model.slot.Slot;
+import planmysem.storage.StorageStatistics;
 import planmysem.testutil.SlotBuilder;
 
 
@@ -77,6 +85,39 @@ public class AddCommandTest {
         assertEquals(EMPTY_COMMAND_HISTORY, commandHistory);
     }
 
+    @Test
+    public void execute_clashingSlot_clashesReported() throws CommandException {
+        Model model = new ModelManager();
+        LocalDate date = LocalDate.of(2019, 2, 1);
+        Slot existing = new Slot("existing", null, null, LocalTime.of(8, 0), 120, null);
+        Slot clashing = new Slot("clashing", null, null, LocalTime.of(9, 0), 60, null);
+        new AddCommand(existing, new Recurrence(null, date)).execute(model, commandHistory);
+
+        CommandResult commandResult = new AddCommand(clashing, new Recurrence(null, date))
+                .execute(model, commandHistory);
+
+        List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> clashes = commandResult.getRelevantSlots().get();
+        assertEquals(1, clashes.size());
+        assertEquals(date, clashes.get(0).getKey());
+        assertEquals(existing, clashes.get(0).getValue().getValue());
+        assertTrue(commandResult.getFeedbackToUser().endsWith(Messages.craftClashMessage(clashes)));
+    }
+
+    @Test
+    public void execute_recurringSlot_addedAsSeries() throws CommandException {
+        Model model = new ModelManager();
+        Slot lecture = new Slot("CS2113T Lecture", null, null, LocalTime.of(14, 0), 120, null);
+        Set<String> recurrences = new HashSet<>();
+        recurrences.add("normal");
+        new AddCommand(lecture, new Recurrence(recurrences, LocalDate.of(2019, 1, 18))).execute(model, commandHistory);
+
+        Slot first = model.getDay(LocalDate.of(2019, 1, 18)).getSlots().get(0);
+        Slot next = model.getDay(LocalDate.of(2019, 1, 25)).getSlots().get(0);
+        assertTrue(first.isOccurrence());
+        assertTrue(first == next);
+        assertEquals(lecture, first);
+    }
+
     @Test
     public void execute_invalidDate_throwsCommandException() throws Exception {
         ModelStubNeverSlotAdded modelStub = new ModelStubNeverSlotAdded();
@@ -160,6 +201,12 @@ public class AddCommandTest {
             throw new AssertionError("This method should not be called.");
         }
 
+        @Override
+        public Map<LocalDate, Day> addSlotSeries(Set<LocalDate> dates, Slot slot)
+                throws Semester.DateNotFoundException {
+            throw new AssertionError("This method should not be called.");
+        }
+
         @Override
         public void removeSlot(LocalDate date, ReadOnlySlot slot) {
             throw new AssertionError("This method should not be called.");
@@ -171,7 +218,7 @@ public class AddCommandTest {
         }
 
         @Override
-        public void editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
+        public Slot editSlot(LocalDate targetDate, ReadOnlySlot targetSlot, LocalDate date,
                              LocalTime startTime, int duration, String name, String location,
                              String description, Set<String> tags) {
             throw new AssertionError("This method should not be called.");
@@ -197,11 +244,36 @@ public class AddCommandTest {
             throw new AssertionError("This method should not be called.");
         }
 
+        @Override
+        public void forEachSlot(SlotVisitor visitor) {
+            throw new AssertionError("This method should not be called.");
+        }
+
+        @Override
+        public void forEachSlot(LocalDate from, LocalDate to, SlotVisitor visitor) {
+            throw new AssertionError("This method should not be called.");
+        }
+
+        @Override
+        public List<SlotRef> getSlots(LocalDate from, LocalDate to, Predicate<ReadOnlySlot> predicate) {
+            throw new AssertionError("This method should not be called.");
+        }
+
         @Override
         public List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlots(Set<String> tags) {
             throw new AssertionError("This method should not be called.");
         }
 
+        @Override
+        public List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlotsWithTag(String tag) {
+            throw new AssertionError("This method should not be called.");
+        }
+
+        @Override
+        public List<Pair<LocalDate, Pair<ReadOnlyDay, ReadOnlySlot>>> getSlotsWithName(String name) {
+            throw new AssertionError("This method should not be called.");
+        }
+
         @Override
         public boolean canUndo() {
             throw new AssertionError("This method should not be called.");
@@ -222,6 +294,16 @@ public class AddCommandTest {
             throw new AssertionError("This method should not be called.");
         }
 
+        @Override
+        public HistoryStatistics getHistoryStatistics() {
+            throw new AssertionError("This method should not be called.");
+        }
+
+        @Override
+        public StorageStatistics getStorageStatistics() {
+            throw new AssertionError("This method should not be called.");
+        }
+
         @Override
         public boolean equals(Object obj) {
             throw new AssertionError("This method should not be called.");
@@ -0,0 +1,64 @@
+package planmysem.logic.Commands;
+
+import static planmysem.logic.Commands.CommandTestUtil.assertCommandSuccess;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.Before;
+import org.junit.Test;
+import planmysem.common.Clock;
+import planmysem.common.Messages;
+import planmysem.logic.CommandHistory;
+import planmysem.logic.commands.ClashesCommand;
+import planmysem.model.Model;
+import planmysem.model.ModelManager;
+import planmysem.model.slot.Slot;
+
+public class ClashesCommandTest {
+    private CommandHistory history = new CommandHistory();
+    private Model model;
+    private Model expectedModel;
+
+    @Before
+    public void setup() {
+        Clock.set("2019-01-14T10:00:00Z");
+        model = new ModelManager();
+        expectedModel = new ModelManager();
+    }
+
+    @Test
+    public void execute_noClashes_noneReported() throws Exception {
+        addSlot(model, LocalDate.of(2019, 2, 1), "lecture", 8, 60);
+        addSlot(model, LocalDate.of(2019, 2, 1), "tutorial", 9, 60);
+        addSlot(expectedModel, LocalDate.of(2019, 2, 1), "lecture", 8, 60);
+        addSlot(expectedModel, LocalDate.of(2019, 2, 1), "tutorial", 9, 60);
+
+        assertCommandSuccess(new ClashesCommand(), model, history, ClashesCommand.MESSAGE_NO_CLASHES, expectedModel);
+    }
+
+    @Test
+    public void execute_clashes_allReportedInDateOrder() throws Exception {
+        Slot lecture = addSlot(model, LocalDate.of(2019, 2, 4), "lecture", 8, 120);
+        Slot tutorial = addSlot(model, LocalDate.of(2019, 2, 4), "tutorial", 9, 60);
+        Slot lab = addSlot(model, LocalDate.of(2019, 2, 1), "lab", 14, 60);
+        Slot meeting = addSlot(model, LocalDate.of(2019, 2, 1), "meeting", 14, 30);
+        addSlot(expectedModel, LocalDate.of(2019, 2, 4), "lecture", 8, 120);
+        addSlot(expectedModel, LocalDate.of(2019, 2, 4), "tutorial", 9, 60);
+        addSlot(expectedModel, LocalDate.of(2019, 2, 1), "lab", 14, 60);
+        addSlot(expectedModel, LocalDate.of(2019, 2, 1), "meeting", 14, 30);
+
+        String expectedClashes = "\n1.\t" + Messages.craftSlotTime(LocalDate.of(2019, 2, 1), lab)
+                + "\n\tclashes with " + Messages.craftSlotTime(LocalDate.of(2019, 2, 1), meeting)
+                + "\n2.\t" + Messages.craftSlotTime(LocalDate.of(2019, 2, 4), lecture)
+                + "\n\tclashes with " + Messages.craftSlotTime(LocalDate.of(2019, 2, 4), tutorial);
+        assertCommandSuccess(new ClashesCommand(), model, history,
+                String.format(ClashesCommand.MESSAGE_SUCCESS, 2, expectedClashes), expectedModel);
+    }
+
+    private Slot addSlot(Model model, LocalDate date, String name, int startHour, int duration) throws Exception {
+        Slot slot = new Slot(name, null, null, LocalTime.of(startHour, 0), duration, null);
+        model.addSlot(date, slot);
+        return slot;
+    }
+}
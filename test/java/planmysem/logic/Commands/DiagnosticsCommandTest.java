@@ -0,0 +1,34 @@
+package planmysem.logic.Commands;
+
+import static planmysem.logic.Commands.CommandTestUtil.assertCommandSuccess;
+
+import org.junit.Test;
+import planmysem.logic.CommandHistory;
+import planmysem.logic.commands.DiagnosticsCommand;
+import planmysem.model.Model;
+import planmysem.model.ModelManager;
+import planmysem.model.Planner;
+import planmysem.model.PlannerHistory;
+import planmysem.storage.StorageStatistics;
+
+public class DiagnosticsCommandTest {
+    private CommandHistory history = new CommandHistory();
+    private Model model = new ModelManager();
+    private Model expectedModel = new ModelManager();
+
+    @Test
+    public void execute_noStatistics_notAvailable() {
+        assertCommandSuccess(new DiagnosticsCommand(), model, history, DiagnosticsCommand.MESSAGE_NO_STATISTICS,
+                expectedModel);
+    }
+
+    @Test
+    public void execute_statistics_ratioReported() {
+        StorageStatistics statistics = new StorageStatistics(17, 9000, 2000, 1000);
+        model = new ModelManager(new Planner(), PlannerHistory.inMemory(), () -> statistics);
+        expectedModel = new ModelManager(new Planner(), PlannerHistory.inMemory(), () -> statistics);
+
+        assertCommandSuccess(new DiagnosticsCommand(), model, history,
+                String.format(DiagnosticsCommand.MESSAGE_SUCCESS, 17, 9000L, 2000L, 1000, 3.0), expectedModel);
+    }
+}
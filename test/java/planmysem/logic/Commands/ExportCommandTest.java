@@ -63,20 +63,12 @@ public class ExportCommandTest {
         String expectedIcs = "BEGIN:VCALENDAR\r\n"
                 + "VERSION:2.0\r\n"
                 + "BEGIN:VEVENT\r\n"
-                + "DTSTART:20190204T000000\r\n"
-                + "DTEND:20190204T000000\r\n"
-                + "SUMMARY:slot 3\r\n"
-                + "LOCATION:location 3\r\n"
-                + "DESCRIPTION:description 3\r\n"
-                + "X-TAGS:tag4,tag3,\r\n"
-                + "END:VEVENT\r\n"
-                + "BEGIN:VEVENT\r\n"
-                + "DTSTART:20190203T000000\r\n"
-                + "DTEND:20190203T000000\r\n"
-                + "SUMMARY:slot 3\r\n"
-                + "LOCATION:location 3\r\n"
-                + "DESCRIPTION:description 3\r\n"
-                + "X-TAGS:tag4,tag3,\r\n"
+                + "DTSTART:20190201T000000\r\n"
+                + "DTEND:20190201T000000\r\n"
+                + "SUMMARY:slot 1\r\n"
+                + "LOCATION:location 1\r\n"
+                + "DESCRIPTION:description 1\r\n"
+                + "X-TAGS:tag1,tag2,\r\n"
                 + "END:VEVENT\r\n"
                 + "BEGIN:VEVENT\r\n"
                 + "DTSTART:20190202T000000\r\n"
@@ -87,12 +79,20 @@ public class ExportCommandTest {
                 + "X-TAGS:tag2,tag3,\r\n"
                 + "END:VEVENT\r\n"
                 + "BEGIN:VEVENT\r\n"
-                + "DTSTART:20190201T000000\r\n"
-                + "DTEND:20190201T000000\r\n"
-                + "SUMMARY:slot 1\r\n"
-                + "LOCATION:location 1\r\n"
-                + "DESCRIPTION:description 1\r\n"
-                + "X-TAGS:tag1,tag2,\r\n"
+                + "DTSTART:20190203T000000\r\n"
+                + "DTEND:20190203T000000\r\n"
+                + "SUMMARY:slot 3\r\n"
+                + "LOCATION:location 3\r\n"
+                + "DESCRIPTION:description 3\r\n"
+                + "X-TAGS:tag4,tag3,\r\n"
+                + "END:VEVENT\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "DTSTART:20190204T000000\r\n"
+                + "DTEND:20190204T000000\r\n"
+                + "SUMMARY:slot 3\r\n"
+                + "LOCATION:location 3\r\n"
+                + "DESCRIPTION:description 3\r\n"
+                + "X-TAGS:tag4,tag3,\r\n"
                 + "END:VEVENT\r\n"
                 + "END:VCALENDAR\r\n";
         String actualIcs = new String(Files.readAllBytes(Paths.get(tempFolderPath + "\\ExportTest.ics")));
@@ -0,0 +1,72 @@
+package planmysem.logic.Commands;
+
+import static planmysem.logic.Commands.CommandTestUtil.assertCommandSuccess;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import planmysem.common.Clock;
+import planmysem.logic.CommandHistory;
+import planmysem.logic.commands.FreeCommand;
+import planmysem.model.Model;
+import planmysem.model.ModelManager;
+import planmysem.model.slot.Slot;
+
+public class FreeCommandTest {
+    private static final LocalDate DATE = LocalDate.of(2019, 2, 1);
+
+    private CommandHistory history = new CommandHistory();
+    private Model model;
+    private Model expectedModel;
+
+    @Before
+    public void setup() throws Exception {
+        Clock.set("2019-01-14T10:00:00Z");
+        model = new ModelManager();
+        expectedModel = new ModelManager();
+        for (Model m : new Model[] {model, expectedModel}) {
+            m.addSlot(DATE, new Slot("lecture", null, null, LocalTime.of(9, 0), 120, null));
+            m.addSlot(DATE, new Slot("lunch", null, null, LocalTime.of(12, 0), 60,
+                    Collections.singleton("Optional")));
+        }
+    }
+
+    @Test
+    public void execute_dateAndWindow_freePeriodsListed() {
+        FreeCommand command = new FreeCommand(60, Collections.singleton(DATE), Collections.emptySet(),
+                Collections.emptySet(), LocalTime.of(8, 0), LocalTime.of(15, 0), Collections.emptySet());
+
+        String expected = "\n1.\t2019-02-01, FRIDAY, Week 3"
+                + "\n\t08:00 to 09:00 (60 minutes)"
+                + "\n\t11:00 to 12:00 (60 minutes)"
+                + "\n\t13:00 to 15:00 (120 minutes)";
+        assertCommandSuccess(command, model, history, String.format(FreeCommand.MESSAGE_SUCCESS, 60, expected),
+                expectedModel);
+    }
+
+    @Test
+    public void execute_ignoredTag_slotTreatedAsFree() {
+        FreeCommand command = new FreeCommand(180, Collections.singleton(DATE), Collections.emptySet(),
+                Collections.emptySet(), LocalTime.of(8, 0), LocalTime.of(15, 0), Collections.singleton("Optional"));
+
+        String expected = "\n1.\t2019-02-01, FRIDAY, Week 3"
+                + "\n\t11:00 to 15:00 (240 minutes)";
+        assertCommandSuccess(command, model, history, String.format(FreeCommand.MESSAGE_SUCCESS, 180, expected),
+                expectedModel);
+    }
+
+    @Test
+    public void execute_noDayLongEnough_noneFound() {
+        Set<String> weeks = new HashSet<>(Collections.singleton("Week 3"));
+        FreeCommand command = new FreeCommand(180, Collections.emptySet(), Collections.singleton(5), weeks,
+                LocalTime.of(8, 0), LocalTime.of(14, 0), Collections.emptySet());
+
+        assertCommandSuccess(command, model, history, String.format(FreeCommand.MESSAGE_NO_FREE_PERIODS, 180),
+                expectedModel);
+    }
+}
@@ -4,6 +4,7 @@ package planmysem.logic.Commands;
 import org.junit.Test;
 import planmysem.logic.CommandHistory;
 import planmysem.logic.commands.HistoryCommand;
+import planmysem.model.HistoryStatistics;
 import planmysem.model.Model;
 import planmysem.model.ModelManager;
 
@@ -33,4 +34,20 @@ public class HistoryCommandTest {
         assertCommandSuccess(new HistoryCommand(), model, history, expectedMessage, expectedModel);
     }
 
+    @Test
+    public void execute_statistics() {
+        model.commit();
+        model.commit();
+        model.undo();
+        expectedModel.commit();
+        expectedModel.commit();
+        expectedModel.undo();
+
+        HistoryStatistics statistics = model.getHistoryStatistics();
+        String expectedMessage = String.format(HistoryCommand.MESSAGE_STATISTICS, 2,
+                statistics.getBudget().getMaxStates(), statistics.getEstimatedBytes(),
+                statistics.getBudget().getMaxBytes(), 1, 1);
+        assertCommandSuccess(new HistoryCommand(true), model, history, expectedMessage, expectedModel);
+    }
+
 }
@@ -3,6 +3,7 @@ package planmysem.logic;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static planmysem.common.Messages.MESSAGE_INVALID_SLOT_DISPLAYED_INDEX;
 
 import java.io.File;
@@ -21,6 +22,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 import planmysem.common.Clock;
 import planmysem.logic.commands.CommandResult;
+import planmysem.logic.commands.DiagnosticsCommand;
 import planmysem.logic.commands.HistoryCommand;
 import planmysem.logic.commands.ListCommand;
 import planmysem.logic.commands.exceptions.CommandException;
@@ -70,6 +72,12 @@ public class LogicManagerTest {
         logic.execute(cmd);
     }
 
+    @Test
+    public void execute_diagnostics_storageStatisticsReported() throws Exception {
+        CommandResult result = logic.execute(DiagnosticsCommand.COMMAND_WORD);
+        assertTrue(result.feedbackToUser.startsWith("Storage diagnostics:"));
+    }
+
     @Test
     public void getStorageFilePath() {
         assertEquals(logic.getStorageFilePath(), storageFile.getPath());
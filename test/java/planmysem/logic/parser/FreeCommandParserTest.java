@@ -0,0 +1,58 @@
+package planmysem.logic.parser;
+
+import static planmysem.common.Messages.MESSAGE_ILLEGAL_WEEK_VALUE;
+import static planmysem.common.Messages.MESSAGE_INVALID_COMMAND_FORMAT;
+import static planmysem.common.Messages.MESSAGE_INVALID_COMMAND_FORMAT_ADDITIONAL;
+import static planmysem.common.Messages.MESSAGE_INVALID_ENDTIME;
+import static planmysem.common.Messages.MESSAGE_INVALID_TIME;
+import static planmysem.logic.parser.CommandParserTestUtil.assertParseFailure;
+import static planmysem.logic.parser.CommandParserTestUtil.assertParseSuccess;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import planmysem.common.Clock;
+import planmysem.logic.commands.FreeCommand;
+
+public class FreeCommandParserTest {
+    private FreeCommandParser parser = new FreeCommandParser();
+
+    @Before
+    public void setup() {
+        Clock.set("2019-01-14T10:00:00Z");
+    }
+
+    @Test
+    public void parse_durationOnly_success() {
+        assertParseSuccess(parser, "60",
+                new FreeCommand(60, Collections.emptySet(), Collections.emptySet(), Collections.emptySet(),
+                        LocalTime.MIDNIGHT, null, Collections.emptySet()));
+    }
+
+    @Test
+    public void parse_allParameters_success() {
+        assertParseSuccess(parser, "120 d/mon d/01-02-2019 w/7 w/recess st/08:00 et/18:00 xt/Optional",
+                new FreeCommand(120, Collections.singleton(LocalDate.of(2019, 2, 1)), Collections.singleton(1),
+                        new HashSet<>(Arrays.asList("Week 7", "Recess Week")), LocalTime.of(8, 0),
+                        LocalTime.of(18, 0), Collections.singleton("Optional")));
+    }
+
+    @Test
+    public void parse_invalidValue_failure() {
+        String expectedMessage = String.format(MESSAGE_INVALID_COMMAND_FORMAT, FreeCommand.MESSAGE_USAGE);
+        assertParseFailure(parser, "", expectedMessage);
+        assertParseFailure(parser, "d/mon", expectedMessage);
+        assertParseFailure(parser, "0", expectedMessage);
+
+        assertParseFailure(parser, "60 w/14", MESSAGE_ILLEGAL_WEEK_VALUE);
+        assertParseFailure(parser, "60 st/noon", String.format(MESSAGE_INVALID_COMMAND_FORMAT_ADDITIONAL,
+                FreeCommand.MESSAGE_USAGE, MESSAGE_INVALID_TIME));
+        assertParseFailure(parser, "60 st/18:00 et/08:00", String.format(MESSAGE_INVALID_COMMAND_FORMAT_ADDITIONAL,
+                FreeCommand.MESSAGE_USAGE, MESSAGE_INVALID_ENDTIME));
+    }
+}
@@ -13,10 +13,13 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import planmysem.logic.commands.AddCommand;
+import planmysem.logic.commands.ClashesCommand;
 import planmysem.logic.commands.ClearCommand;
 import planmysem.logic.commands.DeleteCommand;
+import planmysem.logic.commands.DiagnosticsCommand;
 import planmysem.logic.commands.EditCommand;
 import planmysem.logic.commands.ExitCommand;
+import planmysem.logic.commands.FreeCommand;
 import planmysem.logic.commands.HelpCommand;
 import planmysem.logic.commands.ViewCommand;
 import planmysem.model.recurrence.Recurrence;
@@ -152,12 +155,27 @@ public class ParserManagerTest {
         assertTrue(parser.parseCommand(HelpCommand.COMMAND_WORD + " 3") instanceof HelpCommand);
     }
 
+    @Test
+    public void parseCommand_clashes() throws Exception {
+        assertTrue(parser.parseCommand(ClashesCommand.COMMAND_WORD) instanceof ClashesCommand);
+    }
+
     @Test
     public void parseCommand_clear() throws Exception {
         assertTrue(parser.parseCommand(ClearCommand.COMMAND_WORD) instanceof ClearCommand);
         assertTrue(parser.parseCommand(ClearCommand.COMMAND_WORD + " 3") instanceof ClearCommand);
     }
 
+    @Test
+    public void parseCommand_diagnostics() throws Exception {
+        assertTrue(parser.parseCommand(DiagnosticsCommand.COMMAND_WORD) instanceof DiagnosticsCommand);
+    }
+
+    @Test
+    public void parseCommand_free() throws Exception {
+        assertTrue(parser.parseCommand(FreeCommand.COMMAND_WORD + " 60 d/mon") instanceof FreeCommand);
+    }
+
     @Test
     public void parseCommand_exit() throws Exception {
         assertTrue(parser.parseCommand(ExitCommand.COMMAND_WORD) instanceof ExitCommand);
@@ -1,10 +1,18 @@
 package planmysem.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
 
 import org.junit.Before;
 import org.junit.Test;
 import planmysem.common.Clock;
+import planmysem.model.slot.Slot;
+import planmysem.testutil.SlotBuilder;
 
 public class PlannerTest {
 
@@ -27,4 +35,51 @@ public class PlannerTest {
         assertEquals(expectedPlanner, planner);
         assertEquals(expectedPlanner.hashCode(), planner.hashCode());
     }
+
+    @Test
+    public void unsavedOperations_recordedInOrder() throws Exception {
+        Planner planner = new Planner();
+        planner.markSaved();
+        Slot slot = new SlotBuilder().slotOne();
+        LocalDate date = LocalDate.of(2019, 1, 15);
+
+        planner.addSlot(date, slot);
+        planner.editSlot(date, slot, null, null, -1, "new name", null, null,
+                new HashSet<>(Arrays.asList("tag")));
+        planner.clearSlots();
+
+        assertEquals(Arrays.asList(
+                PlannerOperation.add(date, slot),
+                PlannerOperation.edit(date, slot, null, null, -1, "new name", null, null,
+                        new HashSet<>(Arrays.asList("tag"))),
+                PlannerOperation.clear()), planner.getUnsavedOperations());
+        assertFalse(planner.isSnapshotRequired());
+    }
+
+    @Test
+    public void unsavedOperations_replayedOnCopyOfSavedState() throws Exception {
+        Planner planner = new Planner();
+        planner.addSlot(LocalDate.of(2019, 1, 15), new SlotBuilder().slotOne());
+        Planner saved = new Planner(planner);
+        planner.markSaved();
+
+        planner.addSlot(LocalDate.of(2019, 1, 16), new SlotBuilder().slotTwo());
+        planner.removeSlot(LocalDate.of(2019, 1, 15), new SlotBuilder().slotOne());
+        for (PlannerOperation operation : planner.getUnsavedOperations()) {
+            operation.applyTo(saved);
+        }
+
+        assertEquals(planner, saved);
+    }
+
+    @Test
+    public void setDays_requiresSnapshot() {
+        Planner planner = new Planner();
+        planner.markSaved();
+        assertFalse(planner.isSnapshotRequired());
+
+        planner.resetData(new Planner());
+        assertTrue(planner.isSnapshotRequired());
+        assertTrue(planner.getUnsavedOperations().isEmpty());
+    }
 }
@@ -3,12 +3,16 @@ package planmysem.model.Semester;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 
+import javafx.util.Pair;
 import org.junit.Test;
 
 import planmysem.model.semester.Day;
@@ -96,4 +100,119 @@ public class DayTest {
                 new Day(DayOfWeek.of(1), "Week 1").hashCode());
 
     }
+
+    @Test
+    public void addSlot_slotsOrderedByStartTime() {
+        Day day = new Day(DayOfWeek.of(1), "Week 1");
+        Slot late = getSlot("late", 14, 60);
+        Slot early = getSlot("early", 8, 60);
+        Slot sameTime = getSlot("same time", 8, 30);
+        day.addSlot(late);
+        day.addSlot(early);
+        day.addSlot(sameTime);
+
+        assertEquals(Arrays.asList(early, sameTime, late), day.getSlots());
+
+        // days with the same slots are equal regardless of the order the slots were added in
+        Day otherDay = new Day(DayOfWeek.of(1), "Week 1", Arrays.asList(late, early, sameTime));
+        assertEquals(day, otherDay);
+    }
+
+    @Test
+    public void slotsOverlapping() {
+        Day day = new Day(DayOfWeek.of(1), "Week 1");
+        Slot longSlot = getSlot("long", 8, 240);
+        Slot morning = getSlot("morning", 10, 60);
+        Slot afternoon = getSlot("afternoon", 14, 60);
+        day.addSlot(afternoon);
+        day.addSlot(morning);
+        day.addSlot(longSlot);
+
+        assertEquals(Arrays.asList(longSlot, morning),
+                day.slotsOverlapping(LocalTime.of(10, 30), LocalTime.of(11, 0)));
+        assertEquals(Arrays.asList(longSlot),
+                day.slotsOverlapping(LocalTime.of(11, 0), LocalTime.of(14, 0)));
+        assertEquals(Collections.emptyList(),
+                day.slotsOverlapping(LocalTime.of(15, 0), LocalTime.of(18, 0)));
+
+        // removing the longest slot narrows the search
+        day.removeSlot(longSlot);
+        assertEquals(Collections.emptyList(),
+                day.slotsOverlapping(LocalTime.of(11, 0), LocalTime.of(14, 0)));
+    }
+
+    @Test
+    public void slotsClashingWith_slotItselfLeftOut() {
+        Day day = new Day(DayOfWeek.of(1), "Week 1");
+        Slot morning = getSlot("morning", 10, 60);
+        Slot brunch = getSlot("brunch", 10, 120);
+        day.addSlot(morning);
+        day.addSlot(brunch);
+        day.addSlot(getSlot("afternoon", 12, 60));
+
+        assertEquals(Arrays.asList(brunch), day.slotsClashingWith(morning));
+        assertEquals(Arrays.asList(morning), day.slotsClashingWith(brunch));
+
+        // an identical slot clashes with its copy
+        day.addSlot(morning);
+        assertEquals(Arrays.asList(brunch, morning), day.slotsClashingWith(morning));
+    }
+
+    @Test
+    public void getClashes_overlappingSlotsPaired() {
+        Day day = new Day(DayOfWeek.of(1), "Week 1");
+        Slot longSlot = getSlot("long", 8, 240);
+        Slot morning = getSlot("morning", 10, 60);
+        Slot noon = getSlot("noon", 11, 60);
+        Slot afternoon = getSlot("afternoon", 12, 60);
+        day.addSlot(afternoon);
+        day.addSlot(noon);
+        day.addSlot(morning);
+        day.addSlot(longSlot);
+
+        assertEquals(Arrays.asList(new Pair<>(longSlot, morning), new Pair<>(longSlot, noon)),
+                day.getClashes());
+
+        day.removeSlot(longSlot);
+        assertEquals(Collections.emptyList(), day.getClashes());
+    }
+
+    @Test
+    public void getFreePeriods_keptUpToDate() {
+        Day day = new Day(DayOfWeek.of(1), "Week 1");
+        Slot morning = getSlot("morning", 9, 120);
+        Slot lunch = new Slot("lunch", null, null, LocalTime.of(12, 0), 60, Collections.singleton("Optional"));
+        day.addSlot(morning);
+        day.addSlot(lunch);
+        day.addSlot(getSlot("night", 22, 180));
+
+        assertEquals(Arrays.asList(new Pair<>(LocalTime.of(8, 0), 60), new Pair<>(LocalTime.of(11, 0), 60),
+                new Pair<>(LocalTime.of(13, 0), 120)),
+                day.getFreePeriods(LocalTime.of(8, 0), LocalTime.of(15, 0), 30, Collections.emptySet()));
+        assertEquals(Arrays.asList(new Pair<>(LocalTime.of(13, 0), 540)),
+                day.getFreePeriods(LocalTime.of(12, 30), null, 90, Collections.emptySet()));
+        assertEquals(Arrays.asList(new Pair<>(LocalTime.of(11, 0), 660)),
+                day.getFreePeriods(LocalTime.of(9, 0), null, 90, Collections.singleton("Optional")));
+
+        day.removeSlot(morning);
+        assertEquals(Arrays.asList(new Pair<>(LocalTime.of(0, 0), 720), new Pair<>(LocalTime.of(13, 0), 120)),
+                day.getFreePeriods(LocalTime.MIDNIGHT, LocalTime.of(15, 0), 90, Collections.emptySet()));
+    }
+
+    @Test
+    public void nextSlotAfter() {
+        Day day = new Day(DayOfWeek.of(1), "Week 1");
+        Slot morning = getSlot("morning", 10, 60);
+        Slot afternoon = getSlot("afternoon", 14, 60);
+        day.addSlot(afternoon);
+        day.addSlot(morning);
+
+        assertEquals(morning, day.nextSlotAfter(LocalTime.of(9, 0)));
+        assertEquals(afternoon, day.nextSlotAfter(LocalTime.of(10, 0)));
+        assertNull(day.nextSlotAfter(LocalTime.of(14, 0)));
+    }
+
+    private Slot getSlot(String name, int startHour, int duration) {
+        return new Slot(name, null, null, LocalTime.of(startHour, 0), duration, null);
+    }
 }
@@ -3,24 +3,31 @@ package planmysem.model.Semester;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.temporal.WeekFields;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import javafx.util.Pair;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import planmysem.common.Clock;
 import planmysem.model.semester.Day;
 import planmysem.model.semester.Semester;
+import planmysem.model.semester.SlotRef;
 import planmysem.model.slot.Slot;
 import planmysem.testutil.SlotBuilder;
 
@@ -89,6 +96,131 @@ public class SemesterTest {
         assertEquals(day, expectedDay);
     }
 
+    @Test
+    public void addSlotTest_recurringSlots_shareDetails() throws Exception {
+        Semester semester = Semester.generateSemester(LocalDate.of(2019, 1, 14));
+        semester.addSlot(LocalDate.of(2019, 1, 14), new SlotBuilder().slotOne());
+        semester.addSlot(LocalDate.of(2019, 1, 21), new SlotBuilder().slotOne());
+
+        Slot first = semester.getDay(LocalDate.of(2019, 1, 14)).getSlots().get(0);
+        Slot second = semester.getDay(LocalDate.of(2019, 1, 21)).getSlots().get(0);
+        assertSame(first.getName(), second.getName());
+        assertSame(first.getTags(), second.getTags());
+
+        // copies of the semester keep sharing the details
+        Clock.set("2019-01-14T10:00:00Z");
+        Semester copy = new Semester(semester);
+        copy.addSlot(LocalDate.of(2019, 1, 28), new SlotBuilder().slotOne());
+        assertSame(first.getTags(), copy.getDay(LocalDate.of(2019, 1, 28)).getSlots().get(0).getTags());
+    }
+
+    @Test
+    public void getDays_iteratesInDateOrder() throws Exception {
+        Semester semester = Semester.generateSemester(LocalDate.of(2019, 1, 14));
+        List<LocalDate> dates = new ArrayList<>(semester.getDays().keySet());
+        assertEquals(semester.getStartDate(), dates.get(0));
+        assertEquals(semester.getEndDate(), dates.get(dates.size() - 1));
+        for (int i = 1; i < dates.size(); i++) {
+            assertEquals(dates.get(i - 1).plusDays(1), dates.get(i));
+        }
+
+        // the view reflects later changes
+        Map<LocalDate, Day> days = semester.getDays();
+        semester.addSlot(LocalDate.of(2019, 1, 15), new SlotBuilder().slotOne());
+        assertEquals(1, days.get(LocalDate.of(2019, 1, 15)).getSlots().size());
+        assertNull(days.get(semester.getEndDate().plusDays(1)));
+    }
+
+    @Test
+    public void forEachSlot_visitsSlotsInOrder() throws Exception {
+        LocalDate monday = LocalDate.of(2019, 1, 14);
+        LocalDate tuesday = LocalDate.of(2019, 1, 15);
+        Semester semester = Semester.generateSemester(monday);
+        semester.addSlot(tuesday, new SlotBuilder().slotTwo());
+        semester.addSlot(tuesday, new SlotBuilder().slotOne());
+        semester.addSlot(monday, new SlotBuilder().generateSlot(1));
+
+        List<SlotRef> visited = new ArrayList<>();
+        semester.forEachSlot((date, day, slot) -> visited.add(new SlotRef(date, day, slot)));
+        assertEquals(Arrays.asList(
+                new SlotRef(monday, semester.getDay(monday), new SlotBuilder().generateSlot(1)),
+                new SlotRef(tuesday, semester.getDay(tuesday), new SlotBuilder().slotOne()),
+                new SlotRef(tuesday, semester.getDay(tuesday), new SlotBuilder().slotTwo())), visited);
+
+        // only the slots of the range are visited, and dates outside of the semester are left out
+        visited.clear();
+        semester.forEachSlot(tuesday, semester.getEndDate().plusDays(7),
+            (date, day, slot) -> visited.add(new SlotRef(date, day, slot)));
+        assertEquals(2, visited.size());
+        assertEquals(tuesday, visited.get(0).getDate());
+        visited.clear();
+        semester.forEachSlot(semester.getStartDate().minusDays(7), monday,
+            (date, day, slot) -> visited.add(new SlotRef(date, day, slot)));
+        assertEquals(1, visited.size());
+        assertEquals(new SlotBuilder().generateSlot(1), visited.get(0).getSlot());
+    }
+
+    @Test
+    public void getSlots_dateRange_slotsInRangeInOrder() throws Exception {
+        LocalDate monday = LocalDate.of(2019, 1, 14);
+        Semester semester = Semester.generateSemester(monday);
+        semester.addSlot(monday.plusDays(9), new SlotBuilder().slotTwo());
+        semester.addSlot(monday.plusDays(2), new SlotBuilder().slotTwo());
+        semester.addSlot(monday.plusDays(2), new SlotBuilder().slotOne());
+        semester.addSlot(monday, new SlotBuilder().slotOne());
+
+        List<SlotRef> slots = semester.getSlots(monday.plusDays(1), monday.plusDays(9), slot -> true);
+        assertEquals(Arrays.asList(
+                new SlotRef(monday.plusDays(2), semester.getDay(monday.plusDays(2)), new SlotBuilder().slotOne()),
+                new SlotRef(monday.plusDays(2), semester.getDay(monday.plusDays(2)), new SlotBuilder().slotTwo()),
+                new SlotRef(monday.plusDays(9), semester.getDay(monday.plusDays(9)), new SlotBuilder().slotTwo())),
+                slots);
+
+        // only slots satisfying the predicate are returned
+        slots = semester.getSlots(monday, monday.plusDays(9), slot -> "CS2113T".equals(slot.getName()));
+        assertEquals(2, slots.size());
+        assertEquals(monday.plusDays(2), slots.get(0).getDate());
+
+        assertTrue(semester.getSlots(monday.plusDays(3), monday.plusDays(8), slot -> true).isEmpty());
+        assertTrue(semester.getSlots(monday.plusDays(9), monday, slot -> true).isEmpty());
+    }
+
+    @Test
+    public void copy_daysSharedUntilChanged() throws Exception {
+        Clock.set("2019-01-14T10:00:00Z");
+        LocalDate monday = LocalDate.of(2019, 1, 14);
+        LocalDate tuesday = LocalDate.of(2019, 1, 15);
+        Semester semester = Semester.generateSemester(monday);
+        semester.addSlot(monday, new SlotBuilder().slotOne());
+        semester.addSlot(tuesday, new SlotBuilder().slotTwo());
+
+        Semester copy = new Semester(semester);
+        assertSame(semester.getDay(monday), copy.getDay(monday));
+        assertEquals(semester, copy);
+
+        // changes to either semester copy the changed day only
+        Day before = semester.getDay(monday);
+        Slot slot = semester.getDay(monday).getSlots().get(0);
+        semester.editSlot(monday, slot, null, LocalTime.of(9, 0), -1, "Changed", null, null, new HashSet<>());
+        copy.removeSlot(tuesday, new SlotBuilder().slotTwo());
+        assertSame(before, copy.getDay(monday));
+        assertEquals(new SlotBuilder().slotOne(), copy.getDay(monday).getSlots().get(0));
+        assertEquals("Changed", semester.getDay(monday).getSlots().get(0).getName());
+        assertEquals(1, semester.getDay(tuesday).getSlots().size());
+        assertTrue(copy.getDay(tuesday).getSlots().isEmpty());
+        assertSame(semester.getDay(LocalDate.of(2019, 1, 16)), copy.getDay(LocalDate.of(2019, 1, 16)));
+
+        // the copy finds its slots through its own indexes
+        long id = copy.getDay(monday).getSlots().get(0).getId();
+        assertEquals(monday, copy.getSlot(id).getKey());
+        assertEquals(new SlotBuilder().slotOne(), copy.getSlot(id).getValue());
+
+        // a snapshot of a day stays as it is
+        Day snapshot = copy.getDaySnapshot(monday);
+        copy.clearSlots();
+        assertEquals(1, snapshot.getSlots().size());
+        assertTrue(copy.getDay(monday).getSlots().isEmpty());
+    }
 
     @Test
     public void addSlotTest_throwsDateNotFoundException() throws Exception {
@@ -169,6 +301,176 @@ public class SemesterTest {
                 Semester.generateSemester(LocalDate.of(1999, 1, 1)).hashCode());
     }
 
+    @Test
+    public void dirtyDates_trackChangedDays() throws Exception {
+        Semester semester = Semester.generateSemester(LocalDate.of(2019, 1, 14));
+        assertEquals(semester.getDays().keySet(), semester.getDirtyDates());
+
+        semester.clearDirtyDates();
+        int modificationCount = semester.getModificationCount();
+        Slot slot = new SlotBuilder().slotOne();
+        semester.addSlot(LocalDate.of(2019, 1, 15), slot);
+        semester.editSlot(LocalDate.of(2019, 1, 15), slot, LocalDate.of(2019, 1, 16), null, -1,
+                null, null, null, new HashSet<>());
+        assertEquals(new HashSet<>(Arrays.asList(LocalDate.of(2019, 1, 15), LocalDate.of(2019, 1, 16))),
+                semester.getDirtyDates());
+        assertNotEquals(modificationCount, semester.getModificationCount());
+
+        semester.clearDirtyDates();
+        semester.clearSlots();
+        assertEquals(new HashSet<>(Arrays.asList(LocalDate.of(2019, 1, 16))), semester.getDirtyDates());
+    }
+
+    @Test
+    public void editSlot_startTimeChanged_slotReordered() throws Exception {
+        Semester semester = Semester.generateSemester(LocalDate.of(2019, 1, 14));
+        LocalDate date = LocalDate.of(2019, 1, 15);
+        Slot early = new Slot("early", null, null, LocalTime.of(8, 0), 60, null);
+        Slot late = new Slot("late", null, null, LocalTime.of(14, 0), 60, null);
+        semester.addSlot(date, early);
+        semester.addSlot(date, late);
+
+        semester.editSlot(date, early, null, LocalTime.of(16, 0), -1, null, null, null, new HashSet<>());
+        assertEquals(Arrays.asList("late", "early"), semester.getDay(date).getSlots().stream()
+                .map(Slot::getName).collect(Collectors.toList()));
+
+        // slots moved to another date keep the other changes
+        semester.editSlot(date, late, date.plusDays(1), LocalTime.of(9, 0), -1, "moved", null, null,
+                new HashSet<>());
+        Slot moved = semester.getDay(date.plusDays(1)).getSlots().get(0);
+        assertEquals("moved", moved.getName());
+        assertEquals(LocalTime.of(9, 0), moved.getStartTime());
+    }
+
+    @Test
+    public void getTaggedSlots_indexKeptUpToDate() throws Exception {
+        Clock.set("2019-01-14T10:00:00Z");
+        Semester semester = Semester.generateSemester(LocalDate.of(2019, 1, 14));
+        LocalDate monday = LocalDate.of(2019, 1, 14);
+        LocalDate tuesday = LocalDate.of(2019, 1, 15);
+        Slot lecture = new Slot("lecture", null, null, LocalTime.of(10, 0), 60,
+                new HashSet<>(Arrays.asList("CS2113T", "Lecture")));
+        Slot tutorial = new Slot("tutorial", null, null, LocalTime.of(8, 0), 60,
+                new HashSet<>(Arrays.asList("CS2113T", "Tutorial")));
+        semester.addSlot(tuesday, lecture);
+        semester.addSlot(monday, lecture);
+        semester.addSlot(monday, tutorial);
+
+        assertEquals(Arrays.asList("tutorial@2019-01-14", "lecture@2019-01-14", "lecture@2019-01-15"),
+                describe(semester.getTaggedSlots(new HashSet<>(Arrays.asList("CS2113T")))));
+        assertEquals(Arrays.asList("lecture@2019-01-14", "lecture@2019-01-15"),
+                describe(semester.getTaggedSlots(new HashSet<>(Arrays.asList("CS2113T", "Lecture")))));
+        assertEquals(Arrays.asList("lecture@2019-01-14", "lecture@2019-01-15"),
+                describe(semester.getSlotsWithTagIgnoreCase("lecture")));
+        assertTrue(semester.getTaggedSlots(new HashSet<>(Arrays.asList("lecture"))).isEmpty());
+
+        semester.editSlot(monday, lecture, null, null, -1, null, null, null,
+                new HashSet<>(Arrays.asList("Lecture")));
+        semester.removeSlot(tuesday, lecture);
+        assertEquals(Arrays.asList("tutorial@2019-01-14"),
+                describe(semester.getTaggedSlots(new HashSet<>(Arrays.asList("CS2113T")))));
+        assertEquals(Arrays.asList("lecture@2019-01-14"),
+                describe(semester.getSlotsWithTagIgnoreCase("LECTURE")));
+
+        // copies of the semester are indexed as well
+        assertEquals(Arrays.asList("tutorial@2019-01-14"),
+                describe(new Semester(semester).getTaggedSlots(new HashSet<>(Arrays.asList("Tutorial")))));
+
+        semester.clearSlots();
+        assertTrue(semester.getSlotsWithTagIgnoreCase("CS2113T").isEmpty());
+    }
+
+    @Test
+    public void getSlotsWithNameIgnoreCase_indexKeptUpToDate() throws Exception {
+        Semester semester = Semester.generateSemester(LocalDate.of(2019, 1, 14));
+        LocalDate monday = LocalDate.of(2019, 1, 14);
+        LocalDate tuesday = LocalDate.of(2019, 1, 15);
+        Slot lecture = new Slot("CS2113T Lecture", null, null, LocalTime.of(10, 0), 60, null);
+        semester.addSlot(tuesday, lecture);
+        semester.addSlot(monday, lecture);
+        semester.addSlot(monday, new Slot("cs2113t lecture", null, null, LocalTime.of(8, 0), 60, null));
+
+        assertEquals(Arrays.asList("cs2113t lecture@2019-01-14", "CS2113T Lecture@2019-01-14",
+                "CS2113T Lecture@2019-01-15"), describe(semester.getSlotsWithNameIgnoreCase("CS2113T LECTURE")));
+
+        semester.editSlot(tuesday, lecture, null, null, -1, "CS2113T Tutorial", null, null, new HashSet<>());
+        assertEquals(Arrays.asList("CS2113T Tutorial@2019-01-15"),
+                describe(semester.getSlotsWithNameIgnoreCase("cs2113t tutorial")));
+        assertEquals(2, semester.getSlotsWithNameIgnoreCase("cs2113t lecture").size());
+    }
+
+    @Test
+    public void getSlot_idsStableAcrossEditsAndRemovals() throws Exception {
+        Semester semester = Semester.generateSemester(LocalDate.of(2019, 1, 14));
+        LocalDate monday = LocalDate.of(2019, 1, 14);
+        LocalDate tuesday = LocalDate.of(2019, 1, 15);
+        LocalDate wednesday = LocalDate.of(2019, 1, 16);
+        Slot lecture = new Slot("CS2113T Lecture", null, null, LocalTime.of(10, 0), 60, null);
+        semester.addSlot(monday, lecture);
+        semester.addSlot(monday, lecture);
+        semester.addSlot(tuesday, lecture);
+
+        Slot first = semester.getDay(monday).getSlots().get(0);
+        Slot second = semester.getDay(monday).getSlots().get(1);
+        Slot onTuesday = semester.getDay(tuesday).getSlots().get(0);
+        assertEquals(3, new HashSet<>(Arrays.asList(first.getId(), second.getId(), onTuesday.getId())).size());
+        assertNotEquals(Slot.NO_ID, first.getId());
+        assertSame(second, semester.getSlot(second.getId()).getValue());
+
+        // the slot moved to another date keeps its id
+        long id = onTuesday.getId();
+        semester.editSlot(tuesday, new Slot(onTuesday), wednesday, null, -1, null, null, null, new HashSet<>());
+        assertEquals(wednesday, semester.getSlot(id).getKey());
+        assertEquals(id, semester.getDay(wednesday).getSlots().get(0).getId());
+
+        // a copy of a slot removes that slot, not an equal slot before it
+        semester.removeSlot(monday, new Slot(second));
+        assertEquals(1, semester.getDay(monday).getSlots().size());
+        assertSame(first, semester.getDay(monday).getSlots().get(0));
+        assertNull(semester.getSlot(second.getId()));
+
+        // slots which are not part of the semester are still found by their details
+        assertTrue(semester.contains(monday, new Slot("CS2113T Lecture", null, null, LocalTime.of(10, 0), 60, null)));
+    }
+
+    @Test
+    public void addSlotSeries_occurrencesSharedUntilEdited() throws Exception {
+        Semester semester = Semester.generateSemester(LocalDate.of(2019, 1, 14));
+        LocalDate monday = LocalDate.of(2019, 1, 14);
+        LocalDate nextMonday = LocalDate.of(2019, 1, 21);
+        LocalDate lastMonday = LocalDate.of(2019, 1, 28);
+        Slot lecture = new Slot("CS2113T Lecture", null, null, LocalTime.of(10, 0), 60, null);
+        Slot definition = semester.addSlotSeries(Arrays.asList(monday, nextMonday, lastMonday), lecture);
+
+        assertSame(definition, semester.getDay(monday).getSlots().get(0));
+        assertSame(definition, semester.getDay(lastMonday).getSlots().get(0));
+        assertTrue(semester.getSeries(definition.getSeriesId()).getExceptions().isEmpty());
+
+        // editing one occurrence leaves the others as they were
+        semester.editSlot(nextMonday, definition, null, LocalTime.of(12, 0), -1, null, null, null, new HashSet<>());
+        assertEquals(LocalTime.of(10, 0), semester.getDay(monday).getSlots().get(0).getStartTime());
+        assertEquals(LocalTime.of(12, 0), semester.getDay(nextMonday).getSlots().get(0).getStartTime());
+        assertEquals(Arrays.asList(nextMonday),
+                new ArrayList<>(semester.getSeries(definition.getSeriesId()).getExceptions()));
+
+        // occurrences edited alike share the edited copy
+        semester.editSlot(monday, definition, null, LocalTime.of(12, 0), -1, null, null, null, new HashSet<>());
+        assertSame(semester.getDay(monday).getSlots().get(0), semester.getDay(nextMonday).getSlots().get(0));
+        assertSame(definition, semester.getDay(lastMonday).getSlots().get(0));
+
+        // removing an occurrence leaves it out of the series
+        semester.removeSlot(lastMonday, definition);
+        assertEquals(Arrays.asList(monday, nextMonday),
+                new ArrayList<>(semester.getSeries(definition.getSeriesId()).getDates()));
+        assertEquals(LocalTime.of(12, 0),
+                semester.getSeries(definition.getSeriesId()).getDefinition().getStartTime());
+    }
+
+    private List<String> describe(List<Pair<LocalDate, Slot>> slots) {
+        return slots.stream().map(entry -> entry.getValue().getName() + "@" + entry.getKey())
+                .collect(Collectors.toList());
+    }
+
     /**
      * A utility class to generate test model.
      */
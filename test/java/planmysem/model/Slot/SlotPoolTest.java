@@ -0,0 +1,67 @@
+package planmysem.model.Slot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import planmysem.model.slot.Slot;
+import planmysem.model.slot.SlotPool;
+
+public class SlotPoolTest {
+    @Test
+    public void intern_equalStrings_sameInstance() {
+        SlotPool pool = new SlotPool();
+        String first = pool.intern(new String("CS2113T"));
+        assertSame(first, pool.intern(new String("CS2113T")));
+        assertNull(pool.intern((String) null));
+        assertEquals(1, pool.getStringCount());
+    }
+
+    @Test
+    public void internTags_equalSets_sameUnmodifiableInstance() {
+        SlotPool pool = new SlotPool();
+        Set<String> first = pool.internTags(new HashSet<>(Arrays.asList("CS2113T", "Tutorial")));
+        Set<String> second = pool.internTags(new HashSet<>(Arrays.asList("Tutorial", "CS2113T")));
+        assertSame(first, second);
+        assertEquals(1, pool.getTagSetCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void internTags_modified_throwsUnsupportedOperationException() {
+        new SlotPool().internTags(new HashSet<>(Arrays.asList("CS2113T"))).add("Tutorial");
+    }
+
+    @Test
+    public void intern_equalSlots_detailsShared() {
+        SlotPool pool = new SlotPool();
+        Slot first = pool.intern(new Slot(new String("CS2113T Tutorial"), new String("COM2"), "",
+                LocalTime.of(8, 0), 60, new HashSet<>(Arrays.asList("CS2113T", "Tutorial"))));
+        Slot second = pool.intern(new Slot(new String("CS2113T Tutorial"), new String("COM2"), "",
+                LocalTime.of(10, 0), 60, new HashSet<>(Arrays.asList("CS2113T", "Tutorial"))));
+
+        assertSame(first.getName(), second.getName());
+        assertSame(first.getLocation(), second.getLocation());
+        assertSame(first.getTags(), second.getTags());
+    }
+
+    @Test
+    public void intern_unusedDetails_dropped() throws Exception {
+        SlotPool pool = new SlotPool();
+        pool.intern(new Slot(new String("CS2113T Tutorial"), new String("COM2"), new String(""),
+                LocalTime.of(8, 0), 60, new HashSet<>(Arrays.asList(new String("CS2113T"), new String("Tutorial")))));
+
+        for (int i = 0; i < 50 && pool.getStringCount() + pool.getTagSetCount() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, pool.getStringCount());
+        assertEquals(0, pool.getTagSetCount());
+    }
+}
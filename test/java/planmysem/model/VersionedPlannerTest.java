@@ -1,15 +1,19 @@
 package planmysem.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import planmysem.common.Clock;
+import planmysem.model.semester.Day;
 import planmysem.model.semester.Semester;
 import planmysem.model.slot.Slot;
 import planmysem.testutil.SlotBuilder;
@@ -44,6 +48,22 @@ public class VersionedPlannerTest {
         assertEquals(versionedPlanner.getSemester(), expectedPlanner.getSemester());
     }
 
+    @Test
+    public void undo_uncommittedChanges_discarded() throws Semester.DateNotFoundException {
+        VersionedPlanner versionedPlanner = new VersionedPlanner(new Planner());
+        LocalDate date = LocalDate.of(2019, 1, 15);
+        LocalDate otherDate = LocalDate.of(2019, 1, 16);
+        versionedPlanner.addSlot(date, new SlotBuilder().slotOne());
+        versionedPlanner.commit();
+        versionedPlanner.addSlot(otherDate, new SlotBuilder().slotOne());
+        versionedPlanner.undo();
+
+        VersionedPlanner expectedPlanner = new VersionedPlanner(new Planner());
+
+        assertEquals(versionedPlanner.getSemester(), expectedPlanner.getSemester());
+        assertEquals(1, versionedPlanner.getHistory().size());
+    }
+
     @Test
     public void undo_throwsNoUndoableStateException() {
         VersionedPlanner versionedPlanner = new VersionedPlanner(new Planner());
@@ -68,6 +88,94 @@ public class VersionedPlannerTest {
         assertEquals(versionedPlanner.getSemester(), expectedPlanner.getSemester());
     }
 
+    @Test
+    public void commit_invertibleChanges_keptAsOperations() throws Semester.DateNotFoundException {
+        VersionedPlanner versionedPlanner = new VersionedPlanner(new Planner());
+        LocalDate date = LocalDate.of(2019, 1, 15);
+        LocalDate otherDate = LocalDate.of(2019, 1, 16);
+        versionedPlanner.addSlot(date, new SlotBuilder().generateSlot(1));
+        versionedPlanner.addSlot(date, new SlotBuilder().generateSlot(2));
+        versionedPlanner.commit();
+        Day added = new Day(versionedPlanner.getSemester().getDay(date));
+
+        versionedPlanner.editSlot(date, new SlotBuilder().generateSlot(2), otherDate, null, -1, "Moved",
+                null, null, new HashSet<>());
+        versionedPlanner.removeSlot(date, new SlotBuilder().generateSlot(1));
+        versionedPlanner.commit();
+        Day edited = new Day(versionedPlanner.getSemester().getDay(date));
+        Day editedOther = new Day(versionedPlanner.getSemester().getDay(otherDate));
+
+        for (PlannerChange change : versionedPlanner.getHistory().get(2).getChanges()) {
+            assertFalse(change.isCheckpoint());
+        }
+        versionedPlanner.undo();
+        assertEquals(added, versionedPlanner.getSemester().getDay(date));
+        assertTrue(versionedPlanner.getSemester().getDay(otherDate).getSlots().isEmpty());
+        versionedPlanner.undo();
+        assertEquals(new Planner().getSemester(), versionedPlanner.getSemester());
+        versionedPlanner.redo();
+        versionedPlanner.redo();
+        assertEquals(edited, versionedPlanner.getSemester().getDay(date));
+        assertEquals(editedOther, versionedPlanner.getSemester().getDay(otherDate));
+    }
+
+    @Test
+    public void undo_changesWithoutInverse_restoredFromCheckpoint() throws Semester.DateNotFoundException {
+        VersionedPlanner versionedPlanner = new VersionedPlanner(new Planner());
+        LocalDate date = LocalDate.of(2019, 1, 15);
+        Slot first = new SlotBuilder().generateSlot(1);
+        Slot second = new SlotBuilder().generateSlot(2);
+        versionedPlanner.addSlot(date, first);
+        versionedPlanner.addSlot(date, second);
+        versionedPlanner.commit();
+        Day added = new Day(versionedPlanner.getSemester().getDay(date));
+
+        // adding the first slot back would put it after the second slot, which starts at the same time
+        versionedPlanner.removeSlot(date, first);
+        versionedPlanner.commit();
+        assertTrue(versionedPlanner.getHistory().get(2).getChanges().get(0).isCheckpoint());
+        versionedPlanner.undo();
+        assertEquals(added, versionedPlanner.getSemester().getDay(date));
+
+        versionedPlanner.clearSlots();
+        versionedPlanner.commit();
+        assertTrue(versionedPlanner.getHistory().get(2).getChanges().get(0).isCheckpoint());
+        versionedPlanner.undo();
+        assertEquals(added, versionedPlanner.getSemester().getDay(date));
+    }
+
+    @Test
+    public void commit_overBudget_oldestStatesDropped() throws Semester.DateNotFoundException {
+        VersionedPlanner versionedPlanner = new VersionedPlanner(new Planner(),
+                PlannerHistory.inMemory(new HistoryBudget(2, Long.MAX_VALUE)));
+        LocalDate date = LocalDate.of(2019, 1, 15);
+        for (int i = 1; i <= 3; i++) {
+            versionedPlanner.addSlot(date, new SlotBuilder().generateSlot(i));
+            versionedPlanner.commit();
+        }
+
+        HistoryStatistics statistics = versionedPlanner.getHistory().getStatistics();
+        assertEquals(2, statistics.getStateCount());
+        assertEquals(2, statistics.getUndoDepth());
+        assertEquals(0, statistics.getRedoDepth());
+        assertEquals(versionedPlanner.getHistory().get(1).estimateSize()
+                + versionedPlanner.getHistory().get(2).estimateSize(), statistics.getEstimatedBytes());
+
+        versionedPlanner.undo();
+        versionedPlanner.undo();
+        assertEquals(1, versionedPlanner.getSemester().getDay(date).getSlots().size());
+        assertFalse(versionedPlanner.canUndo());
+
+        // a budget smaller than a single delta still keeps the newest one
+        versionedPlanner = new VersionedPlanner(new Planner(), PlannerHistory.inMemory(new HistoryBudget(2, 0)));
+        versionedPlanner.addSlot(date, new SlotBuilder().generateSlot(1));
+        versionedPlanner.commit();
+        versionedPlanner.addSlot(date, new SlotBuilder().generateSlot(2));
+        versionedPlanner.commit();
+        assertEquals(1, versionedPlanner.getHistory().size());
+        assertTrue(versionedPlanner.canUndo());
+    }
+
     @Test
     public void redo_throwsNoRedoableStateException() {
         VersionedPlanner versionedPlanner = new VersionedPlanner(new Planner());
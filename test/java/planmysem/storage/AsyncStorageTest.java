@@ -0,0 +1,231 @@
+package planmysem.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import planmysem.common.Clock;
+import planmysem.model.Planner;
+import planmysem.model.PlannerOperation;
+import planmysem.storage.Storage.StorageOperationException;
+import planmysem.testutil.SlotBuilder;
+
+public class AsyncStorageTest {
+    private static final LocalDate DATE = LocalDate.of(2019, 1, 15);
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final SlotBuilder slotBuilder = new SlotBuilder();
+
+    @Before
+    public void setup() {
+        Clock.set("2019-01-14T10:00:00Z");
+    }
+
+    @Test
+    public void save_unchangedPlanner_nothingWritten() throws Exception {
+        RecordingStorage recordingStorage = new RecordingStorage();
+        AsyncStorage storage = new AsyncStorage(recordingStorage);
+        Planner planner = new Planner();
+        planner.markSaved();
+
+        storage.save(planner);
+        storage.flush();
+
+        assertTrue(recordingStorage.saved.isEmpty());
+    }
+
+    @Test
+    public void save_whileWriting_savesCombined() throws Exception {
+        RecordingStorage recordingStorage = new RecordingStorage();
+        AsyncStorage storage = new AsyncStorage(recordingStorage);
+        Planner planner = new Planner();
+        planner.markSaved();
+        recordingStorage.block();
+
+        planner.addSlot(DATE, slotBuilder.generateSlot(1));
+        storage.save(planner);
+        recordingStorage.awaitWriteStarted();
+        planner.addSlot(DATE, slotBuilder.generateSlot(2));
+        storage.save(planner);
+        planner.addSlot(DATE, slotBuilder.generateSlot(3));
+        storage.save(planner);
+        recordingStorage.unblock();
+        storage.flush();
+
+        assertEquals(2, recordingStorage.saved.size());
+        assertEquals(planner, recordingStorage.saved.get(1));
+        assertEquals(Arrays.asList(PlannerOperation.add(DATE, slotBuilder.generateSlot(2)),
+                PlannerOperation.add(DATE, slotBuilder.generateSlot(3))), recordingStorage.savedOperations.get(1));
+        assertTrue(planner.getUnsavedOperations().isEmpty());
+    }
+
+    @Test
+    public void save_whileWriting_historyWrittenBeforeItsPlanner() throws Exception {
+        RecordingStorage recordingStorage = new RecordingStorage();
+        AsyncStorage storage = new AsyncStorage(recordingStorage);
+        Planner planner = new Planner();
+        planner.markSaved();
+        recordingStorage.block();
+
+        planner.addSlot(DATE, slotBuilder.generateSlot(1));
+        storage.save(planner);
+        recordingStorage.awaitWriteStarted();
+        planner.addSlot(DATE, slotBuilder.generateSlot(2));
+        storage.save(planner);
+        planner.addSlot(DATE, slotBuilder.generateSlot(3));
+        storage.save(planner);
+        recordingStorage.unblock();
+        storage.flush();
+
+        assertEquals(Arrays.asList("history 1", "planner", "history 2", "history 3", "planner"),
+                recordingStorage.events);
+        assertEquals(Collections.singleton("storage-writer"), recordingStorage.historyWriteThreads);
+    }
+
+    @Test
+    public void save_writeFails_failureReportedAndChangesKept() throws Exception {
+        RecordingStorage recordingStorage = new RecordingStorage();
+        AsyncStorage storage = new AsyncStorage(recordingStorage);
+        List<StorageOperationException> failures = new ArrayList<>();
+        storage.setSaveFailureHandler(failures::add);
+        Planner planner = new Planner();
+        planner.markSaved();
+
+        recordingStorage.isFailing = true;
+        planner.addSlot(DATE, slotBuilder.generateSlot(1));
+        storage.save(planner);
+        try {
+            storage.flush();
+        } catch (StorageOperationException soe) {
+            // expected, the changes are still pending
+        }
+        assertFalse(failures.isEmpty());
+
+        recordingStorage.isFailing = false;
+        planner.addSlot(DATE, slotBuilder.generateSlot(2));
+        storage.save(planner);
+        storage.flush();
+
+        assertEquals(Arrays.asList(PlannerOperation.add(DATE, slotBuilder.generateSlot(1)),
+                PlannerOperation.add(DATE, slotBuilder.generateSlot(2))),
+                recordingStorage.savedOperations.get(recordingStorage.savedOperations.size() - 1));
+    }
+
+    @Test
+    public void save_writeThrowsUnchecked_failureReportedAndChangesKept() throws Exception {
+        RecordingStorage recordingStorage = new RecordingStorage();
+        AsyncStorage storage = new AsyncStorage(recordingStorage);
+        List<StorageOperationException> failures = new ArrayList<>();
+        storage.setSaveFailureHandler(failures::add);
+        Planner planner = new Planner();
+        planner.markSaved();
+
+        recordingStorage.isThrowingUnchecked = true;
+        planner.addSlot(DATE, slotBuilder.generateSlot(1));
+        storage.save(planner);
+        try {
+            storage.flush();
+            throw new AssertionError("The failed save was reported as written.");
+        } catch (StorageOperationException soe) {
+            // expected, the changes are still pending
+        }
+        assertFalse(failures.isEmpty());
+
+        recordingStorage.isThrowingUnchecked = false;
+        storage.flush();
+        assertEquals(Arrays.asList(PlannerOperation.add(DATE, slotBuilder.generateSlot(1))),
+                recordingStorage.savedOperations.get(recordingStorage.savedOperations.size() - 1));
+    }
+
+    @Test
+    public void flush_writeFails_exceptionThrown() throws Exception {
+        RecordingStorage recordingStorage = new RecordingStorage();
+        recordingStorage.isFailing = true;
+        AsyncStorage storage = new AsyncStorage(recordingStorage);
+
+        storage.save(new Planner());
+        thrown.expect(StorageOperationException.class);
+        storage.flush();
+    }
+
+    /**
+     * A Storage which records the planners saved to it, and which can be made to block or fail.
+     */
+    private static class RecordingStorage implements Storage {
+        private final List<Planner> saved = new ArrayList<>();
+        private final List<List<PlannerOperation>> savedOperations = new ArrayList<>();
+        private final List<String> events = new ArrayList<>();
+        private final Set<String> historyWriteThreads = new HashSet<>();
+        private int historyWriteCount;
+        private final CountDownLatch writeStarted = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+        private volatile boolean isFailing;
+        private volatile boolean isThrowingUnchecked;
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void unblock() {
+            gate.countDown();
+        }
+
+        void awaitWriteStarted() throws InterruptedException {
+            writeStarted.await();
+        }
+
+        @Override
+        public void save(Planner planner) throws StorageOperationException {
+            writeStarted.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException ie) {
+                throw new AssertionError(ie);
+            }
+            if (isFailing) {
+                throw new StorageOperationException("failing");
+            }
+            if (isThrowingUnchecked) {
+                throw new IllegalStateException("failing");
+            }
+            events.add("planner");
+            saved.add(new Planner(planner));
+            savedOperations.add(new ArrayList<>(planner.getUnsavedOperations()));
+            planner.markSaved();
+        }
+
+        @Override
+        public Runnable takeHistoryWrites() {
+            final String event = "history " + ++historyWriteCount;
+            return () -> {
+                events.add(event);
+                historyWriteThreads.add(Thread.currentThread().getName());
+            };
+        }
+
+        @Override
+        public Planner load() {
+            return new Planner();
+        }
+
+        @Override
+        public String getPath() {
+            return "test.txt";
+        }
+    }
+}
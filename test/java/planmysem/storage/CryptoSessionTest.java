@@ -0,0 +1,36 @@
+package planmysem.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CryptoSessionTest {
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+    private String keyStoragePath;
+
+    @Before
+    public void setup() {
+        keyStoragePath = tempFolder.getRoot().getPath() + "/Test.jceks";
+    }
+
+    @Test
+    public void get_sameKeyStorage_sameSession() throws Exception {
+        assertSame(CryptoSession.get(keyStoragePath), CryptoSession.get(keyStoragePath));
+    }
+
+    @Test
+    public void decrypt_encrypted_sameBytes() throws Exception {
+        CryptoSession session = CryptoSession.get(keyStoragePath);
+        byte[] data = "Hello World!".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(data, session.decrypt(session.encrypt(data)));
+        // the Cipher of the thread is reused
+        assertArrayEquals(data, session.decrypt(session.encrypt(data)));
+    }
+}
@@ -0,0 +1,218 @@
+package planmysem.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import planmysem.model.HistoryBudget;
+import planmysem.model.PlannerChange;
+import planmysem.model.PlannerDelta;
+import planmysem.model.PlannerOperation;
+import planmysem.model.semester.Day;
+import planmysem.model.slot.Slot;
+import planmysem.storage.binary.BinaryCodec;
+import planmysem.testutil.SlotBuilder;
+
+public class HistoryFileTest {
+    private static final String KEY = "2019-01-14 2019-05-10";
+    private static final String SAVED_STATE = "1a2b3c 4";
+    private static final LocalDate DATE = LocalDate.of(2019, 1, 15);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path path;
+
+    @Before
+    public void setup() {
+        path = temporaryFolder.getRoot().toPath().resolve("temp.txt.history");
+    }
+
+    @Test
+    public void open_writtenHistory_deltasAndStateRead() throws Exception {
+        HistoryFile history = getHistory();
+        history.add(1, getDelta(0));
+        history.add(2, getDelta(1));
+        history.setCurrentState(1);
+        save(history);
+
+        HistoryFile reopened = getHistory();
+        assertEquals(2, reopened.size());
+        assertEquals(1, reopened.getCurrentState());
+        assertEquals(getDelta(0), reopened.get(1));
+        assertEquals(getDelta(1), reopened.get(2));
+    }
+
+    @Test
+    public void open_operationsAndCheckpoints_deltasRead() throws Exception {
+        Slot slot = new SlotBuilder().generateSlot(1);
+        PlannerChange added = PlannerChange.ofOperations(
+                Collections.singletonList(PlannerOperation.add(DATE, slot)),
+                Collections.singletonList(PlannerOperation.remove(DATE, slot)));
+        PlannerChange edited = PlannerChange.ofOperations(
+                Collections.singletonList(PlannerOperation.edit(DATE, slot, null, null, 90, "slot",
+                        null, null, new HashSet<>())),
+                Collections.emptyList());
+        PlannerDelta delta = new PlannerDelta(Arrays.asList(added, edited, getDelta(0).getChanges().get(0)));
+        HistoryFile history = getHistory();
+        history.add(1, delta);
+        save(history);
+
+        assertEquals(delta, getHistory().get(1));
+    }
+
+    @Test
+    public void add_afterUndo_laterDeltasDiscarded() throws Exception {
+        HistoryFile history = getHistory();
+        history.add(1, getDelta(0));
+        history.add(2, getDelta(1));
+        history.setCurrentState(1);
+        history.add(2, getDelta(2));
+        save(history);
+
+        HistoryFile reopened = getHistory();
+        assertEquals(2, reopened.size());
+        assertEquals(getDelta(2), reopened.get(2));
+    }
+
+    @Test
+    public void open_otherSemester_historyDiscarded() throws Exception {
+        HistoryFile history = getHistory();
+        history.add(1, getDelta(0));
+        save(history);
+
+        HistoryFile other = new HistoryFile(path, false, new BinaryCodec());
+        other.open("2019-08-12 2019-12-07", SAVED_STATE);
+        assertEquals(0, other.size());
+        assertEquals(0, other.getCurrentState());
+    }
+
+    @Test
+    public void open_partlyWrittenRecord_discarded() throws Exception {
+        HistoryFile history = getHistory();
+        history.add(1, getDelta(0));
+        history.add(2, getDelta(1));
+        save(history);
+        Files.write(path, "S 1".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        HistoryFile reopened = getHistory();
+        assertEquals(2, reopened.size());
+        assertEquals(2, reopened.getCurrentState());
+
+        // the partly written record is removed, so records can be appended again
+        reopened.setCurrentState(1);
+        save(reopened);
+        assertEquals(1, getHistory().getCurrentState());
+    }
+
+    @Test
+    public void open_manyDeltas_compactedToNewestDeltas() throws Exception {
+        HistoryFile history = getHistory();
+        for (int i = 1; i <= HistoryFile.MAX_DELTAS + 5; i++) {
+            history.add(i, getDelta(i));
+        }
+        save(history);
+
+        HistoryFile reopened = getHistory();
+        assertEquals(HistoryFile.MAX_DELTAS, reopened.size());
+        assertEquals(HistoryFile.MAX_DELTAS, reopened.getCurrentState());
+        assertEquals(getDelta(6), reopened.get(1));
+        assertEquals(getDelta(HistoryFile.MAX_DELTAS + 5), reopened.get(HistoryFile.MAX_DELTAS));
+    }
+
+    @Test
+    public void add_overBudget_compactedToNewestDeltas() throws Exception {
+        HistoryFile history = new HistoryFile(path, false, new BinaryCodec(), new HistoryBudget(2, Long.MAX_VALUE));
+        history.open(KEY, SAVED_STATE);
+        for (int i = 1; i <= HistoryFile.MAX_CACHED_DELTAS + 3; i++) {
+            history.add(history.getCurrentState() + 1, getDelta(i));
+        }
+        save(history);
+
+        // compacting once the budget is exceeded by a few deltas keeps the file from being rewritten on every add
+        assertEquals(2, history.size());
+        assertEquals(2, history.getCurrentState());
+        assertEquals(getDelta(HistoryFile.MAX_CACHED_DELTAS + 2), history.get(1));
+        assertEquals(getDelta(HistoryFile.MAX_CACHED_DELTAS + 3), getHistory().get(2));
+        assertEquals(2, history.getStatistics().getStateCount());
+    }
+
+    @Test
+    public void add_writesNotTaken_nothingWritten() throws Exception {
+        HistoryFile history = getHistory();
+        history.add(1, getDelta(0));
+        history.setCurrentState(0);
+
+        assertFalse(Files.exists(path));
+        assertEquals(getDelta(0), history.get(1));
+    }
+
+    @Test
+    public void open_recordsAfterSavedState_discarded() throws Exception {
+        HistoryFile history = getHistory();
+        history.add(1, getDelta(0));
+        save(history);
+        // written, but the planner was never saved with this delta
+        history.add(2, getDelta(1));
+        history.takePendingWrites().run();
+
+        HistoryFile reopened = getHistory();
+        assertEquals(1, reopened.size());
+        assertEquals(1, reopened.getCurrentState());
+        assertEquals(getDelta(0), reopened.get(1));
+    }
+
+    @Test
+    public void open_otherSavedState_historyDiscarded() throws Exception {
+        HistoryFile history = getHistory();
+        history.add(1, getDelta(0));
+        save(history);
+
+        HistoryFile other = new HistoryFile(path, false, new BinaryCodec());
+        other.open(KEY, "1a2b3c 5");
+        assertEquals(0, other.size());
+        assertEquals(0, other.getCurrentState());
+    }
+
+    private HistoryFile getHistory() throws Exception {
+        HistoryFile history = new HistoryFile(path, false, new BinaryCodec());
+        history.open(KEY, SAVED_STATE);
+        return history;
+    }
+
+    /**
+     * Writes the pending changes of {@code history} and records that the planner was saved with them.
+     */
+    private void save(HistoryFile history) {
+        history.takePendingWrites().run();
+        history.recordSavedState(SAVED_STATE);
+    }
+
+    /**
+     * Returns a delta which adds the {@code i}-th generated slot to an empty day.
+     */
+    private PlannerDelta getDelta(int i) {
+        Map<LocalDate, Day> before = new HashMap<>();
+        before.put(DATE, new Day(DayOfWeek.TUESDAY, "Week 1"));
+        Map<LocalDate, Day> after = new HashMap<>();
+        Day day = new Day(DayOfWeek.TUESDAY, "Week 1");
+        day.addSlot(new SlotBuilder().generateSlot(i));
+        after.put(DATE, day);
+        return new PlannerDelta(before, after);
+    }
+}
@@ -0,0 +1,89 @@
+package planmysem.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import planmysem.storage.SegmentedGcmInputStream.CorruptedDataException;
+
+public class SegmentedGcmStreamTest {
+    private static final byte[] ASSOCIATED_DATA = {1, 2, 3};
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private SecretKey key;
+    private byte[] data;
+
+    @Before
+    public void setup() throws Exception {
+        KeyGenerator keyGen = KeyGenerator.getInstance("AES");
+        keyGen.init(128);
+        key = keyGen.generateKey();
+        // more than two segments, so that both full and partial segments are written
+        data = new byte[SegmentedGcmOutputStream.SEGMENT_SIZE * 2 + 100];
+        new Random(42).nextBytes(data);
+    }
+
+    @Test
+    public void read_writtenData_sameData() throws Exception {
+        assertArrayEquals(data, decrypt(encrypt(data), ASSOCIATED_DATA));
+        assertArrayEquals(new byte[0], decrypt(encrypt(new byte[0]), ASSOCIATED_DATA));
+    }
+
+    @Test
+    public void read_changedByte_exceptionThrown() throws Exception {
+        byte[] encrypted = encrypt(data);
+        encrypted[encrypted.length / 2] ^= 1;
+
+        thrown.expect(CorruptedDataException.class);
+        decrypt(encrypted, ASSOCIATED_DATA);
+    }
+
+    @Test
+    public void read_lastSegmentMissing_exceptionThrown() throws Exception {
+        byte[] encrypted = encrypt(data);
+        // nonce prefix, then two full segments of flag, length, data and tag
+        int fullSegmentsLength = SegmentedGcmOutputStream.NONCE_PREFIX_LENGTH
+                + 2 * (1 + 4 + SegmentedGcmOutputStream.SEGMENT_SIZE + SegmentedGcmOutputStream.TAG_LENGTH);
+
+        thrown.expect(CorruptedDataException.class);
+        decrypt(Arrays.copyOf(encrypted, fullSegmentsLength), ASSOCIATED_DATA);
+    }
+
+    @Test
+    public void read_otherAssociatedData_exceptionThrown() throws Exception {
+        thrown.expect(CorruptedDataException.class);
+        decrypt(encrypt(data), new byte[] {1, 2, 4});
+    }
+
+    private byte[] encrypt(byte[] plain) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new SegmentedGcmOutputStream(bytes, key, new SecureRandom(), ASSOCIATED_DATA)) {
+            // written in small pieces to cross segment boundaries
+            for (int i = 0; i < plain.length; i += 1000) {
+                out.write(plain, i, Math.min(1000, plain.length - i));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] decrypt(byte[] encrypted, byte[] associatedData) throws Exception {
+        try (InputStream in = new SegmentedGcmInputStream(new ByteArrayInputStream(encrypted), key, associatedData)) {
+            return in.readAllBytes();
+        }
+    }
+}
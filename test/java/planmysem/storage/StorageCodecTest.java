@@ -0,0 +1,128 @@
+package planmysem.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import planmysem.common.Clock;
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.Planner;
+import planmysem.model.semester.Day;
+import planmysem.model.semester.Semester;
+import planmysem.model.slot.Slot;
+import planmysem.storage.json.JsonCodec;
+import planmysem.testutil.SlotBuilder;
+
+public class StorageCodecTest {
+    private static final LocalDate DATE = LocalDate.of(2019, 1, 15);
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final SlotBuilder slotBuilder = new SlotBuilder();
+
+    @Before
+    public void setup() {
+        Clock.set("2019-01-14T10:00:00Z");
+    }
+
+    @Test
+    public void decode_encodedWithEachCodec_samePlanner() throws Exception {
+        Planner planner = new Planner();
+        planner.addSlot(DATE, slotBuilder.slotOne());
+        planner.addSlot(DATE, slotBuilder.slotTwo());
+        planner.addSlot(DATE.plusDays(1), new Slot("CS2113T Tutorial", null, null, LocalTime.of(8, 0), 60,
+                Collections.emptySet()));
+
+        for (StorageCodec codec : StorageCodec.getCodecs()) {
+            ByteArrayOutputStream semester = new ByteArrayOutputStream();
+            codec.encodeSemester(planner.getSemester(), semester);
+            ByteArrayOutputStream days = new ByteArrayOutputStream();
+            codec.encodeDays(planner.getDays(), days);
+
+            Semester decoded = codec.decodeSemester(new ByteArrayInputStream(semester.toByteArray()));
+            decoded.setDays(codec.decodeDays(new ByteArrayInputStream(days.toByteArray())));
+            assertEquals(codec.getName(), planner, new Planner(decoded));
+        }
+    }
+
+    @Test
+    public void decode_encodedWithEachCodec_slotIdsKept() throws Exception {
+        Planner planner = new Planner();
+        planner.addSlot(DATE, slotBuilder.slotOne());
+        planner.addSlot(DATE, slotBuilder.slotOne());
+        long firstId = planner.getSemester().getDay(DATE).getSlots().get(0).getId();
+        long secondId = planner.getSemester().getDay(DATE).getSlots().get(1).getId();
+
+        for (StorageCodec codec : StorageCodec.getCodecs()) {
+            ByteArrayOutputStream days = new ByteArrayOutputStream();
+            codec.encodeDays(planner.getDays(), days);
+
+            List<Slot> decoded = codec.decodeDays(new ByteArrayInputStream(days.toByteArray())).get(DATE).getSlots();
+            assertEquals(codec.getName(), firstId, decoded.get(0).getId());
+            assertEquals(codec.getName(), secondId, decoded.get(1).getId());
+        }
+    }
+
+    @Test
+    public void decode_encodedWithEachCodec_seriesKept() throws Exception {
+        Planner planner = new Planner();
+        planner.addSlotSeries(new HashSet<>(Arrays.asList(DATE, DATE.plusDays(7))), slotBuilder.slotOne());
+        long seriesId = planner.getSemester().getDay(DATE).getSlots().get(0).getSeriesId();
+
+        for (StorageCodec codec : StorageCodec.getCodecs()) {
+            ByteArrayOutputStream days = new ByteArrayOutputStream();
+            codec.encodeDays(planner.getDays(), days);
+
+            Map<LocalDate, Day> decoded = codec.decodeDays(new ByteArrayInputStream(days.toByteArray()));
+            Slot first = decoded.get(DATE).getSlots().get(0);
+            assertEquals(codec.getName(), seriesId, first.getSeriesId());
+            assertEquals(codec.getName(), slotBuilder.slotOne(), first);
+            Semester semester = codec.decodeSemester(new ByteArrayInputStream(encodeSemester(codec, planner)));
+            semester.setDays(decoded);
+            assertTrue(codec.getName(), semester.getDay(DATE).getSlots().get(0)
+                    == semester.getDay(DATE.plusDays(7)).getSlots().get(0));
+        }
+    }
+
+    private static byte[] encodeSemester(StorageCodec codec, Planner planner) throws Exception {
+        ByteArrayOutputStream semester = new ByteArrayOutputStream();
+        codec.encodeSemester(planner.getSemester(), semester);
+        return semester.toByteArray();
+    }
+
+    @Test
+    public void forName_knownAndUnknownNames() {
+        for (StorageCodec codec : StorageCodec.getCodecs()) {
+            assertEquals(codec.getId(), StorageCodec.forName(codec.getName()).getId());
+            assertEquals(codec.getName(), StorageCodec.forId(codec.getId()).getName());
+        }
+        assertNull(StorageCodec.forName("yaml"));
+    }
+
+    @Test
+    public void jsonDecodeDays_slotWithoutStartTime_exceptionThrown() throws Exception {
+        InputStream in = new ByteArrayInputStream(("[{\"date\":\"2019-01-15\",\"type\":\"Week 1\","
+                + "\"slots\":[{\"name\":\"CS2113T\",\"duration\":60,\"tags\":[]}]}]")
+                .getBytes(StandardCharsets.UTF_8));
+
+        thrown.expect(IllegalValueException.class);
+        new JsonCodec().decodeDays(in);
+    }
+}
@@ -1,9 +1,25 @@
 package planmysem.storage;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.bind.JAXBContext;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -13,10 +29,17 @@ import org.junit.rules.TemporaryFolder;
 import planmysem.common.Clock;
 import planmysem.common.exceptions.IllegalValueException;
 import planmysem.model.Planner;
+import planmysem.model.VersionedPlanner;
 import planmysem.model.slot.Slot;
+import planmysem.storage.binary.BinaryCodec;
+import planmysem.storage.jaxb.AdaptedPlanner;
+import planmysem.storage.jaxb.XmlCodec;
+import planmysem.storage.json.JsonCodec;
+import planmysem.testutil.SlotBuilder;
 
 public class StorageFileTest {
     private static final String TEST_DATA_FOLDER = "test/model/StorageFileTest";
+    private static final int MAX_JOURNAL_RECORDS = 200;
 
     @Rule
     public ExpectedException thrown = ExpectedException.none();
@@ -73,6 +96,316 @@ public class StorageFileTest {
     //                getStorage(TEST_DATA_FOLDER + "/" +"ValidData.txt").load().getSemester());
     //    }
 
+    @Test
+    public void save_savedPlannerChanged_appendsToJournal() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner planner = getTestPlanner();
+        storage.save(planner);
+        String snapshot = new String(Files.readAllBytes(storage.path), StandardCharsets.UTF_8);
+
+        planner.addSlot(LocalDate.of(2019, 4, 9), new SlotBuilder().slotOne());
+        planner.removeSlot(LocalDate.of(2019, 4, 5), planner.getDays().get(LocalDate.of(2019, 4, 5))
+                .getSlots().get(0));
+        storage.save(planner);
+
+        assertEquals(snapshot, new String(Files.readAllBytes(storage.path), StandardCharsets.UTF_8));
+        assertTrue(Files.exists(getJournalPath(storage)));
+        assertEquals(planner, getTempStorage().load());
+    }
+
+    @Test
+    public void save_unchangedPlanner_nothingWritten() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner planner = getTestPlanner();
+        storage.save(planner);
+        Files.delete(storage.path);
+
+        storage.save(planner);
+        assertFalse(Files.exists(storage.path));
+    }
+
+    @Test
+    public void save_descriptionLongerThan65535Bytes_savedAndJournaled() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner planner = getTestPlanner();
+        String description = String.join("", Collections.nCopies(70000, "a"));
+        planner.addSlot(LocalDate.of(2019, 4, 8), new Slot("CS2113T Tutorial", "COM2", description,
+                LocalTime.of(8, 0), 60, Collections.emptySet()));
+        storage.save(planner);
+        planner.addSlot(LocalDate.of(2019, 4, 9), new Slot("CS2113T Lecture", "LT15", description,
+                LocalTime.of(10, 0), 60, Collections.singleton(description)));
+        storage.save(planner);
+
+        assertEquals(planner, getTempStorage().load());
+    }
+
+    @Test
+    public void save_manyChanges_journalCompacted() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner planner = getTestPlanner();
+        storage.save(planner);
+        for (int i = 0; i < 250; i++) {
+            planner.addSlot(LocalDate.of(2019, 4, 9 + i % 3), new SlotBuilder().generateSlot(i));
+            storage.save(planner);
+        }
+
+        assertEquals(planner, getTempStorage().load());
+    }
+
+    @Test
+    public void save_snapshotRequired_replacesJournal() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner planner = getTestPlanner();
+        storage.save(planner);
+        planner.addSlot(LocalDate.of(2019, 4, 9), new SlotBuilder().slotOne());
+        storage.save(planner);
+
+        planner.resetData(new Planner());
+        storage.save(planner);
+
+        assertFalse(Files.exists(getJournalPath(storage)));
+        assertEquals(new Planner(), getTempStorage().load());
+    }
+
+    @Test
+    public void load_journalOfOtherSnapshot_ignored() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner planner = getTestPlanner();
+        storage.save(planner);
+        planner.addSlot(LocalDate.of(2019, 4, 9), new SlotBuilder().slotOne());
+        storage.save(planner);
+        byte[] journal = Files.readAllBytes(getJournalPath(storage));
+
+        Planner other = getTestPlanner();
+        other.addSlot(LocalDate.of(2019, 4, 11), new SlotBuilder().slotTwo());
+        storage.save(other);
+        Files.write(getJournalPath(storage), journal);
+
+        assertEquals(other, getTempStorage().load());
+    }
+
+    @Test
+    public void load_damagedLastRecord_earlierRecordsReplayed() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner planner = getTestPlanner();
+        storage.save(planner);
+        planner.addSlot(LocalDate.of(2019, 4, 9), new SlotBuilder().slotOne());
+        storage.save(planner);
+        Planner expected = new Planner(planner);
+
+        Files.write(getJournalPath(storage), Collections.singletonList("damaged record"),
+                StandardOpenOption.APPEND);
+        StorageFile reloaded = getTempStorage();
+        Planner loaded = reloaded.load();
+        assertEquals(expected, loaded);
+
+        // the damaged journal is not appended to
+        loaded.addSlot(LocalDate.of(2019, 4, 10), new SlotBuilder().slotTwo());
+        reloaded.save(loaded);
+        assertFalse(Files.exists(getJournalPath(storage)));
+        assertEquals(loaded, getTempStorage().load());
+    }
+
+    @Test
+    public void load_corruptedFile_exceptionThrown() throws Exception {
+        StorageFile storage = getTempStorage();
+        storage.save(getTestPlanner());
+        byte[] content = Files.readAllBytes(storage.path);
+        content[content.length - 1] ^= 1;
+        Files.write(storage.path, content);
+
+        thrown.expect(Storage.StorageOperationException.class);
+        getTempStorage().load();
+    }
+
+    @Test
+    public void load_legacyXmlFile_convertedToBinary() throws Exception {
+        Planner planner = getTestPlanner();
+        StringWriter xml = new StringWriter();
+        JAXBContext.newInstance(AdaptedPlanner.class).createMarshaller().marshal(new AdaptedPlanner(planner), xml);
+        StorageFile storage = getTempStorage();
+        Files.write(storage.path, Encryptor.encrypt(xml.toString()).getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(planner, storage.load());
+        assertTrue(BinaryCodec.hasMagic(Files.readAllBytes(storage.path)));
+        assertEquals(planner, getTempStorage().load());
+    }
+
+    @Test
+    public void load_shardedFile_onlyCurrentWeekLoaded() throws Exception {
+        Planner planner = getTestPlanner();
+        getTempStorage().save(planner);
+
+        Planner loaded = getTempStorage().load();
+        LocalDate otherWeekDate = LocalDate.of(2019, 4, 5);
+        assertTrue(loaded.getSemester().getLoadedDays().containsKey(LocalDate.of(2019, 1, 15)));
+        assertFalse(loaded.getSemester().getLoadedDays().containsKey(otherWeekDate));
+        assertTrue(loaded.getSemester().getUnloadedWeeks()
+                .contains(loaded.getSemester().getWeekStart(otherWeekDate)));
+
+        // the week is read when it is first needed
+        assertEquals(planner.getDays().get(otherWeekDate), loaded.getSemester().getDay(otherWeekDate));
+        assertTrue(loaded.getSemester().getLoadedDays().containsKey(otherWeekDate));
+        assertEquals(planner, loaded);
+    }
+
+    @Test
+    public void save_oneWeekChanged_onlyThatWeekRewritten() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner planner = getTestPlanner();
+        storage.save(planner);
+        Set<String> before = getWeekFiles(storage);
+
+        saveUntilSnapshot(storage, planner, LocalDate.of(2019, 4, 9));
+        Set<String> after = getWeekFiles(storage);
+
+        Set<String> removed = new HashSet<>(before);
+        removed.removeAll(after);
+        Set<String> added = new HashSet<>(after);
+        added.removeAll(before);
+        assertEquals(1, removed.size());
+        assertEquals(1, added.size());
+        assertTrue(removed.iterator().next().startsWith("2019-04-08-"));
+        assertTrue(added.iterator().next().startsWith("2019-04-08-"));
+        assertEquals(planner, getTempStorage().load());
+    }
+
+    @Test
+    public void save_weekReplaced_earlierCopyStillReadsOriginal() throws Exception {
+        Planner expected = getTestPlanner();
+        getTempStorage().save(expected);
+
+        StorageFile storage = getTempStorage();
+        Planner loaded = storage.load();
+        Planner copy = new Planner(loaded);
+        saveUntilSnapshot(storage, loaded, LocalDate.of(2019, 4, 5));
+
+        assertEquals(expected, copy);
+        assertEquals(loaded, getTempStorage().load());
+    }
+
+    @Test
+    public void load_writtenWithOtherCodec_convertedToConfiguredCodec() throws Exception {
+        Planner planner = getTestPlanner();
+        getTempStorage(new XmlCodec()).save(planner);
+
+        StorageFile storage = getTempStorage(new JsonCodec());
+        assertEquals(planner, storage.load());
+        for (String file : getWeekFiles(storage)) {
+            try (BinaryFile.Reader reader = new BinaryFile.Reader(
+                    Paths.get(storage.getPath() + ".weeks", file))) {
+                assertEquals(JsonCodec.ID, reader.getCodec().getId());
+            }
+        }
+        assertEquals(planner, getTempStorage(new BinaryCodec()).load());
+    }
+
+    @Test
+    public void save_repeatedSlots_compressedWithDictionary() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner planner = getTestPlanner();
+        for (int i = 0; i < 14; i++) {
+            planner.addSlot(LocalDate.of(2019, 1, 15).plusWeeks(i), new SlotBuilder().slotOne());
+        }
+        storage.save(planner);
+
+        StorageStatistics statistics = storage.getStatistics();
+        assertTrue(statistics.getDictionaryLength() > 0);
+        assertTrue(statistics.getCompressionRatio() > 1);
+
+        StorageFile reloaded = getTempStorage();
+        assertEquals(planner, reloaded.load());
+        assertEquals(statistics.getStoredLength(), reloaded.getStatistics().getStoredLength());
+    }
+
+    @Test
+    public void loadHistory_afterRestart_undoAndRedoRestoreSavedStates() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner loaded = storage.load();
+        VersionedPlanner planner = new VersionedPlanner(loaded, storage.loadHistory(loaded));
+        LocalDate date = LocalDate.of(2019, 1, 15);
+        int commits = HistoryFile.MAX_CACHED_DELTAS * 2;
+        for (int i = 0; i < commits; i++) {
+            planner.addSlot(date, new SlotBuilder().generateSlot(i));
+            planner.commit();
+            storage.save(planner);
+        }
+        planner.undo();
+        storage.save(planner);
+
+        StorageFile restarted = getTempStorage();
+        Planner reloaded = restarted.load();
+        VersionedPlanner restored = new VersionedPlanner(reloaded, restarted.loadHistory(reloaded));
+        assertEquals(commits - 1, restored.getSemester().getDay(date).getSlots().size());
+        assertTrue(restored.canRedo());
+
+        // undoing past the deltas kept in memory reads them from the file
+        while (restored.canUndo()) {
+            restored.undo();
+        }
+        assertTrue(restored.getSemester().getDay(date).getSlots().isEmpty());
+        restored.redo();
+        assertEquals(1, restored.getSemester().getDay(date).getSlots().size());
+    }
+
+    @Test
+    public void loadHistory_historyWrittenWithoutPlanner_unsavedDeltasDiscarded() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner loaded = storage.load();
+        VersionedPlanner planner = new VersionedPlanner(loaded, storage.loadHistory(loaded));
+        LocalDate date = LocalDate.of(2019, 1, 15);
+        planner.addSlot(date, new SlotBuilder().slotOne());
+        planner.commit();
+        storage.save(planner);
+        // the history of the next change is written, but the planner is not saved with it
+        planner.addSlot(date, new SlotBuilder().slotTwo());
+        planner.commit();
+        storage.takeHistoryWrites().run();
+
+        StorageFile restarted = getTempStorage();
+        Planner reloaded = restarted.load();
+        VersionedPlanner restored = new VersionedPlanner(reloaded, restarted.loadHistory(reloaded));
+        assertFalse(restored.canRedo());
+        restored.undo();
+        assertTrue(restored.getSemester().getDay(date).getSlots().isEmpty());
+        assertFalse(restored.canUndo());
+    }
+
+    @Test
+    public void load_missingFile_historyDiscarded() throws Exception {
+        StorageFile storage = getTempStorage();
+        Planner loaded = storage.load();
+        VersionedPlanner planner = new VersionedPlanner(loaded, storage.loadHistory(loaded));
+        planner.addSlot(LocalDate.of(2019, 1, 15), new SlotBuilder().slotOne());
+        planner.commit();
+        storage.save(planner);
+        Files.delete(Paths.get(storage.getPath()));
+
+        StorageFile restarted = getTempStorage();
+        Planner reloaded = restarted.load();
+        assertFalse(new VersionedPlanner(reloaded, restarted.loadHistory(reloaded)).canUndo());
+    }
+
+    /**
+     * Adds slots on {@code date} and saves them until the journal is full and a snapshot is written.
+     */
+    private void saveUntilSnapshot(StorageFile storage, Planner planner, LocalDate date) throws Exception {
+        for (int i = 0; i <= MAX_JOURNAL_RECORDS; i++) {
+            planner.addSlot(date, new SlotBuilder().generateSlot(i));
+            storage.save(planner);
+        }
+    }
+
+    private Set<String> getWeekFiles(StorageFile storage) throws Exception {
+        try (Stream<Path> files = Files.list(Paths.get(storage.getPath() + ".weeks"))) {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+
+    private Path getJournalPath(StorageFile storage) {
+        return Paths.get(storage.getPath() + ".journal");
+    }
+
     private StorageFile getStorage(String fileName) throws Exception {
         return new StorageFile(TEST_DATA_FOLDER + "/" + fileName);
     }
@@ -81,6 +414,10 @@ public class StorageFileTest {
         return new StorageFile(temporaryFolder.getRoot().getPath() + "/" + "temp.txt");
     }
 
+    private StorageFile getTempStorage(StorageCodec codec) throws Exception {
+        return new StorageFile(temporaryFolder.getRoot().getPath() + "/" + "temp.txt", codec);
+    }
+
     private Planner getTestPlanner() throws Exception {
         Planner planner = new Planner();
 
@@ -0,0 +1,117 @@
+package planmysem.storage.binary;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import planmysem.common.Clock;
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.Planner;
+import planmysem.model.semester.Semester;
+import planmysem.model.slot.Slot;
+import planmysem.testutil.SlotBuilder;
+
+public class BinaryCodecTest {
+    private static final LocalDate DATE = LocalDate.of(2019, 1, 15);
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final SlotBuilder slotBuilder = new SlotBuilder();
+    private final BinaryCodec codec = new BinaryCodec();
+
+    @Before
+    public void setup() {
+        Clock.set("2019-01-14T10:00:00Z");
+    }
+
+    @Test
+    public void decode_encodedSemesterAndDays_samePlanner() throws Exception {
+        Planner planner = new Planner();
+        planner.addSlot(DATE, slotBuilder.slotOne());
+        planner.addSlot(DATE, slotBuilder.slotTwo());
+        planner.addSlot(DATE.plusDays(1), slotBuilder.generateSlot(3));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            codec.encodeSemester(planner.getSemester(), out);
+            codec.encodeDays(planner.getDays(), out);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Semester semester = codec.decodeSemester(in);
+        semester.setDays(codec.decodeDays(in));
+        assertEquals(planner, new Planner(semester));
+    }
+
+    @Test
+    public void decode_descriptionLongerThan65535Bytes_samePlanner() throws Exception {
+        Planner planner = new Planner();
+        String description = String.join("", Collections.nCopies(70000, "\u00e9"));
+        planner.addSlot(DATE, new Slot("CS2113T Tutorial", "COM2", description, LocalTime.of(8, 0), 60,
+                Collections.emptySet()));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            codec.encodeSemester(planner.getSemester(), out);
+            codec.encodeDays(planner.getDays(), out);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Semester semester = codec.decodeSemester(in);
+        semester.setDays(codec.decodeDays(in));
+        assertEquals(planner, new Planner(semester));
+    }
+
+    @Test
+    public void decodeSemester_earlierVersion_stringsRead() throws Exception {
+        Semester expected = new Planner().getSemester();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(expected.getName());
+            out.writeUTF(expected.getAcademicYear());
+            out.writeInt((int) expected.getStartDate().toEpochDay());
+            out.writeInt((int) expected.getEndDate().toEpochDay());
+            out.writeInt(expected.getNoOfWeeks());
+            for (int i = 0; i < 4; i++) {
+                out.writeInt(0);
+            }
+        }
+
+        Semester semester = new BinaryCodec(BinaryCodec.SCHEMA_VERSION_SLOT_SERIES)
+                .decodeSemester(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(expected.getName(), semester.getName());
+        assertEquals(expected.getAcademicYear(), semester.getAcademicYear());
+        assertEquals(expected.getStartDate(), semester.getStartDate());
+    }
+
+    @Test
+    public void decodeDays_unknownStringId_exceptionThrown() throws Exception {
+        ByteArrayOutputStream day = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(day)) {
+            out.writeInt((int) DATE.toEpochDay());
+            out.writeInt(0); // the string table is empty
+            out.writeInt(0);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeInt(1);
+            out.writeInt(day.size());
+            out.write(day.toByteArray());
+        }
+
+        thrown.expect(IllegalValueException.class);
+        codec.decodeDays(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
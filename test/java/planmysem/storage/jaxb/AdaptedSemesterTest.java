@@ -0,0 +1,112 @@
+package planmysem.storage.jaxb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import planmysem.common.Clock;
+import planmysem.common.exceptions.IllegalValueException;
+import planmysem.model.Planner;
+import planmysem.model.semester.Day;
+import planmysem.model.slot.Slot;
+import planmysem.testutil.SlotBuilder;
+
+public class AdaptedSemesterTest {
+    private static final LocalDate DATE = LocalDate.of(2019, 1, 15);
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final SlotBuilder slotBuilder = new SlotBuilder();
+
+    @Before
+    public void setup() {
+        Clock.set("2019-01-14T10:00:00Z");
+    }
+
+    @Test
+    public void toModelType_manyDays_sameAsSequentialConversion() throws Exception {
+        Planner planner = new Planner();
+        for (int i = 0; i < 300; i++) {
+            planner.addSlot(DATE.plusDays(i % 100), slotBuilder.generateSlot(i));
+        }
+        AdaptedSemester adapted = new AdaptedSemester(planner.getSemester());
+
+        assertEquals(planner.getSemester(), adapted.toModelType());
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            assertEquals(adapted.toModelType(pool), adapted.toModelType());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void toModelType_illegalSlot_exceptionThrown() throws Exception {
+        Planner planner = new Planner();
+        for (int i = 0; i < 100; i++) {
+            planner.addSlot(DATE.plusDays(i), slotBuilder.generateSlot(i));
+        }
+        planner.addSlot(DATE.plusDays(50), new Slot("CS2113T/Tutorial", null, null, LocalTime.of(8, 0), 60,
+                Collections.emptySet()));
+
+        thrown.expect(IllegalValueException.class);
+        new AdaptedSemester(planner.getSemester()).toModelType();
+    }
+
+    @Test
+    public void convertDays_illegalDaysInDifferentTasks_earliestExceptionThrown() throws Exception {
+        Map<String, AdaptedDay> adaptedDays = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            LocalDate date = DATE.plusDays(i);
+            adaptedDays.put(date.toString(), new AdaptedDay(new Day(date.getDayOfWeek(), "Week 1")));
+        }
+        // the earliest illegal day fails last, so the later days record their failures first
+        adaptedDays.put(DATE.plusDays(10).toString(), new IllegalAdaptedDay(DATE.plusDays(10), 200));
+        adaptedDays.put(DATE.plusDays(45).toString(), new IllegalAdaptedDay(DATE.plusDays(45), 0));
+        adaptedDays.put(DATE.plusDays(90).toString(), new IllegalAdaptedDay(DATE.plusDays(90), 0));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            AdaptedSemester.convertDays(adaptedDays, pool);
+            fail("IllegalValueException expected");
+        } catch (IllegalValueException ive) {
+            assertEquals(DATE.plusDays(10).toString(), ive.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * An adapted day that fails to convert after {@code delay} milliseconds, with its date as the message.
+     */
+    private static class IllegalAdaptedDay extends AdaptedDay {
+        private final LocalDate date;
+        private final long delay;
+
+        IllegalAdaptedDay(LocalDate date, long delay) {
+            this.date = date;
+            this.delay = delay;
+        }
+
+        @Override
+        public Day toModelType() throws IllegalValueException {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalValueException(date.toString());
+        }
+    }
+}